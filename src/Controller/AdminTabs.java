@@ -1,20 +1,33 @@
 package Controller;
 
+import model.ArticleBackup;
+import model.AsyncDatabaseHelper;
 import model.DatabaseHelper;
 import model.DataStore;
+import model.InvitationCodeGenerator;
 import model.User;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.geometry.Insets;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AdminTabs {
-	// DatabaseHelper is used for interacting with the database. Singleton instance
-	// is retrieved.
-	private static DatabaseHelper databaseHelper = DatabaseHelper.getInstance();
+	// Database access goes through the asynchronous facade so that no handler blocks
+	// the JavaFX thread. Singleton instance is retrieved.
+	private static AsyncDatabaseHelper asyncDatabase = AsyncDatabaseHelper.getInstance();
 
 	// Utility method to create a VBox with standard padding and spacing.
 	private static VBox createVBox() {
@@ -33,6 +46,15 @@ public class AdminTabs {
 		label.setText(message); // Sets the message text to the label
 	}
 
+	// Utility method to split a comma-separated field into its non-empty, trimmed entries.
+	private static List<String> splitList(String text) {
+		List<String> entries = new ArrayList<>();
+		for (String entry : text.split(",")) {
+			if (!entry.isBlank()) entries.add(entry.trim());
+		}
+		return entries;
+	}
+
 	// Creates the "Add Article" tab UI and its functionality.
 	public static VBox createAddArticleTab() {
 		VBox vbox = createVBox(); // Standard VBox layout
@@ -46,39 +68,35 @@ public class AdminTabs {
 
 		// Define the behavior when the "Add Article" button is clicked
 		addButton.setOnAction(e -> {
-			try {
-				// Retrieve and trim input values
-				String title = titleField.getText().trim(), authors = authorsField.getText().trim(),
-						abstractText = abstractField.getText().trim(), keywords = keywordsField.getText().trim(),
-						body = bodyField.getText().trim(), references = referencesField.getText().trim();
-
-				// Validate required fields
-				if (title.isEmpty() || authors.isEmpty() || body.isEmpty()) {
-					showMessage(messageLabel, "Title, Authors, and Body are required.");
-					return;
-				}
-
-				// Check if encryption is enabled and encrypt the body if needed
-				boolean encrypt = encryptCheckBox.isSelected();
-				if (encrypt)
-					body = DatabaseHelper.encryptContent(body);
-
-				// Add the article to the database
-				databaseHelper.addArticle(title, authors, abstractText, keywords, body, references, encrypt);
-
-				// Clear fields and reset UI after successful addition
-				showMessage(messageLabel, "Article added successfully!");
-				titleField.clear();
-				authorsField.clear();
-				abstractField.clear();
-				keywordsField.clear();
-				bodyField.clear();
-				referencesField.clear();
-				encryptCheckBox.setSelected(false);
-			} catch (Exception ex) {
-				// Display error message if an exception occurs
-				showMessage(messageLabel, "Error adding article: " + ex.getMessage());
+			// Retrieve and trim input values
+			String title = titleField.getText().trim(), authors = authorsField.getText().trim(),
+					abstractText = abstractField.getText().trim(), keywords = keywordsField.getText().trim(),
+					body = bodyField.getText().trim(), references = referencesField.getText().trim();
+
+			// Validate required fields
+			if (title.isEmpty() || authors.isEmpty() || body.isEmpty()) {
+				showMessage(messageLabel, "Title, Authors, and Body are required.");
+				return;
 			}
+
+			// Check if encryption is enabled and encrypt the body if needed
+			boolean encrypt = encryptCheckBox.isSelected();
+			if (encrypt)
+				body = DatabaseHelper.encryptContent(body);
+
+			// Add the article to the database
+			FxDatabase.run(asyncDatabase.addArticle(title, authors, abstractText, keywords, body, references, encrypt),
+					addButton, messageLabel, "Adding article...", done -> {
+						// Clear fields and reset UI after successful addition
+						showMessage(messageLabel, "Article added successfully!");
+						titleField.clear();
+						authorsField.clear();
+						abstractField.clear();
+						keywordsField.clear();
+						bodyField.clear();
+						referencesField.clear();
+						encryptCheckBox.setSelected(false);
+					}, ex -> showMessage(messageLabel, "Error adding article: " + FxDatabase.describe(ex)));
 		});
 
 		// Add input fields and the button to the VBox
@@ -93,30 +111,86 @@ public class AdminTabs {
 		return vbox; // Return the completed VBox
 	}
 
+	// Number of articles fetched per page in the "List Articles" tab.
+	private static final int ARTICLE_PAGE_SIZE = 100;
+
 	// Creates the "List Articles" tab UI and its functionality.
 	public static VBox createListArticlesTab() {
 		VBox vbox = createVBox(); // Standard VBox layout
 		ListView<String> articlesListView = new ListView<>(); // ListView to display article titles
 		Label messageLabel = new Label(); // Label to display messages
 		Button refreshButton = new Button("Refresh List"); // Button to refresh the article list
-
-		// Define the behavior when the "Refresh List" button is clicked
-		refreshButton.setOnAction(e -> {
-			try {
-				// Populate the ListView with article titles from the database
-				articlesListView.getItems().setAll(databaseHelper.listArticles());
-			} catch (Exception ex) {
-				// Display error message if an exception occurs
-				showMessage(messageLabel, "Error listing articles: " + ex.getMessage());
+		ArticleListLoader loader = new ArticleListLoader(articlesListView, messageLabel);
+
+		// Fetch the next page once the last loaded row scrolls into view
+		articlesListView.setCellFactory(list -> new ListCell<>() {
+			@Override
+			protected void updateItem(String item, boolean empty) {
+				super.updateItem(item, empty);
+				setText(empty ? null : item);
+				if (!empty && getIndex() == list.getItems().size() - 1)
+					Platform.runLater(loader::loadNextPage); // Not while the list is laying out its cells
 			}
 		});
 
+		// Define the behavior when the "Refresh List" button is clicked
+		refreshButton.setOnAction(e -> loader.reset());
+
 		// Add components to the VBox
 		vbox.getChildren().addAll(refreshButton, articlesListView, messageLabel);
 
 		return vbox; // Return the completed VBox
 	}
 
+	// Loads the article list one keyset page at a time instead of all at once.
+	private static class ArticleListLoader {
+		private final ListView<String> listView;
+		private final Label messageLabel;
+		private int lastId = 0; // Database ID of the last loaded article
+		private boolean hasMore = false;
+		private CompletableFuture<?> loading; // Page request in flight, if any
+
+		ArticleListLoader(ListView<String> listView, Label messageLabel) {
+			this.listView = listView;
+			this.messageLabel = messageLabel;
+		}
+
+		// Starts over from the first page
+		void reset() {
+			if (loading != null)
+				loading.cancel(false); // Its page belongs to the old listing
+			loading = null;
+			listView.getItems().clear();
+			lastId = 0;
+			hasMore = true;
+			loadNextPage();
+		}
+
+		// Appends the next page if there is one; called on the JavaFX thread
+		void loadNextPage() {
+			if (!hasMore || loading != null)
+				return;
+			CompletableFuture<?>[] request = new CompletableFuture<?>[1];
+			request[0] = FxDatabase.run(asyncDatabase.listArticles(lastId, ARTICLE_PAGE_SIZE), null, null, null, page -> {
+				if (loading != request[0])
+					return; // Superseded by a reset
+				loading = null;
+				lastId = page.getLastId();
+				hasMore = page.hasMore();
+				listView.getItems().addAll(page.getArticles());
+				showMessage(messageLabel, "Loaded " + listView.getItems().size() + " articles" + (hasMore ? ", scroll for more." : "."));
+			}, ex -> {
+				if (loading != request[0])
+					return;
+				// Display error message if an exception occurs
+				loading = null;
+				hasMore = false;
+				showMessage(messageLabel, "Error listing articles: " + FxDatabase.describe(ex));
+			});
+			loading = request[0];
+		}
+	}
+
 	// Creates the "View Article" tab UI and its functionality.
 	public static VBox createViewArticleTab() {
 		VBox vbox = createVBox(); // Standard VBox layout
@@ -128,14 +202,19 @@ public class AdminTabs {
 
 		// Define the behavior when the "View Article" button is clicked
 		viewButton.setOnAction(e -> {
+			int articleId;
 			try {
-				// Parse the article ID and fetch details from the database
-				int articleId = Integer.parseInt(articleIdField.getText().trim());
-				articleDetailsArea.setText(databaseHelper.viewArticle(articleId));
-			} catch (Exception ex) {
-				// Display error message if an exception occurs
-				showMessage(messageLabel, "Error viewing article: " + ex.getMessage());
+				// Parse the article ID
+				articleId = Integer.parseInt(articleIdField.getText().trim());
+			} catch (NumberFormatException ex) {
+				showMessage(messageLabel, "Error viewing article: Invalid Article ID.");
+				return;
 			}
+			// Fetch details from the database
+			FxDatabase.run(asyncDatabase.viewArticle(articleId), viewButton, messageLabel, "Loading article...", details -> {
+				articleDetailsArea.setText(details);
+				showMessage(messageLabel, "");
+			}, ex -> showMessage(messageLabel, "Error viewing article: " + FxDatabase.describe(ex)));
 		});
 
 		// Add components to the VBox
@@ -154,14 +233,18 @@ public class AdminTabs {
 
 		// Define the behavior when the "Delete Article" button is clicked
 		deleteButton.setOnAction(e -> {
+			int displayId;
 			try {
-				// Parse the article ID and delete it from the database
-				databaseHelper.deleteArticle(Integer.parseInt(articleIdField.getText().trim()));
-				showMessage(messageLabel, "Article deleted successfully!");
-			} catch (Exception ex) {
-				// Display error message if an exception occurs
-				showMessage(messageLabel, "Error deleting article: " + ex.getMessage());
+				// Parse the article ID
+				displayId = Integer.parseInt(articleIdField.getText().trim());
+			} catch (NumberFormatException ex) {
+				showMessage(messageLabel, "Error deleting article: Invalid Article ID.");
+				return;
 			}
+			// Delete it from the database
+			FxDatabase.run(asyncDatabase.deleteArticle(displayId), deleteButton, messageLabel, "Deleting article...",
+					done -> showMessage(messageLabel, "Article deleted successfully!"),
+					ex -> showMessage(messageLabel, "Error deleting article: " + FxDatabase.describe(ex)));
 		});
 
 		// Add components to the VBox
@@ -181,25 +264,73 @@ public class AdminTabs {
 		// Label to display success or error messages
 		Label messageLabel = new Label();
 
-		// Button to trigger the backup operation
+		// Progress of the running backup
+		ProgressBar progressBar = new ProgressBar(0);
+		progressBar.setMaxWidth(Double.MAX_VALUE);
+
+		// Option to only back up what changed since the last backup
+		CheckBox incrementalCheckBox = new CheckBox("Incremental (only changes since the last backup)");
+
+		// Buttons to start and cancel the backup operation
 		Button backupButton = new Button("Backup Articles");
+		Button cancelButton = new Button("Cancel");
+		cancelButton.setDisable(true);
 
 		// Define action to perform when the "Backup Articles" button is clicked
 		backupButton.setOnAction(e -> {
-			try {
-				// Call the database helper to perform the backup using the provided file name
-				databaseHelper.backupArticles(backupFileField.getText().trim());
-				// Display a success message
-				showMessage(messageLabel, "Backup completed successfully!");
-			} catch (Exception ex) {
-				// Display an error message if the backup operation fails
-				showMessage(messageLabel, "Error backing up articles: " + ex.getMessage());
+			String fileName = backupFileField.getText().trim();
+			if (fileName.isEmpty()) {
+				showMessage(messageLabel, "Enter a backup file name.");
+				return;
 			}
+
+			// Run the backup off the JavaFX thread, reporting progress after every checkpoint. Cancel is passed through
+			// the progress callback rather than by cancelling the future: the future then only completes once the
+			// backup has stopped and released its connection and partial file, so the button stays disabled until then.
+			progressBar.setProgress(0);
+			AtomicBoolean cancelRequested = new AtomicBoolean();
+			ArticleBackup.Progress progress = new ArticleBackup.Progress() {
+				@Override
+				public void onProgress(long rowsDone, long totalRows) {
+					Platform.runLater(() -> {
+						progressBar.setProgress(totalRows == 0 ? 1 : (double) rowsDone / Math.max(totalRows, rowsDone));
+						showMessage(messageLabel, "Backed up " + rowsDone + " of " + totalRows + " articles...");
+					});
+				}
+
+				@Override
+				public boolean isCancelled() {
+					return cancelRequested.get();
+				}
+			};
+			CompletableFuture<Long> backup = asyncDatabase.backupArticles(fileName, incrementalCheckBox.isSelected(), progress);
+			cancelButton.setDisable(false);
+			cancelButton.setOnAction(c -> {
+				cancelRequested.set(true); // The backup stops at its next checkpoint
+				cancelButton.setDisable(true);
+				showMessage(messageLabel, "Cancelling backup...");
+			});
+
+			// Restore the controls and display the outcome once the backup is done
+			FxDatabase.run(backup, backupButton, messageLabel, "Starting backup...", rows -> {
+				cancelButton.setDisable(true);
+				progressBar.setProgress(1);
+				showMessage(messageLabel, "Backup completed successfully! (" + rows + " articles)");
+			}, ex -> {
+				cancelButton.setDisable(true);
+				if (ex instanceof CancellationException) {
+					progressBar.setProgress(0);
+					showMessage(messageLabel, "Backup cancelled.");
+				} else {
+					// Display an error message if the backup operation fails
+					showMessage(messageLabel, "Error backing up articles: " + FxDatabase.describe(ex));
+				}
+			});
 		});
 
-		// Add the input field and button to the layout
-		addField(vbox, "Backup File Name (e.g., backup.txt):", backupFileField);
-		vbox.getChildren().addAll(backupButton, messageLabel);
+		// Add the input field and buttons to the layout
+		addField(vbox, "Backup File Name (e.g., backup.bak):", backupFileField);
+		vbox.getChildren().addAll(incrementalCheckBox, new HBox(10, backupButton, cancelButton), progressBar, messageLabel);
 		return vbox;
 	}
 
@@ -207,8 +338,9 @@ public class AdminTabs {
 		// Create a VBox layout for the "Restore Articles" tab
 		VBox vbox = createVBox();
 
-		// Input field for the restore file name
+		// Input fields for the full backup and any incremental backups to apply on top of it
 		TextField restoreFileField = new TextField();
+		TextField deltaFilesField = new TextField();
 
 		// Label to display success or error messages
 		Label messageLabel = new Label();
@@ -216,22 +348,37 @@ public class AdminTabs {
 		// Button to trigger the restore operation
 		Button restoreButton = new Button("Restore Articles");
 
+		// Shown while the restore runs
+		ProgressIndicator restoreProgress = new ProgressIndicator();
+		restoreProgress.setVisible(false);
+
 		// Define action to perform when the "Restore Articles" button is clicked
 		restoreButton.setOnAction(e -> {
-			try {
-				// Call the database helper to restore articles from the provided file name
-				databaseHelper.restoreArticles(restoreFileField.getText().trim());
+			// Call the database helper to restore articles from the full backup plus the incremental chain
+			List<String> deltaFiles = new ArrayList<>();
+			for (String name : deltaFilesField.getText().split(","))
+				if (!name.isBlank())
+					deltaFiles.add(name.trim());
+			String fileName = restoreFileField.getText().trim();
+			CompletableFuture<Void> restore = deltaFiles.isEmpty() ? asyncDatabase.restoreArticles(fileName)
+					: asyncDatabase.restoreArticles(fileName, deltaFiles);
+
+			restoreProgress.setVisible(true);
+			FxDatabase.run(restore, restoreButton, messageLabel, "Restoring articles...", done -> {
 				// Display a success message
+				restoreProgress.setVisible(false);
 				showMessage(messageLabel, "Restore completed successfully!");
-			} catch (Exception ex) {
+			}, ex -> {
 				// Display an error message if the restore operation fails
-				showMessage(messageLabel, "Error restoring articles: " + ex.getMessage());
-			}
+				restoreProgress.setVisible(false);
+				showMessage(messageLabel, "Error restoring articles: " + FxDatabase.describe(ex));
+			});
 		});
 
 		// Add the input field and button to the layout
-		addField(vbox, "Restore File Name (e.g., backup.txt):", restoreFileField);
-		vbox.getChildren().addAll(restoreButton, messageLabel);
+		addField(vbox, "Restore File Name (e.g., backup.bak):", restoreFileField);
+		addField(vbox, "Incremental Backups (comma-separated, oldest first):", deltaFilesField);
+		vbox.getChildren().addAll(new HBox(10, restoreButton, restoreProgress), messageLabel);
 		return vbox;
 	}
 
@@ -248,35 +395,78 @@ public class AdminTabs {
 		// Button to generate an invitation code
 		Button generateButton = new Button("Generate Invitation Code");
 
+		// Input fields for generating a batch of codes into a CSV file
+		TextField countField = new TextField("100"), lengthField = new TextField(String.valueOf(DataStore.INVITATION_CODE_LENGTH)),
+				csvFileField = new TextField("invitations.csv");
+		Button generateBatchButton = new Button("Generate Codes to CSV");
+
 		// Define action to perform when the "Generate Invitation Code" button is
 		// clicked
 		generateButton.setOnAction(e -> {
-			// List to store selected roles
-			List<String> roles = new ArrayList<>();
-
-			// Add roles based on checkbox selections
-			if (studentCheckBox.isSelected())
-				roles.add("Student");
-			if (instructorCheckBox.isSelected())
-				roles.add("Instructor");
+			List<String> roles = selectedInvitationRoles(studentCheckBox, instructorCheckBox);
 
 			// Generate an invitation code if at least one role is selected
 			if (!roles.isEmpty()) {
-				String code = UUID.randomUUID().toString().replace("-", "").substring(0, 4);
-				DataStore.getInstance().getInvitations().put(code, new User.Invitation(roles));
-				codeLabel.setText("Invitation Code: " + code);
+				String code = DataStore.getInstance().issueInvitation(roles);
+				User.Invitation invitation = DataStore.getInstance().getInvitations().get(code);
+				codeLabel.setText("Invitation Code: " + code + " (valid until "
+						+ invitation.getExpiresAt().truncatedTo(ChronoUnit.MINUTES) + ")");
 			} else {
 				// Display an error message if no roles are selected
 				showMessage(messageLabel, "Select at least one role.");
 			}
 		});
 
+		// Define action to perform when the "Generate Codes to CSV" button is clicked
+		generateBatchButton.setOnAction(e -> {
+			List<String> roles = selectedInvitationRoles(studentCheckBox, instructorCheckBox);
+			if (roles.isEmpty()) {
+				showMessage(messageLabel, "Select at least one role.");
+				return;
+			}
+			int count, length;
+			try {
+				count = Integer.parseInt(countField.getText().trim());
+				length = Integer.parseInt(lengthField.getText().trim());
+			} catch (NumberFormatException ex) {
+				showMessage(messageLabel, "Enter a number of codes and a code length.");
+				return;
+			}
+			String csvFile = csvFileField.getText().trim();
+
+			// Writing thousands of codes to disk is kept off the JavaFX thread
+			FxDatabase.run(CompletableFuture.supplyAsync(() -> {
+				try (Writer csv = Files.newBufferedWriter(Paths.get(csvFile))) {
+					return DataStore.getInstance().issueInvitations(count, length, roles, csv);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			}), generateBatchButton, messageLabel, "Generating codes...",
+					issued -> showMessage(messageLabel, issued + " invitation codes written to " + csvFile),
+					ex -> showMessage(messageLabel, "Error generating codes: " + FxDatabase.describe(ex)));
+		});
+
 		// Add the components to the layout
 		vbox.getChildren().addAll(new Label("Select Roles for Invitation:"), studentCheckBox, instructorCheckBox,
-				generateButton, codeLabel, messageLabel);
+				generateButton, codeLabel);
+		addField(vbox, "Number of Codes:", countField);
+		addField(vbox, "Code Length (" + InvitationCodeGenerator.MIN_LENGTH + "-" + InvitationCodeGenerator.MAX_LENGTH + "):",
+				lengthField);
+		addField(vbox, "CSV File Name:", csvFileField);
+		vbox.getChildren().addAll(generateBatchButton, messageLabel);
 		return vbox;
 	}
 
+	// Roles ticked on the "Invite User" tab
+	private static List<String> selectedInvitationRoles(CheckBox studentCheckBox, CheckBox instructorCheckBox) {
+		List<String> roles = new ArrayList<>();
+		if (studentCheckBox.isSelected())
+			roles.add("Student");
+		if (instructorCheckBox.isSelected())
+			roles.add("Instructor");
+		return roles;
+	}
+
 	public static VBox createResetUserTab() {
 		// Create a VBox layout for the "Reset User Account" tab
 		VBox vbox = createVBox();
@@ -308,7 +498,7 @@ public class AdminTabs {
 						Integer.parseInt(expiryTimeField.getText().split(":")[1]));
 
 				// Set the OTP and expiry for the user
-				user.setOneTimePassword(otp, expiry);
+				DataStore.getInstance().updateUser(user, u -> u.setOneTimePassword(otp, expiry));
 
 				// Display the OTP in a success message
 				showMessage(messageLabel, "One-time password set: " + otp);
@@ -347,9 +537,13 @@ public class AdminTabs {
 				Alert alert = new Alert(Alert.AlertType.CONFIRMATION, "Are you sure?", ButtonType.YES, ButtonType.NO);
 				alert.showAndWait().ifPresent(response -> {
 					if (response == ButtonType.YES) {
-						// Remove the user from the user list
-						DataStore.getInstance().getUserList().remove(user);
-						showMessage(messageLabel, "User account deleted.");
+						// Remove the user from the user list, then from every group they were in
+						DataStore.getInstance().removeUser(user);
+						FxDatabase.run(asyncDatabase.deleteUserFromAllGroups(user.getUsername()), deleteButton, messageLabel,
+								"Removing group memberships...",
+								groups -> showMessage(messageLabel, "User account deleted and removed from " + groups + " group(s)."),
+								ex -> showMessage(messageLabel, "User account deleted, but group memberships could not be removed: "
+										+ FxDatabase.describe(ex)));
 					}
 				});
 			} else {
@@ -378,7 +572,7 @@ public class AdminTabs {
 			// Clear the current items in the ListView
 			userListView.getItems().clear();
 
-			// Populate the ListView with user details
+			// Populate the ListView with user details, ordered by username
 			DataStore.getInstance().getUserList().forEach(user -> {
 				userListView.getItems().add("Username: " + user.getUsername() + ", Name: " + user.getFullName()
 						+ ", Roles: " + String.join(", ", user.getRoles()));
@@ -426,7 +620,7 @@ public class AdminTabs {
 
 				if (!roles.isEmpty()) {
 					// Update the user's roles
-					user.setRoles(roles);
+					DataStore.getInstance().setUserRoles(user, roles);
 					showMessage(messageLabel, "Roles updated.");
 				} else {
 					// Display an error message if no roles are selected
@@ -477,97 +671,111 @@ public class AdminTabs {
 
 		// Define action to perform when the "Add to Group" button is clicked
 		addToGroupButton.setOnAction(e -> {
-			try {
-				String groupName = groupNameField.getText().trim();
-				String username = usernameField.getText().trim();
-				String articleIdStr = articleIdField.getText().trim();
-				boolean isSpecialGroup = specialGroupRadio.isSelected();
-				boolean grantAdminRights = adminRightsRadio.isSelected();
-				boolean grantViewRights = viewRightsRadio.isSelected();
-
-				if (groupName.isEmpty()) {
-					showMessage(messageLabel, "Group Name cannot be empty.");
+			String groupName = groupNameField.getText().trim();
+			List<String> usernames = splitList(usernameField.getText()); // One or more, separated by commas
+			List<String> articleIdStrs = splitList(articleIdField.getText());
+			boolean isSpecialGroup = specialGroupRadio.isSelected();
+			boolean grantAdminRights = adminRightsRadio.isSelected();
+			boolean grantViewRights = viewRightsRadio.isSelected();
+
+			if (groupName.isEmpty()) {
+				showMessage(messageLabel, "Group Name cannot be empty.");
+				return;
+			}
+
+			// Validate the users' role and the article IDs before touching the database
+			String role = grantAdminRights ? "Admin" : (grantViewRights ? "Viewer" : "");
+			if (!usernames.isEmpty() && role.isEmpty()) {
+				showMessage(messageLabel, "Select a role for the user.");
+				return;
+			}
+			List<Integer> articleIds = new ArrayList<>();
+			for (String articleIdStr : articleIdStrs) {
+				try {
+					articleIds.add(Integer.parseInt(articleIdStr));
+				} catch (NumberFormatException ex) {
+					showMessage(messageLabel, "Invalid Article ID: " + articleIdStr);
 					return;
 				}
+			}
+
+			// Run the whole sequence as one background call and report what it did
+			CompletableFuture<String> update = asyncDatabase.submit(db -> {
+				String outcome = "";
 
-				// Create group if it doesn't exist
-				String groupId = null;
+				// Create group if it doesn't exist; names resolve from the group directory without a query
+				String groupId;
 				try {
-					groupId = databaseHelper.getGroupIdByName(groupName);
+					groupId = db.getGroupIdByName(groupName);
 				} catch (SQLException ex) {
-					databaseHelper.createGroup(groupName, isSpecialGroup);
-					groupId = databaseHelper.getGroupIdByName(groupName);
-					showMessage(messageLabel, "New group created: " + groupName);
+					groupId = db.createGroup(groupName, isSpecialGroup);
+					outcome = "New group created: " + groupName;
 				}
 
-				// Add user to group
-				if (!username.isEmpty()) {
-					String role = grantAdminRights ? "Admin" : (grantViewRights ? "Viewer" : "");
-					if (role.isEmpty()) {
-						showMessage(messageLabel, "Select a role for the user.");
-						return;
-					}
-					databaseHelper.addUserToGroup(groupId, username, role);
-					showMessage(messageLabel, "User added to group: " + username);
+				// Add the users to the group in one transaction
+				if (!usernames.isEmpty()) {
+					db.addUsersToGroup(groupId, usernames, role);
+					outcome = usernames.size() == 1 ? "User added to group: " + usernames.get(0)
+							: usernames.size() + " users added to group.";
 				}
 
-				// Add article to group
-				if (!articleIdStr.isEmpty()) {
-					try {
-						int articleId = Integer.parseInt(articleIdStr);
-						databaseHelper.addArticleToGroup(groupId, articleId, grantViewRights);
-						showMessage(messageLabel, "Article added to group: " + articleId);
-					} catch (NumberFormatException ex) {
-						showMessage(messageLabel, "Invalid Article ID.");
-					}
+				// Add the articles to the group in one transaction
+				if (!articleIds.isEmpty()) {
+					db.addArticlesToGroup(groupId, articleIds);
+					outcome = articleIds.size() == 1 ? "Article added to group: " + articleIds.get(0)
+							: articleIds.size() + " articles added to group.";
 				}
-			} catch (Exception ex) {
-				showMessage(messageLabel, "Error: " + ex.getMessage());
-			}
+				return outcome;
+			});
+			FxDatabase.run(update, addToGroupButton, messageLabel, "Updating group...",
+					outcome -> showMessage(messageLabel, outcome),
+					ex -> showMessage(messageLabel, "Error: " + FxDatabase.describe(ex)));
 		});
 
 		// Define action to perform when the "Delete Group" button is clicked
 		deleteGroupButton.setOnAction(e -> {
-			try {
-				String groupName = groupNameField.getText().trim();
-				if (groupName.isEmpty()) {
-					showMessage(messageLabel, "Group Name cannot be empty.");
-					return;
-				}
-				String groupId = databaseHelper.getGroupIdByName(groupName);
-				databaseHelper.deleteGroup(groupId);
-				showMessage(messageLabel, "Group deleted: " + groupName);
-			} catch (SQLException ex) {
-				showMessage(messageLabel, "Error deleting group: " + ex.getMessage());
+			String groupName = groupNameField.getText().trim();
+			if (groupName.isEmpty()) {
+				showMessage(messageLabel, "Group Name cannot be empty.");
+				return;
 			}
+			CompletableFuture<Void> delete = asyncDatabase.submit(db -> {
+				db.deleteGroup(db.getGroupIdByName(groupName));
+				return null;
+			});
+			FxDatabase.run(delete, deleteGroupButton, messageLabel, "Deleting group...",
+					done -> showMessage(messageLabel, "Group deleted: " + groupName),
+					ex -> showMessage(messageLabel, "Error deleting group: " + FxDatabase.describe(ex)));
 		});
 
 		// Define action to perform when the "Remove User from Group" button is clicked
 		removeUserButton.setOnAction(e -> {
-			try {
-				String groupName = groupNameField.getText().trim();
-				String username = usernameField.getText().trim();
+			String groupName = groupNameField.getText().trim();
+			List<String> usernames = splitList(usernameField.getText()); // One or more, separated by commas
 
-				if (groupName.isEmpty() || username.isEmpty()) {
-					showMessage(messageLabel, "Group Name and Username cannot be empty.");
-					return;
-				}
+			if (groupName.isEmpty() || usernames.isEmpty()) {
+				showMessage(messageLabel, "Group Name and Username cannot be empty.");
+				return;
+			}
 
-				String groupId = databaseHelper.getGroupIdByName(groupName);
-				if (databaseHelper.deleteUserFromGroup(groupId, username)) {
-					showMessage(messageLabel, "User removed from group: " + username);
-				} else {
+			// Remove the users from the group in one transaction
+			CompletableFuture<Integer> remove = asyncDatabase.submit(db -> db.deleteUsersFromGroup(db.getGroupIdByName(groupName), usernames));
+			FxDatabase.run(remove, removeUserButton, messageLabel, "Removing users...", removed -> {
+				if (removed == 0) {
 					showMessage(messageLabel, "User not found in group.");
+				} else if (usernames.size() == 1) {
+					showMessage(messageLabel, "User removed from group: " + usernames.get(0));
+				} else {
+					showMessage(messageLabel, removed + " of " + usernames.size() + " users removed from group.");
 				}
-			} catch (SQLException ex) {
-				showMessage(messageLabel, "Error removing user: " + ex.getMessage());
-			}
+			}, ex -> showMessage(messageLabel, "Error removing user: " + FxDatabase.describe(ex)));
 		});
 
 		// Add fields and buttons to the layout
 		vbox.getChildren().addAll(new Label("Group Name:"), groupNameField, specialGroupRadio, generalGroupRadio,
-				new Label("Username:"), usernameField, adminRightsRadio, viewRightsRadio, new Label("Article ID:"),
-				articleIdField, addToGroupButton, deleteGroupButton, removeUserButton, messageLabel);
+				new Label("Username(s), comma-separated:"), usernameField, adminRightsRadio, viewRightsRadio,
+				new Label("Article ID(s), comma-separated:"), articleIdField, addToGroupButton, deleteGroupButton,
+				removeUserButton, messageLabel);
 
 		return vbox;
 	}
@@ -601,21 +809,24 @@ public class AdminTabs {
 
 		// Define action for the "View Group Users" button
 		viewUsersButton.setOnAction(e -> {
-			try {
-				// Get the group name and validate it
-				String groupName = groupNameField.getText().trim();
-				if (groupName.isEmpty())
-					throw new IllegalArgumentException("Group name cannot be empty.");
-
-				// Retrieve the group ID and load users in the group
-				String groupId = databaseHelper.getGroupIdByName(groupName);
-				userTable.getItems().setAll(databaseHelper.getUsersInGroup(groupId));
-				showMessage(messageLabel, "Users loaded.");
-			} catch (Exception ex) {
-				// Display error message and clear the table if an exception occurs
-				showMessage(messageLabel, "Error: " + ex.getMessage());
+			// Get the group name and validate it
+			String groupName = groupNameField.getText().trim();
+			if (groupName.isEmpty()) {
+				showMessage(messageLabel, "Error: Group name cannot be empty.");
 				userTable.getItems().clear();
+				return;
 			}
+
+			// Retrieve the group ID and load users in the group
+			FxDatabase.run(asyncDatabase.submit(db -> db.getUsersInGroup(db.getGroupIdByName(groupName))), viewUsersButton,
+					messageLabel, "Loading users...", users -> {
+						userTable.getItems().setAll(users);
+						showMessage(messageLabel, "Users loaded.");
+					}, ex -> {
+						// Display error message and clear the table if an exception occurs
+						showMessage(messageLabel, "Error: " + FxDatabase.describe(ex));
+						userTable.getItems().clear();
+					});
 		});
 
 		// Add components to the layout
@@ -635,9 +846,14 @@ public class AdminTabs {
 		// Label to display messages
 		Label messageLabel = new Label();
 
-		// TableView to display articles in the group
+		// TableView to display articles in the group (headers only)
 		TableView<Map<String, String>> articlesTable = new TableView<>();
 
+		// TextArea showing the body of the selected article, loaded only when it is selected
+		TextArea bodyArea = new TextArea();
+		bodyArea.setEditable(false);
+		bodyArea.setWrapText(true);
+
 		// Button to trigger the action of viewing articles in the group
 		Button viewArticlesButton = new Button("View Articles");
 
@@ -648,39 +864,51 @@ public class AdminTabs {
 		TableColumn<Map<String, String>, String> titleColumn = new TableColumn<>("Title");
 		titleColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get("title")));
 
-		TableColumn<Map<String, String>, String> bodyColumn = new TableColumn<>("Body");
-		bodyColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get("body")));
-
-		articlesTable.getColumns().setAll(List.of(idColumn, titleColumn, bodyColumn));
+		TableColumn<Map<String, String>, String> authorsColumn = new TableColumn<>("Authors");
+		authorsColumn.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().get("authors")));
+
+		articlesTable.getColumns().setAll(List.of(idColumn, titleColumn, authorsColumn));
+
+		// Load the body of the selected article on demand
+		articlesTable.getSelectionModel().selectedItemProperty().addListener((obs, oldArticle, article) -> {
+			bodyArea.clear();
+			if (article == null) return;
+			String groupName = groupNameField.getText().trim(), username = usernameField.getText().trim();
+			int articleId = Integer.parseInt(article.get("id"));
+			FxDatabase.run(asyncDatabase.submit(db -> db.getArticleBodyInGroup(db.getGroupIdByName(groupName), username, articleId)),
+					null, null, null, body -> {
+						if (articlesTable.getSelectionModel().getSelectedItem() == article)
+							bodyArea.setText(body); // Ignore bodies of rows that are no longer selected
+					}, ex -> showMessage(messageLabel, "Error: " + FxDatabase.describe(ex)));
+		});
 
 		// Define action for the "View Articles" button
 		viewArticlesButton.setOnAction(e -> {
-			try {
-				// Get the group name and username, and validate them
-				String groupName = groupNameField.getText().trim();
-				String username = usernameField.getText().trim();
+			// Get the group name and username, and validate them
+			String groupName = groupNameField.getText().trim();
+			String username = usernameField.getText().trim();
 
-				if (groupName.isEmpty() || username.isEmpty()) {
-					showMessage(messageLabel, "Group name and username cannot be empty.");
-					articlesTable.getItems().clear();
-					return;
-				}
-
-				// Retrieve the group ID and load articles in the group
-				String groupId = databaseHelper.getGroupIdByName(groupName);
-				List<Map<String, String>> articles = databaseHelper.getArticlesInGroup(groupId, username);
-				articlesTable.getItems().setAll(articles);
-				showMessage(messageLabel, "Articles loaded.");
-			} catch (Exception ex) {
-				// Display error message and clear the table if an exception occurs
-				showMessage(messageLabel, "Error: " + ex.getMessage());
+			if (groupName.isEmpty() || username.isEmpty()) {
+				showMessage(messageLabel, "Group name and username cannot be empty.");
 				articlesTable.getItems().clear();
+				return;
 			}
+
+			// Retrieve the group ID and load articles in the group
+			FxDatabase.run(asyncDatabase.submit(db -> db.getArticlesInGroup(db.getGroupIdByName(groupName), username)),
+					viewArticlesButton, messageLabel, "Loading articles...", articles -> {
+						articlesTable.getItems().setAll(articles);
+						showMessage(messageLabel, "Articles loaded.");
+					}, ex -> {
+						// Display error message and clear the table if an exception occurs
+						showMessage(messageLabel, "Error: " + FxDatabase.describe(ex));
+						articlesTable.getItems().clear();
+					});
 		});
 
 		// Add components to the layout
 		vbox.getChildren().addAll(new Label("Group Name:"), groupNameField, new Label("Username:"), usernameField,
-				viewArticlesButton, articlesTable, messageLabel);
+				viewArticlesButton, articlesTable, new Label("Body:"), bodyArea, messageLabel);
 
 		return vbox;
 	}
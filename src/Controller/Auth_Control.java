@@ -6,7 +6,10 @@ import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
 import javafx.geometry.Insets;
 import java.time.LocalDateTime;
+import java.util.List;
 import model.DataStore;
+import model.LoginThrottle;
+import model.PasswordHasher;
 import model.User;
 
 public class Auth_Control {
@@ -21,6 +24,9 @@ public class Auth_Control {
     // Label to display messages
     private Label messageLabel = new Label();
 
+    // Button for login or registration, disabled while a password is being checked
+    private Button loginButton = new Button("Login / Register");
+
     // Constructor initializes the primary stage
     public Auth_Control(Stage primaryStage) {
         this.primaryStage = primaryStage;
@@ -44,7 +50,6 @@ public class Auth_Control {
         grid.addRow(3, new Label("Invitation Code:"), invitationCodeField);
 
         // Button for login or registration
-        Button loginButton = new Button("Login / Register");
         loginButton.setOnAction(e -> handleLoginOrRegister());
         grid.addRow(4, loginButton, messageLabel);
 
@@ -60,6 +65,13 @@ public class Auth_Control {
         String confirmPassword = confirmPasswordField.getText();
         String invitationCode = invitationCodeField.getText().trim();
 
+        // Every attempt costs a token for the username and for this window, before any lookup or password check
+        if (!LoginThrottle.getInstance().tryAcquire(username, clientId())) {
+            messageLabel.setText("Too many attempts. Please wait and try again.");
+            clearFields();
+            return;
+        }
+
         DataStore dataStore = DataStore.getInstance();
 
         if (!invitationCode.isEmpty()) {
@@ -74,14 +86,20 @@ public class Auth_Control {
             if (user != null) {
                 if (user.isPasswordResetRequired()) {
                     handlePasswordReset(user, password);
-                } else if (user.getPassword().equals(password)) {
-                    if (!user.isAccountSetupComplete()) {
-                        new AccountSetupController(user).showAccountSetupPage();
-                    } else {
-                        proceedAfterLogin(user);
-                    }
                 } else {
-                    messageLabel.setText("Invalid username or password.");
+                    // Password checks are CPU-heavy, so they run on the hashing pool
+                    FxDatabase.run(dataStore.login(username, password), loginButton, messageLabel, "Signing in...", loggedIn -> {
+                        if (loggedIn == null) {
+                            messageLabel.setText("Invalid username or password.");
+                            return;
+                        }
+                        LoginThrottle.getInstance().reset(username); // A successful login clears earlier failures
+                        if (!loggedIn.isAccountSetupComplete()) {
+                            new AccountSetupController(loggedIn).showAccountSetupPage();
+                        } else {
+                            proceedAfterLogin(loggedIn);
+                        }
+                    }, ex -> messageLabel.setText("Login failed: " + FxDatabase.describe(ex)));
                 }
             } else if (validatePassword(password, confirmPassword)) {
                 // Register a new user if the credentials are valid
@@ -93,10 +111,15 @@ public class Auth_Control {
         clearFields(); // Clear input fields after handling
     }
 
+    // Identifies this window to the login throttle
+    private String clientId() {
+        return "window-" + Integer.toHexString(System.identityHashCode(primaryStage));
+    }
+
     // Handles the logic for processing an invitation code
     private void handleInvitationCode(String code) {
         User.Invitation invitation = DataStore.getInstance().getInvitations().get(code);
-        if (invitation != null) {
+        if (invitation != null && !invitation.isExpired()) {
             new User_Control(primaryStage, invitation.getRoles(), code).showRegistrationPageWithRoles();
         } else {
             messageLabel.setText("Invalid invitation code.");
@@ -131,10 +154,14 @@ public class Auth_Control {
 
     // Registers the first user as an administrator
     private void registerAdmin(String username, String password) {
-        User admin = new User(username, password);
-        admin.addRole("Administrator");
-        DataStore.getInstance().getUserList().add(admin);
-        messageLabel.setText("Admin account created. Please log in again.");
+        FxDatabase.run(PasswordHasher.getInstance().hashAsync(password), loginButton, messageLabel, "Creating account...", hash -> {
+            User admin = User.withPasswordHash(username, hash, List.of("Administrator"));
+            if (DataStore.getInstance().registerUser(admin)) {
+                messageLabel.setText("Admin account created. Please log in again.");
+            } else {
+                messageLabel.setText("Username is already taken.");
+            }
+        }, ex -> messageLabel.setText("Registration failed: " + FxDatabase.describe(ex)));
     }
 
     // Clears all input fields
@@ -189,9 +216,11 @@ public class Auth_Control {
                     setupMessageLabel.setText("Please fill in all required fields.");
                 } else {
                     // Save user details and mark the setup as complete
-                    user.setDetails(emailField.getText(), firstNameField.getText(), middleNameField.getText(),
-                            lastNameField.getText(), preferredFirstNameField.getText());
-                    user.setAccountSetupComplete(true);
+                    DataStore.getInstance().updateUser(user, u -> {
+                        u.setDetails(emailField.getText(), firstNameField.getText(), middleNameField.getText(),
+                                lastNameField.getText(), preferredFirstNameField.getText());
+                        u.setAccountSetupComplete(true);
+                    });
                     proceedAfterLogin(user);
                 }
             });
@@ -8,6 +8,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import javafx.util.Pair;
+import model.SessionManager;
 import model.User;
 
 public class Dashboard {
@@ -21,11 +22,15 @@ public class Dashboard {
     // Role of the logged-in user
     private String role;
 
-    // Constructor initializes the stage, user, and role
+    // Session opened for this dashboard; every tab switch is checked against it
+    private SessionManager.Session session;
+
+    // Constructor initializes the stage, user, and role, and opens a session for them
     public Dashboard(Stage primaryStage, User user, String role) {
         this.primaryStage = primaryStage;
         this.user = user;
         this.role = role;
+        this.session = SessionManager.getInstance().open(user, role);
     }
 
     // Displays the main dashboard/home page
@@ -47,7 +52,10 @@ public class Dashboard {
         // Logout button configuration
         Button logoutButton = new Button("Logout");
         logoutButton.setStyle("-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold;");
-        logoutButton.setOnAction(e -> new Auth_Control(primaryStage).showLoginPage()); // Redirect to login page on click
+        logoutButton.setOnAction(e -> {
+            SessionManager.getInstance().close(session.getToken()); // End the session
+            new Auth_Control(primaryStage).showLoginPage(); // Redirect to login page on click
+        });
         VBox.setMargin(logoutButton, new Insets(20, 0, 0, 0)); // Margin above the button
 
         // Add all components to the main layout
@@ -77,6 +85,12 @@ public class Dashboard {
 
             // Set action for the tab button
             tabButton.setOnAction(e -> {
+                // The session ends on logout, expiry, a role change or deletion of the user
+                if (!SessionManager.getInstance().authorize(session.getToken(), role)) {
+                    new Alert(Alert.AlertType.INFORMATION, "Your session has ended. Please log in again.").showAndWait();
+                    new Auth_Control(primaryStage).showLoginPage();
+                    return;
+                }
                 contentArea.getChildren().setAll(tab.getValue()); // Show the corresponding tab content
                 buttonContainer.getChildren().forEach(node -> 
                     ((Button)node).setStyle("-fx-border-color: #dcd9d1 ; -fx-border-width: 1 0 1 0;")); // Reset styles
@@ -126,7 +140,7 @@ public class Dashboard {
                     new Pair<>("Delete Article", AdminTabs.createDeleteArticleTab()),
                     new Pair<>("Backup Articles", AdminTabs.createBackupArticlesTab()),
                     new Pair<>("Restore Articles", AdminTabs.createRestoreArticlesTab()),
-                    new Pair<>("Search Articles", StudentTabs.createSearchArticlesTab()),
+                    new Pair<>("Search Articles", StudentTabs.createSearchArticlesTab(session)),
                     new Pair<>("Manage Groups", AdminTabs.createManageGroupsTab()),
                     new Pair<>("Manage Group Users", AdminTabs.createViewGroupUsersTab()),
                     new Pair<>("View Articles in Group", AdminTabs.createViewArticlesInGroupTab())
@@ -135,7 +149,7 @@ public class Dashboard {
             case "Student":
                 tabs.addAll(Arrays.asList(
                     new Pair<>("Help System", StudentTabs.createHelpSystemTab()),
-                    new Pair<>("Search Articles", StudentTabs.createSearchArticlesTab()),
+                    new Pair<>("Search Articles", StudentTabs.createSearchArticlesTab(session)),
                     new Pair<>("View Articles", AdminTabs.createViewArticleTab()),
                     new Pair<>("View Articles in Group", AdminTabs.createViewArticlesInGroupTab())
                 ));
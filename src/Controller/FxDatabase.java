@@ -0,0 +1,50 @@
+package Controller;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import javafx.scene.control.Control;
+import javafx.scene.control.Label;
+
+// Applies the outcome of asynchronous database calls back on the JavaFX thread
+final class FxDatabase {
+
+    // Utility class, no instances
+    private FxDatabase() {}
+
+    // Disables the trigger and shows the busy message until the call completes, then re-enables the trigger and
+    // hands the value or the unwrapped error to the callbacks on the JavaFX thread
+    static <T> CompletableFuture<T> run(CompletableFuture<T> call, Control trigger, Label messageLabel, String busyMessage,
+            Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        if (trigger != null) trigger.setDisable(true);
+        if (messageLabel != null && busyMessage != null) messageLabel.setText(busyMessage);
+        call.whenComplete((value, error) -> Platform.runLater(() -> {
+            if (trigger != null) trigger.setDisable(false);
+            if (error == null) {
+                onSuccess.accept(value);
+            } else {
+                onError.accept(unwrap(error));
+            }
+        }));
+        return call;
+    }
+
+    // The exception thrown by the database call itself
+    static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    // Message for the user, with readable text for timeouts and cancellations
+    static String describe(Throwable error) {
+        if (error instanceof TimeoutException) return "The operation timed out.";
+        if (error instanceof CancellationException) return "The operation was cancelled.";
+        return error.getMessage();
+    }
+}
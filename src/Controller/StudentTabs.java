@@ -4,13 +4,19 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.geometry.Insets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import model.AsyncDatabaseHelper;
 import model.DataStore;
-import model.DatabaseHelper;
+import model.PostingList;
+import model.SessionManager;
 
 public class StudentTabs {
 
-    // Singleton instance of the DatabaseHelper for database interactions
-    private static DatabaseHelper databaseHelper = DatabaseHelper.getInstance();
+    // Asynchronous database access, so searches never block the JavaFX thread
+    private static AsyncDatabaseHelper asyncDatabase = AsyncDatabaseHelper.getInstance();
+
+    // Ranked search results together with the match count and level statistics, computed in one background call
+    private record SearchOutcome(List<String> results, int matchCount, String levelStats) {}
 
     // Utility method to create a VBox with consistent spacing and padding
     private static VBox createVBox() {
@@ -78,9 +84,10 @@ public class StudentTabs {
         return vbox; // Return the completed layout
     }
 
-    // Creates the "Search Articles" tab for students
-    public static VBox createSearchArticlesTab() {
+    // Creates the "Search Articles" tab for students; results leave out restricted articles the user may not see
+    public static VBox createSearchArticlesTab(SessionManager.Session session) {
         VBox vbox = createVBox(); // Standard layout
+        String username = session.getUsername();
 
         // Components for searching articles
         TextField searchField = new TextField(); // Input field for search text
@@ -94,28 +101,35 @@ public class StudentTabs {
         levelChoiceBox.getItems().addAll("All", "Beginner", "Intermediate", "Advanced", "Expert");
         levelChoiceBox.setValue("All"); // Default value
 
-        // Populate group choice box with options
-        groupChoiceBox.getItems().addAll("All", "Assignment 1", "Assignment 2");
+        // Populate group choice box with the groups the user belongs to, cached on the session until memberships change
+        groupChoiceBox.getItems().add("All");
         groupChoiceBox.setValue("All"); // Default value
+        FxDatabase.run(asyncDatabase.getGroupsForSession(session.getToken()), null, null, null,
+                groups -> groupChoiceBox.getItems().addAll(groups),
+                ex -> messageLabel.setText("Error loading groups: " + FxDatabase.describe(ex)));
 
         // Action for the "Search" button
         searchButton.setOnAction(e -> {
-            try {
-                String searchText = searchField.getText().trim(); // Get the search text
-                String level = levelChoiceBox.getValue(); // Get the selected level
-                String group = groupChoiceBox.getValue(); // Get the selected group
-
-                // Perform the search using the database helper
-                List<String> results = databaseHelper.searchArticles(searchText, level, group);
-                resultsListView.getItems().setAll(results); // Display the results
-
-                // Get and display group and level statistics
+            String searchText = searchField.getText().trim(); // Get the search text
+            String level = levelChoiceBox.getValue(); // Get the selected level
+            String group = groupChoiceBox.getValue(); // Get the selected group
+
+            // Perform the search, rank the matches and compute the statistics off the JavaFX thread
+            CompletableFuture<SearchOutcome> search = asyncDatabase.submit(db -> {
+                PostingList resultIds = db.searchArticleIds(searchText, level, group, username);
+                List<String> ranked = db.describeRankedResults(db.rankSearchResults(searchText, resultIds));
+                return new SearchOutcome(ranked, resultIds.size(), db.getLevelStatistics(resultIds));
+            });
+            FxDatabase.run(search, searchButton, messageLabel, "Searching...", outcome -> {
+                resultsListView.getItems().setAll(outcome.results()); // Display the results
+
+                // Display group and level statistics
                 String activeGroup = "Active Group: " + group;
-                String levelStats = databaseHelper.getLevelStatistics(results);
-                messageLabel.setText(activeGroup + "\n" + levelStats);
-            } catch (Exception ex) {
-                messageLabel.setText("Error during search: " + ex.getMessage()); // Handle errors
-            }
+                String shown = outcome.matchCount() > outcome.results().size()
+                        ? "Showing the " + outcome.results().size() + " most relevant of " + outcome.matchCount() + " matches"
+                        : outcome.matchCount() + " matches";
+                messageLabel.setText(activeGroup + "\n" + shown + "\n" + outcome.levelStats());
+            }, ex -> messageLabel.setText("Error during search: " + FxDatabase.describe(ex))); // Handle errors
         });
 
         // Add components for search functionality to the layout
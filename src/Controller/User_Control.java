@@ -7,6 +7,7 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import java.util.*;
 import model.DataStore;
+import model.PasswordHasher;
 import model.User;
 
 public class User_Control {
@@ -86,9 +87,14 @@ public class User_Control {
             String newPassword = newPasswordField.getText();
             String confirmNewPassword = confirmNewPasswordField.getText();
             if (newPassword.equals(confirmNewPassword) && !newPassword.isEmpty()) {
-                user.setPassword(newPassword); // Set the new password
-                user.clearPasswordReset(); // Clear the password reset requirement
-                new Auth_Control(primaryStage).showLoginPage(); // Redirect to login page
+                // Hash the new password off the JavaFX thread, then store it
+                FxDatabase.run(PasswordHasher.getInstance().hashAsync(newPassword), resetButton, messageLabel, "Saving password...", hash -> {
+                    DataStore.getInstance().updateUser(user, u -> {
+                        u.setPasswordHash(hash); // Set the new password
+                        u.clearPasswordReset(); // Clear the password reset requirement
+                    });
+                    new Auth_Control(primaryStage).showLoginPage(); // Redirect to login page
+                }, ex -> messageLabel.setText("Could not save password: " + FxDatabase.describe(ex)));
             } else {
                 messageLabel.setText("Passwords do not match or are empty."); // Show error message
             }
@@ -114,10 +120,16 @@ public class User_Control {
         // Action for the register button
         registerButton.setOnAction(e -> {
             if (validatePassword(passwordField.getText(), confirmPasswordField.getText(), messageLabel)) {
-                User newUser = new User(usernameField.getText().trim(), passwordField.getText(), roles); // Create new user
-                DataStore.getInstance().getUserList().add(newUser); // Add user to datastore
-                DataStore.getInstance().getInvitations().remove(invitationCode); // Remove invitation code
-                new Auth_Control(primaryStage).showLoginPage(); // Redirect to login page
+                String newUsername = usernameField.getText().trim();
+                FxDatabase.run(PasswordHasher.getInstance().hashAsync(passwordField.getText()), registerButton, messageLabel, "Creating account...", hash -> {
+                    User newUser = User.withPasswordHash(newUsername, hash, roles); // Create new user
+                    if (DataStore.getInstance().registerUser(newUser)) { // Add user to datastore unless the name is taken
+                        DataStore.getInstance().getInvitations().remove(invitationCode); // Remove invitation code
+                        new Auth_Control(primaryStage).showLoginPage(); // Redirect to login page
+                    } else {
+                        messageLabel.setText("Username is already taken."); // Show error message
+                    }
+                }, ex -> messageLabel.setText("Registration failed: " + FxDatabase.describe(ex)));
             }
         });
 
@@ -147,9 +159,14 @@ public class User_Control {
             if (studentCheckBox.isSelected()) selectedRoles.add("Student");
             if (instructorCheckBox.isSelected()) selectedRoles.add("Instructor");
             if (!selectedRoles.isEmpty()) {
-                User newUser = new User(username, password, selectedRoles); // Create new user
-                DataStore.getInstance().getUserList().add(newUser); // Add user to datastore
-                new Auth_Control(primaryStage).showLoginPage(); // Redirect to login page
+                FxDatabase.run(PasswordHasher.getInstance().hashAsync(password), registerButton, messageLabel, "Creating account...", hash -> {
+                    User newUser = User.withPasswordHash(username, hash, selectedRoles); // Create new user
+                    if (DataStore.getInstance().registerUser(newUser)) { // Add user to datastore unless the name is taken
+                        new Auth_Control(primaryStage).showLoginPage(); // Redirect to login page
+                    } else {
+                        messageLabel.setText("Username is already taken."); // Show error message
+                    }
+                }, ex -> messageLabel.setText("Registration failed: " + FxDatabase.describe(ex)));
             } else {
                 messageLabel.setText("Please select at least one role."); // Show error message
             }
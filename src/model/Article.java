@@ -0,0 +1,34 @@
+package model;
+
+public class Article {
+
+    // Article attributes, as stored in the Articles table
+    private final String title, authors, abstractText, keywords, body, references;
+    private final boolean isEncrypted;
+
+    // Constructor mirroring DatabaseHelper.addArticle; the body must already be encrypted if isEncrypted is set
+    public Article(String title, String authors, String abstractText, String keywords, String body, String references,
+            boolean isEncrypted) {
+        this.title = title;
+        this.authors = authors;
+        this.abstractText = abstractText;
+        this.keywords = keywords;
+        this.body = body;
+        this.references = references;
+        this.isEncrypted = isEncrypted;
+    }
+
+    public String getTitle() { return title; }
+
+    public String getAuthors() { return authors; }
+
+    public String getAbstractText() { return abstractText; }
+
+    public String getKeywords() { return keywords; }
+
+    public String getBody() { return body; }
+
+    public String getReferences() { return references; }
+
+    public boolean isEncrypted() { return isEncrypted; }
+}
@@ -0,0 +1,284 @@
+package model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.*;
+
+// Chunked, compressed binary backup format for the Articles table.
+//
+// File layout: header (magic, version, kind, creation time, change journal range), then chunks, then an end marker
+// with the total record count. Each chunk holds up to N records serialized and deflated on their own, with a CRC32 of
+// the uncompressed bytes, so a chunk is a self-contained checkpoint that can be verified and decoded independently.
+//
+// A full backup holds every article and covers the change journal up to toSeq. A delta backup holds only the
+// articles that changed in the journal range (fromSeq, toSeq]: an upsert record with the current row, or a deletion.
+public final class ArticleBackup {
+
+    public static final int MAGIC = 0x41485342; // "AHSB"
+    public static final int VERSION = 2;
+    public static final byte KIND_FULL = 1, KIND_DELTA = 2;
+
+    private static final byte CHUNK_MARKER = 1, END_MARKER = 0;
+    private static final byte RECORD_UPSERT = 'U', RECORD_DELETE = 'D';
+
+    // Utility class, no instances
+    private ArticleBackup() {}
+
+    // One article as stored in a backup, together with its database ID; deletions carry no article
+    public static class Entry {
+        private final int id;
+        private final Article article;
+
+        public Entry(int id, Article article) {
+            this.id = id;
+            this.article = article;
+        }
+
+        public int getId() { return id; }
+
+        public Article getArticle() { return article; }
+
+        public boolean isDeletion() { return article == null; }
+    }
+
+    // Callback for long-running backup and restore operations
+    public interface Progress {
+        // Called after every checkpoint with the rows processed so far and the expected total
+        void onProgress(long rowsDone, long totalRows);
+
+        // Polled between chunks; returning true aborts the operation
+        default boolean isCancelled() { return false; }
+    }
+
+    // True if the file starts with the binary backup magic number (as opposed to a legacy SQL script)
+    public static boolean isBinaryBackup(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    // Writes rows into chunks of rowsPerChunk rows each
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final int rowsPerChunk;
+        private final ByteArrayOutputStream chunkBytes = new ByteArrayOutputStream(64 * 1024);
+        private final DataOutputStream chunk = new DataOutputStream(chunkBytes);
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private int rowsInChunk = 0;
+        private long totalRows = 0;
+
+        // Starts a backup of the given kind covering the change journal range (fromSeq, toSeq]
+        public Writer(OutputStream stream, int rowsPerChunk, byte kind, long fromSeq, long toSeq) throws IOException {
+            if (rowsPerChunk < 1) throw new IllegalArgumentException("Rows per chunk must be at least 1.");
+            this.out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+            this.rowsPerChunk = rowsPerChunk;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(kind);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(fromSeq);
+            out.writeLong(toSeq);
+        }
+
+        // Appends a row; returns true when the row completed a chunk (a checkpoint)
+        public boolean write(int id, Article article) throws IOException {
+            chunk.writeByte(RECORD_UPSERT);
+            chunk.writeInt(id);
+            writeString(chunk, article.getTitle());
+            writeString(chunk, article.getAuthors());
+            writeString(chunk, article.getAbstractText());
+            writeString(chunk, article.getKeywords());
+            writeString(chunk, article.getBody());
+            writeString(chunk, article.getReferences());
+            chunk.writeBoolean(article.isEncrypted());
+            return recordWritten();
+        }
+
+        // Appends a deletion record (delta backups only); returns true when it completed a chunk
+        public boolean writeDeletion(int id) throws IOException {
+            chunk.writeByte(RECORD_DELETE);
+            chunk.writeInt(id);
+            return recordWritten();
+        }
+
+        private boolean recordWritten() throws IOException {
+            totalRows++;
+            if (++rowsInChunk < rowsPerChunk) return false;
+            flushChunk();
+            return true;
+        }
+
+        public long getTotalRows() { return totalRows; }
+
+        // Compresses and writes the pending rows as one chunk
+        private void flushChunk() throws IOException {
+            if (rowsInChunk == 0) return;
+            byte[] raw = chunkBytes.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(raw);
+
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] buffer = new byte[32 * 1024];
+            while (!deflater.finished()) compressed.write(buffer, 0, deflater.deflate(buffer));
+
+            out.writeByte(CHUNK_MARKER);
+            out.writeInt(rowsInChunk);
+            out.writeInt(raw.length);
+            out.writeInt((int) crc.getValue());
+            out.writeInt(compressed.size());
+            compressed.writeTo(out);
+            out.flush();
+
+            chunkBytes.reset();
+            rowsInChunk = 0;
+        }
+
+        // Writes the last partial chunk and the end marker
+        public void finish() throws IOException {
+            flushChunk();
+            out.writeByte(END_MARKER);
+            out.writeLong(totalRows);
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    // A chunk as read from the file: still compressed, so decoding can happen on another thread
+    public static class Chunk {
+        private final int version, rowCount, rawLength, crc;
+        private final byte[] compressed;
+
+        Chunk(int version, int rowCount, int rawLength, int crc, byte[] compressed) {
+            this.version = version;
+            this.rowCount = rowCount;
+            this.rawLength = rawLength;
+            this.crc = crc;
+            this.compressed = compressed;
+        }
+
+        public int getRowCount() { return rowCount; }
+
+        // Inflates the chunk, verifies its checksum and parses its rows
+        public List<Entry> decode() throws IOException {
+            byte[] raw = new byte[rawLength];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                int read = 0;
+                while (read < rawLength && !inflater.finished()) {
+                    int inflated = inflater.inflate(raw, read, rawLength - read);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break; // Ran out of data
+                    read += inflated;
+                }
+                if (read != rawLength) throw new IOException("Backup chunk is truncated.");
+            } catch (DataFormatException e) {
+                throw new IOException("Backup chunk is corrupt: " + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+
+            CRC32 check = new CRC32();
+            check.update(raw);
+            if ((int) check.getValue() != crc) throw new IOException("Backup chunk failed its checksum.");
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+            List<Entry> entries = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                byte type = version == 1 ? RECORD_UPSERT : in.readByte(); // Version 1 files only hold upserts
+                int id = in.readInt();
+                if (type == RECORD_DELETE) {
+                    entries.add(new Entry(id, null));
+                    continue;
+                }
+                if (type != RECORD_UPSERT) throw new IOException("Unknown backup record type: " + type);
+                entries.add(new Entry(id, new Article(readString(in), readString(in), readString(in), readString(in),
+                        readString(in), readString(in), in.readBoolean())));
+            }
+            return entries;
+        }
+    }
+
+    // Reads a backup chunk by chunk
+    public static class Reader implements Closeable {
+        private final DataInputStream in;
+        private final int version;
+        private final byte kind;
+        private final long createdAt, fromSeq, toSeq;
+        private long rowsRead = 0, declaredRows = -1;
+
+        public Reader(InputStream stream) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024));
+            if (in.readInt() != MAGIC) throw new IOException("Not an article backup file.");
+            version = in.readInt();
+            if (version < 1 || version > VERSION) throw new IOException("Unsupported backup version: " + version);
+            kind = in.readByte();
+            if (kind != KIND_FULL && kind != KIND_DELTA) throw new IOException("Unsupported backup kind.");
+            createdAt = in.readLong();
+            fromSeq = version == 1 ? 0 : in.readLong(); // Version 1 files predate the change journal
+            toSeq = version == 1 ? 0 : in.readLong();
+        }
+
+        public byte getKind() { return kind; }
+
+        public long getCreatedAt() { return createdAt; }
+
+        // Change journal range (fromSeq, toSeq] covered by this backup
+        public long getFromSeq() { return fromSeq; }
+
+        public long getToSeq() { return toSeq; }
+
+        // Next compressed chunk, or null after the end marker
+        public Chunk nextChunk() throws IOException {
+            if (declaredRows >= 0) return null;
+            byte marker = in.readByte();
+            if (marker == END_MARKER) {
+                declaredRows = in.readLong();
+                if (declaredRows != rowsRead) {
+                    throw new IOException("Backup row count mismatch: expected " + declaredRows + ", found " + rowsRead + ".");
+                }
+                return null;
+            }
+            if (marker != CHUNK_MARKER) throw new IOException("Backup file is corrupt.");
+            int rowCount = in.readInt(), rawLength = in.readInt(), crc = in.readInt(), length = in.readInt();
+            byte[] compressed = new byte[length];
+            in.readFully(compressed);
+            rowsRead += rowCount;
+            return new Chunk(version, rowCount, rawLength, crc, compressed);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Strings are length-prefixed UTF-8, with -1 for null (writeUTF is limited to 64KB)
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,415 @@
+package model;
+
+import java.util.Arrays;
+
+// Compressed set of article IDs in the style of a roaring bitmap.
+//
+// An ID is split into its high and low 16 bits, and IDs sharing the high bits go into one container: a sorted array of
+// the low bits while it holds at most 4096 of them, and a 65536-bit bitmap beyond that. A container never takes more
+// than 8 KB, and a sparse one takes 2 bytes per ID. Intersections, unions and differences work one container at a time,
+// only combine containers whose keys meet, and combine two bitmap containers a 64-bit word at a time.
+public class ArticleBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+
+    // Container keys (the high 16 bits) in ascending order, with the container for each
+    private char[] keys;
+    private Container[] containers;
+    private int size = 0;
+
+    public ArticleBitmap() {
+        this(4);
+    }
+
+    private ArticleBitmap(int capacity) {
+        keys = new char[Math.max(1, capacity)];
+        containers = new Container[keys.length];
+    }
+
+    // Adds an ID; returns whether it was new
+    public boolean add(int id) {
+        char key = highBits(id);
+        int pos = Arrays.binarySearch(keys, 0, size, key);
+        if (pos < 0) {
+            insertAt(-pos - 1, key, new ArrayContainer(4).add(lowBits(id)));
+            return true;
+        }
+        Container container = containers[pos];
+        int before = container.cardinality;
+        containers[pos] = container.add(lowBits(id));
+        return containers[pos].cardinality > before;
+    }
+
+    // Removes an ID; returns whether it was present
+    public boolean remove(int id) {
+        int pos = Arrays.binarySearch(keys, 0, size, highBits(id));
+        if (pos < 0) return false;
+        Container container = containers[pos];
+        int before = container.cardinality;
+        Container updated = container.remove(lowBits(id));
+        if (updated.cardinality == 0) removeAt(pos);
+        else containers[pos] = updated;
+        return updated.cardinality < before;
+    }
+
+    public boolean contains(int id) {
+        int pos = Arrays.binarySearch(keys, 0, size, highBits(id));
+        return pos >= 0 && containers[pos].contains(lowBits(id));
+    }
+
+    // Number of IDs in the set
+    public int getCardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) cardinality += containers[i].cardinality;
+        return cardinality;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    // Empties the set
+    public void clear() {
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    // Independent copy of the set
+    public ArticleBitmap copy() {
+        ArticleBitmap copy = new ArticleBitmap(size);
+        for (int i = 0; i < size; i++) copy.append(keys[i], containers[i].copy());
+        return copy;
+    }
+
+    // The IDs in ascending order
+    public PostingList toPostingList() {
+        int[] ids = new int[getCardinality()];
+        int n = 0;
+        for (int i = 0; i < size; i++) n = containers[i].fill(ids, n, keys[i] << 16);
+        return PostingList.ofSorted(ids);
+    }
+
+    // Builds a bitmap from a posting list, which is already in ascending order
+    public static ArticleBitmap of(PostingList ids) {
+        ArticleBitmap bitmap = new ArticleBitmap();
+        for (int i = 0; i < ids.size(); i++) bitmap.add(ids.get(i));
+        return bitmap;
+    }
+
+    // IDs in both sets
+    public static ArticleBitmap and(ArticleBitmap a, ArticleBitmap b) {
+        ArticleBitmap result = new ArticleBitmap(Math.min(a.size, b.size));
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) i++;
+            else if (a.keys[i] > b.keys[j]) j++;
+            else {
+                Container container = a.containers[i].and(b.containers[j]);
+                if (container.cardinality > 0) result.append(a.keys[i], container);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // IDs in either set
+    public static ArticleBitmap or(ArticleBitmap a, ArticleBitmap b) {
+        ArticleBitmap result = new ArticleBitmap(a.size + b.size);
+        int i = 0, j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], a.containers[i++].copy());
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j++].copy());
+            } else {
+                result.append(a.keys[i], a.containers[i++].or(b.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    // IDs in the first set but not the second
+    public static ArticleBitmap andNot(ArticleBitmap a, ArticleBitmap b) {
+        ArticleBitmap result = new ArticleBitmap(a.size);
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) j++;
+            Container container = j < b.size && b.keys[j] == a.keys[i] ? a.containers[i].andNot(b.containers[j]) : a.containers[i].copy();
+            if (container.cardinality > 0) result.append(a.keys[i], container);
+        }
+        return result;
+    }
+
+    private static char highBits(int id) { return (char) (id >>> 16); }
+
+    private static char lowBits(int id) { return (char) id; }
+
+    // Adds a container after all others; used while building results in key order
+    private void append(char key, Container container) {
+        insertAt(size, key, container);
+    }
+
+    private void insertAt(int pos, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+        System.arraycopy(containers, pos, containers, pos + 1, size - pos);
+        keys[pos] = key;
+        containers[pos] = container;
+        size++;
+    }
+
+    private void removeAt(int pos) {
+        System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+        System.arraycopy(containers, pos + 1, containers, pos, size - pos - 1);
+        containers[--size] = null;
+    }
+
+    // The low 16 bits of the IDs under one key. Updates return the container to keep, which changes representation
+    // when it crosses ARRAY_MAX; binary operations return new containers and leave their inputs alone.
+    private abstract static class Container {
+        int cardinality;
+
+        abstract Container add(char low);
+
+        abstract Container remove(char low);
+
+        abstract boolean contains(char low);
+
+        abstract Container copy();
+
+        // Writes the IDs (high | low) into out from pos on and returns the next free position
+        abstract int fill(int[] out, int pos, int high);
+
+        abstract BitmapContainer toBitmap();
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+    }
+
+    private static final class ArrayContainer extends Container {
+        char[] values;
+
+        ArrayContainer(int capacity) {
+            values = new char[Math.max(1, capacity)];
+        }
+
+        @Override
+        Container add(char low) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, low);
+            if (pos >= 0) return this;
+            if (cardinality == ARRAY_MAX) return toBitmap().add(low);
+            pos = -pos - 1;
+            if (cardinality == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+            values[pos] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int pos = Arrays.binarySearch(values, 0, cardinality, low);
+            if (pos < 0) return this;
+            System.arraycopy(values, pos + 1, values, pos, cardinality - pos - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer(0);
+            copy.values = Arrays.copyOf(values, Math.max(1, cardinality));
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        int fill(int[] out, int pos, int high) {
+            for (int i = 0; i < cardinality; i++) out[pos++] = high | values[i];
+            return pos;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) bitmap.words[values[i] >>> 6] |= 1L << values[i];
+            bitmap.cardinality = cardinality;
+            return bitmap;
+        }
+
+        @Override
+        Container and(Container other) {
+            ArrayContainer result = new ArrayContainer(Math.min(cardinality, other.cardinality));
+            if (other instanceof ArrayContainer array) {
+                int i = 0, j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) i++;
+                    else if (values[i] > array.values[j]) j++;
+                    else {
+                        result.values[result.cardinality++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) result.values[result.cardinality++] = values[i];
+                }
+            }
+            return result;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer array)) return other.or(this);
+            if (cardinality + array.cardinality > ARRAY_MAX) return toBitmap().or(array);
+            ArrayContainer result = new ArrayContainer(cardinality + array.cardinality);
+            int i = 0, j = 0, n = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result.values[n++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result.values[n++] = array.values[j++];
+                } else {
+                    result.values[n++] = values[i++];
+                    j++;
+                }
+            }
+            result.cardinality = n;
+            return result;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            ArrayContainer result = new ArrayContainer(cardinality);
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) result.values[result.cardinality++] = values[i];
+            }
+            return result;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[1 << 10];
+
+        @Override
+        Container add(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) return this;
+            words[low >>> 6] &= ~bit;
+            cardinality--;
+            return shrink();
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        int fill(int[] out, int pos, int high) {
+            for (int w = 0; w < words.length; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    out[pos++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                }
+            }
+            return pos;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+            BitmapContainer bitmap = (BitmapContainer) other, result = new BitmapContainer();
+            for (int w = 0; w < words.length; w++) {
+                result.words[w] = words[w] & bitmap.words[w];
+                result.cardinality += Long.bitCount(result.words[w]);
+            }
+            return result.shrink();
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) result.add(array.values[i]);
+                return result;
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            result.cardinality = 0;
+            for (int w = 0; w < words.length; w++) {
+                result.words[w] |= bitmap.words[w];
+                result.cardinality += Long.bitCount(result.words[w]);
+            }
+            return result;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    long bit = 1L << array.values[i];
+                    if ((result.words[array.values[i] >>> 6] & bit) != 0) {
+                        result.words[array.values[i] >>> 6] &= ~bit;
+                        result.cardinality--;
+                    }
+                }
+                return result.shrink();
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            result.cardinality = 0;
+            for (int w = 0; w < words.length; w++) {
+                result.words[w] &= ~bitmap.words[w];
+                result.cardinality += Long.bitCount(result.words[w]);
+            }
+            return result.shrink();
+        }
+
+        // Back to an array once sparse enough
+        private Container shrink() {
+            if (cardinality > ARRAY_MAX) return this;
+            ArrayContainer array = new ArrayContainer(cardinality);
+            array.cardinality = cardinality;
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    array.values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return array;
+        }
+    }
+}
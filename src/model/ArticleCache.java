@@ -0,0 +1,107 @@
+package model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Read-through cache of rendered article details, bounded by an estimate of the bytes it holds.
+//
+// Entries are kept in a LinkedHashMap in access order, so the eldest entry is always the least recently viewed one and
+// eviction is O(1). Writers invalidate entries after their change commits; a reader that loaded an article before an
+// invalidation is not allowed to cache it afterwards (see stamp()), so a stale copy can never outlive the write.
+public class ArticleCache {
+
+    // Approximate per-entry overhead of the map node, key and String headers
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Integer, String> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long sizeBytes = 0;
+
+    // Bumped by every invalidation; loads that started before the latest invalidation are not cached
+    private long invalidations = 0;
+
+    private long hits = 0, misses = 0, evictions = 0;
+
+    public ArticleCache(long maxBytes) {
+        if (maxBytes < 0) throw new IllegalArgumentException("Cache size must not be negative.");
+        this.maxBytes = maxBytes;
+    }
+
+    // Cached details for the article, or null on a miss
+    public synchronized String get(int articleId) {
+        String details = entries.get(articleId); // Also moves the entry to the most recently used end
+        if (details == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return details;
+    }
+
+    // Taken before loading from the database and handed back to put()
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    // Caches freshly loaded details, unless the cache was invalidated while they were being loaded
+    public synchronized void put(int articleId, String details, long stamp) {
+        if (stamp != invalidations) return;
+        long bytes = sizeOf(details);
+        if (bytes > maxBytes) return; // Would evict everything and still not fit
+
+        String previous = entries.put(articleId, details);
+        if (previous != null) sizeBytes -= sizeOf(previous);
+        sizeBytes += bytes;
+
+        Iterator<Map.Entry<Integer, String>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Integer, String> entry = eldest.next();
+            sizeBytes -= sizeOf(entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    // Drops one article after it was changed or deleted
+    public synchronized void invalidate(int articleId) {
+        invalidations++;
+        String removed = entries.remove(articleId);
+        if (removed != null) sizeBytes -= sizeOf(removed);
+    }
+
+    // Drops every article after a bulk change (restore, clear)
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    public synchronized int getEntryCount() { return entries.size(); }
+
+    public synchronized long getSizeBytes() { return sizeBytes; }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    public synchronized long getHitCount() { return hits; }
+
+    public synchronized long getMissCount() { return misses; }
+
+    public synchronized long getEvictionCount() { return evictions; }
+
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    // One-line summary for logging and the admin UI
+    public synchronized String getMetrics() {
+        return String.format("Entries: %d, Size: %d/%d bytes, Hits: %d, Misses: %d, Hit Rate: %.1f%%, Evictions: %d",
+                entries.size(), sizeBytes, maxBytes, hits, misses, getHitRate() * 100, evictions);
+    }
+
+    // Java strings take up to two bytes per character
+    private static long sizeOf(String details) {
+        return ENTRY_OVERHEAD_BYTES + 2L * details.length();
+    }
+}
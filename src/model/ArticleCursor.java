@@ -0,0 +1,51 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.*;
+
+public class ArticleCursor implements Iterator<String>, AutoCloseable {
+
+    // Source of pages; a connection is only borrowed while a page is being read
+    private final DatabaseHelper databaseHelper;
+    private final int pageSize;
+
+    // Current page and position within it
+    private ArticlePage page;
+    private int position = 0;
+    private boolean closed = false;
+
+    ArticleCursor(DatabaseHelper databaseHelper, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("Page size must be at least 1.");
+        this.databaseHelper = databaseHelper;
+        this.pageSize = pageSize;
+    }
+
+    // Fetches pages on demand so that only one page is ever held in memory
+    @Override
+    public boolean hasNext() {
+        if (closed) return false;
+        try {
+            while (page == null || (position >= page.getArticles().size() && page.hasMore())) {
+                int afterId = page == null ? 0 : page.getLastId();
+                page = databaseHelper.listArticles(afterId, pageSize);
+                position = 0;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error reading articles: " + e.getMessage(), e);
+        }
+        return position < page.getArticles().size();
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return page.getArticles().get(position++);
+    }
+
+    // Stops the iteration and releases the current page
+    @Override
+    public void close() {
+        closed = true;
+        page = null;
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ArticleIdIndex {
+
+    // Fenwick (binary indexed) tree over article IDs: tree[i] counts live IDs in (i - lowbit(i), i]
+    private int[] tree;
+
+    // Which IDs are currently live
+    private final BitSet live = new BitSet();
+    private int size = 0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ArticleIdIndex() {
+        tree = new int[1 << 10];
+    }
+
+    // Marks an article ID as live
+    public void add(int id) {
+        if (id <= 0) throw new IllegalArgumentException("Article IDs start at 1: " + id);
+        lock.writeLock().lock();
+        try {
+            if (live.get(id)) return;
+            if (id >= tree.length) grow(id);
+            live.set(id);
+            size++;
+            update(id, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Marks an article ID as deleted
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (id <= 0 || !live.get(id)) return;
+            live.clear(id);
+            size--;
+            update(id, -1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops every ID
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            live.clear();
+            size = 0;
+            tree = new int[1 << 10];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Number of live IDs
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(int id) {
+        lock.readLock().lock();
+        try {
+            return id > 0 && live.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 1-based display position of a live ID, or -1 if the ID is not live; O(log N)
+    public int rank(int id) {
+        lock.readLock().lock();
+        try {
+            if (id <= 0 || !live.get(id)) return -1;
+            int count = 0;
+            for (int i = Math.min(id, tree.length - 1); i > 0; i -= i & -i) count += tree[i];
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ID at the given 1-based display position, or -1 if out of range; O(log N)
+    public int select(int displayId) {
+        lock.readLock().lock();
+        try {
+            if (displayId <= 0 || displayId > size) return -1;
+            int position = 0, remaining = displayId;
+            for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+                int next = position + step;
+                if (next < tree.length && tree[next] < remaining) {
+                    position = next;
+                    remaining -= tree[next];
+                }
+            }
+            return position + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(int id, int delta) {
+        for (int i = id; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    // Doubles the tree until it covers the ID, then rebuilds it from the live set in O(N)
+    private void grow(int id) {
+        int capacity = tree.length;
+        while (capacity <= id) capacity <<= 1;
+        int[] rebuilt = new int[capacity];
+        for (int i = live.nextSetBit(1); i >= 0; i = live.nextSetBit(i + 1)) rebuilt[i]++;
+        for (int i = 1; i < capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent < capacity) rebuilt[parent] += rebuilt[i];
+        }
+        tree = rebuilt;
+    }
+}
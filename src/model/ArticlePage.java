@@ -0,0 +1,27 @@
+package model;
+
+import java.util.*;
+
+public class ArticlePage {
+
+    // Formatted rows of this page, in ID order
+    private final List<String> articles;
+
+    // Database ID of the last row; pass it as afterId to fetch the next page
+    private final int lastId;
+
+    // Whether more rows follow this page
+    private final boolean hasMore;
+
+    public ArticlePage(List<String> articles, int lastId, boolean hasMore) {
+        this.articles = articles;
+        this.lastId = lastId;
+        this.hasMore = hasMore;
+    }
+
+    public List<String> getArticles() { return articles; }
+
+    public int getLastId() { return lastId; }
+
+    public boolean hasMore() { return hasMore; }
+}
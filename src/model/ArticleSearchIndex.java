@@ -0,0 +1,343 @@
+package model;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ArticleSearchIndex {
+
+    // The searchable fields of an article, kept in memory so results never touch the database
+    public static class IndexedArticle {
+        private final int id;
+        private final String title, authors, abstractText, keywords;
+        private final int contentLevel;
+
+        public IndexedArticle(int id, String title, String authors, String abstractText, String keywords) {
+            this.id = id;
+            this.title = title;
+            this.authors = authors;
+            this.abstractText = abstractText;
+            this.keywords = keywords;
+            this.contentLevel = ContentLevel.maskOf(keywords); // Same mask as the Articles.contentLevel column
+        }
+
+        public int getId() { return id; }
+
+        public String getTitle() { return title; }
+
+        public String getAuthors() { return authors; }
+
+        public String getAbstractText() { return abstractText; }
+
+        public String getKeywords() { return keywords; }
+
+        // Bitmask of ContentLevel bits
+        public int getContentLevel() { return contentLevel; }
+    }
+
+    // An article with its relevance score for a query
+    public static class ScoredArticle {
+        private final IndexedArticle article;
+        private final double score;
+
+        public ScoredArticle(IndexedArticle article, double score) {
+            this.article = article;
+            this.score = score;
+        }
+
+        public IndexedArticle getArticle() { return article; }
+
+        public double getScore() { return score; }
+    }
+
+    // Ranking fields and their boosts: a match in the title counts most, one in the abstract least
+    private static final int TITLE = 0, KEYWORDS = 1, AUTHORS = 2, ABSTRACT = 3, FIELDS = 4;
+    private static final double[] FIELD_BOOSTS = { 3.0, 2.0, 1.5, 1.0 };
+
+    // BM25 saturation and length normalization
+    private static final double K1 = 1.2, B = 0.75;
+
+    // Term frequencies of one article for ranking: its distinct terms in sorted order, so that a query prefix is a
+    // range found by binary search, with FIELDS counts per term, plus the length of each field in terms
+    private static final class FieldStats {
+        final String[] terms;
+        final int[] frequencies; // frequencies[i * FIELDS + field]
+        final int[] lengths = new int[FIELDS];
+
+        FieldStats(IndexedArticle article) {
+            String[] texts = { article.getTitle(), article.getKeywords(), article.getAuthors(), article.getAbstractText() };
+            TreeMap<String, int[]> counts = new TreeMap<>();
+            for (int field = 0; field < FIELDS; field++) {
+                for (String token : Tokenizer.tokenize(texts[field])) {
+                    counts.computeIfAbsent(token, t -> new int[FIELDS])[field]++;
+                    lengths[field]++;
+                }
+            }
+            terms = counts.keySet().toArray(new String[0]);
+            frequencies = new int[terms.length * FIELDS];
+            int i = 0;
+            for (int[] fieldCounts : counts.values()) System.arraycopy(fieldCounts, 0, frequencies, FIELDS * i++, FIELDS);
+        }
+
+        // Adds the frequencies of every term starting with the prefix to out, per field
+        void prefixFrequencies(String prefix, double[] out) {
+            int from = Arrays.binarySearch(terms, prefix);
+            if (from < 0) from = -from - 1;
+            for (int i = from; i < terms.length && terms[i].startsWith(prefix); i++) {
+                for (int field = 0; field < FIELDS; field++) out[field] += frequencies[i * FIELDS + field];
+            }
+        }
+    }
+
+    // Term dictionary over title, authors and abstract; sorted so that prefixes can be expanded
+    private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+
+    // Keyword terms, kept apart so that the level filter only matches the keywords field; sorted so that ranking can
+    // expand prefixes here too
+    private final NavigableMap<String, PostingList> keywordTerms = new TreeMap<>();
+
+    // Indexed articles by ID, plus every live ID in ascending order
+    private final Map<Integer, IndexedArticle> documents = new HashMap<>();
+    private final PostingList allIds = new PostingList();
+
+    // Ranking statistics by article ID, and the summed field lengths for the average length of each field
+    private final Map<Integer, FieldStats> fieldStats = new HashMap<>();
+    private final long[] totalFieldLengths = new long[FIELDS];
+
+    // Many concurrent searches, occasional updates
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Adds (or replaces) an article in the index
+    public void add(IndexedArticle article) {
+        lock.writeLock().lock();
+        try {
+            if (documents.containsKey(article.getId())) removeUnlocked(article.getId());
+            documents.put(article.getId(), article);
+            allIds.add(article.getId());
+            FieldStats stats = new FieldStats(article);
+            fieldStats.put(article.getId(), stats);
+            for (int field = 0; field < FIELDS; field++) totalFieldLengths[field] += stats.lengths[field];
+            for (String term : searchableTerms(article)) {
+                terms.computeIfAbsent(term, t -> new PostingList()).add(article.getId());
+            }
+            for (String term : Tokenizer.distinctTerms(article.getKeywords())) {
+                keywordTerms.computeIfAbsent(term, t -> new PostingList()).add(article.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Removes an article from the index
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(int id) {
+        IndexedArticle article = documents.remove(id);
+        if (article == null) return;
+        allIds.remove(id);
+        FieldStats stats = fieldStats.remove(id);
+        for (int field = 0; field < FIELDS; field++) totalFieldLengths[field] -= stats.lengths[field];
+        for (String term : searchableTerms(article)) removePosting(terms, term, id);
+        for (String term : Tokenizer.distinctTerms(article.getKeywords())) removePosting(keywordTerms, term, id);
+    }
+
+    private static void removePosting(Map<String, PostingList> dictionary, String term, int id) {
+        PostingList postings = dictionary.get(term);
+        if (postings == null) return;
+        postings.remove(id);
+        if (postings.isEmpty()) dictionary.remove(term); // Keep the dictionary free of dead terms
+    }
+
+    // Drops every indexed article
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            keywordTerms.clear();
+            documents.clear();
+            allIds.clear();
+            fieldStats.clear();
+            Arrays.fill(totalFieldLengths, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Finds the articles matching every term of the query (each term as a prefix) and the
+    // optional keyword; restrictTo, when given, limits the result to those IDs. Results are in ID order.
+    public List<IndexedArticle> search(String query, String keyword, PostingList restrictTo) {
+        lock.readLock().lock();
+        try {
+            return get(searchIds(query, keyword, restrictTo));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Same as search, but only the matching IDs; these are always live articles
+    public PostingList searchIds(String query, String keyword, PostingList restrictTo) {
+        lock.readLock().lock();
+        try {
+            PostingList matches = null;
+            for (String token : Tokenizer.distinctTerms(query)) {
+                PostingList tokenMatches = prefixPostings(terms, token);
+                matches = matches == null ? tokenMatches : PostingList.intersect(matches, tokenMatches);
+                if (matches.isEmpty()) return new PostingList(1);
+            }
+
+            if (keyword != null) {
+                PostingList keywordMatches = keywordTerms.get(keyword.toLowerCase(Locale.ROOT));
+                if (keywordMatches == null) return new PostingList(1);
+                matches = matches == null ? keywordMatches : PostingList.intersect(matches, keywordMatches);
+            }
+            if (restrictTo != null) {
+                // Restriction lists may name deleted articles
+                matches = PostingList.intersect(matches == null ? allIds : matches, restrictTo);
+            }
+            if (matches == null) matches = allIds; // No criteria at all: every article
+            return PostingList.ofSorted(matches.toArray()); // A copy, so callers never share the index's postings
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The k candidates most relevant to the query, best first, scored with BM25F: per query term, the frequencies in
+    // each field are normalized by the field's length against its average, weighted by the field boost and summed,
+    // then saturated and weighted by the term's inverse document frequency. Query terms match as prefixes, like in
+    // search. Candidates go through a bounded min-heap holding the best k so far, so ranking a broad query costs
+    // O(n log k) and the full match set is never sorted. Ties go to the lower ID.
+    public List<ScoredArticle> rank(String query, PostingList candidates, int k) {
+        if (k < 1) throw new IllegalArgumentException("At least one result must be requested.");
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            List<String> queryTerms = new ArrayList<>(Tokenizer.distinctTerms(query));
+            double[] idf = new double[queryTerms.size()];
+            for (int t = 0; t < idf.length; t++) {
+                // Articles matching the term in any scored field, keywords included, in one merge over both dictionaries
+                String term = queryTerms.get(t);
+                List<PostingList> matching = new ArrayList<>(prefixRange(terms, term));
+                matching.addAll(prefixRange(keywordTerms, term));
+                int df = PostingList.unionAll(matching).size();
+                idf[t] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            }
+            double[] averageLengths = new double[FIELDS];
+            for (int field = 0; field < FIELDS; field++) {
+                averageLengths[field] = documentCount == 0 ? 0 : Math.max(1.0, (double) totalFieldLengths[field] / documentCount);
+            }
+
+            // Min-heap on score; among equal scores the higher ID is evicted first
+            Comparator<ScoredArticle> worstFirst = Comparator.comparingDouble(ScoredArticle::getScore)
+                    .thenComparing(scored -> -scored.getArticle().getId());
+            PriorityQueue<ScoredArticle> best = new PriorityQueue<>(Math.min(k, Math.max(1, candidates.size())), worstFirst);
+            double[] frequencies = new double[FIELDS];
+            for (int i = 0; i < candidates.size(); i++) {
+                int id = candidates.get(i);
+                IndexedArticle article = documents.get(id);
+                FieldStats stats = fieldStats.get(id);
+                if (article == null || stats == null) continue; // Deleted since it matched
+                double score = 0;
+                for (int t = 0; t < idf.length; t++) {
+                    Arrays.fill(frequencies, 0);
+                    stats.prefixFrequencies(queryTerms.get(t), frequencies);
+                    double weighted = 0;
+                    for (int field = 0; field < FIELDS; field++) {
+                        if (frequencies[field] == 0) continue;
+                        double norm = 1 - B + B * stats.lengths[field] / averageLengths[field];
+                        weighted += FIELD_BOOSTS[field] * frequencies[field] / norm;
+                    }
+                    score += idf[t] * weighted / (K1 + weighted);
+                }
+                if (best.size() < k) {
+                    best.add(new ScoredArticle(article, score));
+                } else if (score > best.peek().getScore() || (score == best.peek().getScore() && id < best.peek().getArticle().getId())) {
+                    best.poll(); // Beats the worst of the best k
+                    best.add(new ScoredArticle(article, score));
+                }
+            }
+
+            List<ScoredArticle> ranked = new ArrayList<>(best);
+            ranked.sort(worstFirst.reversed()); // Only the k survivors are sorted
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Indexed articles for the given IDs, in the same order; unknown IDs are skipped
+    public List<IndexedArticle> get(PostingList ids) {
+        lock.readLock().lock();
+        try {
+            List<IndexedArticle> results = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                IndexedArticle article = documents.get(ids.get(i));
+                if (article != null) results.add(article);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of the given articles at each content level, indexed by ContentLevel ordinal, in one pass over the IDs
+    public int[] countLevels(PostingList ids) {
+        int[] counts = new int[ContentLevel.values().length];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                IndexedArticle article = documents.get(ids.get(i));
+                if (article == null) continue;
+                for (int mask = article.getContentLevel(); mask != 0; mask &= mask - 1) {
+                    counts[Integer.numberOfTrailingZeros(mask)]++; // One increment per set bit
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    // Union of the postings of every term in the dictionary starting with the given prefix, merged in one pass
+    private static PostingList prefixPostings(NavigableMap<String, PostingList> dictionary, String prefix) {
+        return PostingList.unionAll(prefixRange(dictionary, prefix));
+    }
+
+    // Postings of the terms in the dictionary starting with the given prefix
+    private static Collection<PostingList> prefixRange(NavigableMap<String, PostingList> dictionary, String prefix) {
+        return dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+    }
+
+    // Number of indexed articles
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of distinct searchable terms
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> searchableTerms(IndexedArticle article) {
+        Set<String> result = Tokenizer.distinctTerms(article.getTitle());
+        result.addAll(Tokenizer.tokenize(article.getAuthors()));
+        result.addAll(Tokenizer.tokenize(article.getAbstractText()));
+        return result;
+    }
+}
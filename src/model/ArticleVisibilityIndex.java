@@ -0,0 +1,261 @@
+package model;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Which articles each user may see, kept in memory as compressed bitmaps, so that visibility checks and group-filtered
+// searches are bitmap operations instead of joins over GroupArticles and GroupUsers.
+//
+// Articles in general groups are visible to everyone. Articles in a special access group are restricted: only members
+// with view rights in one of their special groups see them. For each user the index keeps the union of the articles of
+// the groups where they have view rights. Granting something adds to that union in place; taking something away
+// recomputes it from the user's groups, of which there are few.
+public class ArticleVisibilityIndex {
+
+    // One group: its kind, its articles and its members with their view rights
+    private static final class Group {
+        final boolean special;
+        final ArticleBitmap articles = new ArticleBitmap();
+        final Map<String, Boolean> canView = new HashMap<>();
+
+        Group(boolean special) {
+            this.special = special;
+        }
+    }
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private final Map<String, Set<String>> groupsByUser = new HashMap<>();
+    private final Map<String, ArticleBitmap> visibleByUser = new HashMap<>();
+    private ArticleBitmap restricted = new ArticleBitmap(); // Articles in at least one special group
+
+    // Many concurrent reads, occasional updates
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Registers a group; re-registering an existing group keeps its members and articles
+    public void addGroup(String groupId, boolean special) {
+        lock.writeLock().lock();
+        try {
+            groups.putIfAbsent(groupId, new Group(special));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Forgets a group, its memberships and its article links
+    public void removeGroup(String groupId) {
+        lock.writeLock().lock();
+        try {
+            Group group = groups.remove(groupId);
+            if (group == null) return;
+            for (String username : group.canView.keySet()) {
+                Set<String> userGroups = groupsByUser.get(username);
+                if (userGroups != null && userGroups.remove(groupId) && userGroups.isEmpty()) groupsByUser.remove(username);
+                recomputeVisible(username);
+            }
+            if (group.special) recomputeRestricted();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adds a user to a group, or updates their view rights if they are already a member
+    public void addMember(String groupId, String username, boolean canView) {
+        lock.writeLock().lock();
+        try {
+            Group group = groups.computeIfAbsent(groupId, id -> new Group(false));
+            Boolean previous = group.canView.put(username, canView);
+            groupsByUser.computeIfAbsent(username, u -> new HashSet<>()).add(groupId);
+            if (canView) {
+                ArticleBitmap visible = visibleByUser.get(username);
+                if (!group.articles.isEmpty()) {
+                    visibleByUser.put(username, visible == null ? group.articles.copy() : ArticleBitmap.or(visible, group.articles));
+                }
+            } else if (Boolean.TRUE.equals(previous)) {
+                recomputeVisible(username);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Removes a user from a group
+    public void removeMember(String groupId, String username) {
+        lock.writeLock().lock();
+        try {
+            Group group = groups.get(groupId);
+            if (group == null || group.canView.remove(username) == null) return;
+            Set<String> userGroups = groupsByUser.get(username);
+            if (userGroups != null && userGroups.remove(groupId) && userGroups.isEmpty()) groupsByUser.remove(username);
+            recomputeVisible(username);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Changes the view rights of an existing member; does nothing for non-members
+    public void setCanView(String groupId, String username, boolean canView) {
+        lock.writeLock().lock();
+        try {
+            Group group = groups.get(groupId);
+            if (group != null && group.canView.containsKey(username)) addMember(groupId, username, canView);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Removes a user from every group, when their account is deleted; returns the IDs of the groups they were in
+    public Set<String> removeUser(String username) {
+        lock.writeLock().lock();
+        try {
+            Set<String> userGroups = groupsByUser.remove(username);
+            if (userGroups == null) return Set.of();
+            for (String groupId : userGroups) {
+                Group group = groups.get(groupId);
+                if (group != null) group.canView.remove(username);
+            }
+            visibleByUser.remove(username);
+            return userGroups;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Links an article to a group
+    public void addArticle(String groupId, int articleId) {
+        lock.writeLock().lock();
+        try {
+            Group group = groups.computeIfAbsent(groupId, id -> new Group(false));
+            if (!group.articles.add(articleId)) return;
+            if (group.special) restricted.add(articleId);
+            for (Map.Entry<String, Boolean> member : group.canView.entrySet()) {
+                if (member.getValue()) visibleByUser.computeIfAbsent(member.getKey(), u -> new ArticleBitmap()).add(articleId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops a deleted article from every group
+    public void removeArticle(int articleId) {
+        lock.writeLock().lock();
+        try {
+            for (Group group : groups.values()) group.articles.remove(articleId);
+            for (ArticleBitmap visible : visibleByUser.values()) visible.remove(articleId);
+            restricted.remove(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops every group
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            groups.clear();
+            groupsByUser.clear();
+            visibleByUser.clear();
+            restricted.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // True unless the article is restricted and the user has view rights in none of its special groups
+    public boolean canView(String username, int articleId) {
+        lock.readLock().lock();
+        try {
+            if (!restricted.contains(articleId)) return true;
+            ArticleBitmap visible = visibleByUser.get(username);
+            return visible != null && visible.contains(articleId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The restricted articles the user may not see; searches subtract these from their results
+    public ArticleBitmap getHiddenArticles(String username) {
+        lock.readLock().lock();
+        try {
+            ArticleBitmap visible = visibleByUser.get(username);
+            return visible == null ? restricted.copy() : ArticleBitmap.andNot(restricted, visible);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Articles of the groups where the user has view rights
+    public ArticleBitmap getVisibleArticles(String username) {
+        lock.readLock().lock();
+        try {
+            ArticleBitmap visible = visibleByUser.get(username);
+            return visible == null ? new ArticleBitmap() : visible.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Articles linked to a group; empty for an unknown group
+    public ArticleBitmap getGroupArticles(String groupId) {
+        lock.readLock().lock();
+        try {
+            Group group = groups.get(groupId);
+            return group == null ? new ArticleBitmap() : group.articles.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // IDs of the groups a user belongs to, from the reverse membership map
+    public Set<String> getGroupIds(String username) {
+        lock.readLock().lock();
+        try {
+            Set<String> userGroups = groupsByUser.get(username);
+            return userGroups == null ? Set.of() : Set.copyOf(userGroups);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A member's view rights in a group, or null if they are not a member
+    public Boolean getCanView(String groupId, String username) {
+        lock.readLock().lock();
+        try {
+            Group group = groups.get(groupId);
+            return group == null ? null : group.canView.get(username);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One-line summary for logging and the admin UI
+    public String getMetrics() {
+        lock.readLock().lock();
+        try {
+            return String.format("Groups: %d, Members: %d, Restricted articles: %d",
+                    groups.size(), groupsByUser.size(), restricted.getCardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rebuilds a user's visible articles from their groups; callers hold the write lock
+    private void recomputeVisible(String username) {
+        ArticleBitmap visible = new ArticleBitmap();
+        for (String groupId : groupsByUser.getOrDefault(username, Set.of())) {
+            Group group = groups.get(groupId);
+            if (group != null && group.canView.getOrDefault(username, false)) visible = ArticleBitmap.or(visible, group.articles);
+        }
+        if (visible.isEmpty()) visibleByUser.remove(username);
+        else visibleByUser.put(username, visible);
+    }
+
+    // Rebuilds the restricted set from the special groups; callers hold the write lock
+    private void recomputeRestricted() {
+        ArticleBitmap union = new ArticleBitmap();
+        for (Group group : groups.values()) {
+            if (group.special) union = ArticleBitmap.or(union, group.articles);
+        }
+        restricted = union;
+    }
+}
@@ -0,0 +1,305 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+// Asynchronous facade over DatabaseHelper, so that UI threads never block on database I/O.
+//
+// Every call runs on its own virtual thread; a semaphore bounds how many run at once (by default the size of the
+// connection pool), the rest wait cheaply on their virtual threads in arrival order. A returned future can be
+// cancelled or times out after a per-call limit: the caller is released at once, a call still waiting for a permit is
+// skipped, and a call already running in the database is allowed to finish (interrupting JDBC I/O can damage the
+// database file) with its result discarded. Backups additionally stop at their next checkpoint.
+public class AsyncDatabaseHelper {
+
+    private static AsyncDatabaseHelper instance;
+
+    // Default time limit for a call; long-running operations (backup, restore, import) have none
+    private static final long DEFAULT_TIMEOUT_MS = Long.getLong("db.async.timeoutMs", 30_000);
+
+    // A unit of work against the database
+    @FunctionalInterface
+    public interface DatabaseCall<T> {
+        T call(DatabaseHelper db) throws SQLException;
+    }
+
+    private final DatabaseHelper db;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long defaultTimeoutMillis;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-async-", 0).factory());
+
+    public AsyncDatabaseHelper(DatabaseHelper db, int maxConcurrent, long defaultTimeoutMillis) {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("At least one call must be allowed to run.");
+        this.db = db;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent, true); // Fair, so calls start in submission order
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    // Returns the singleton instance, bounded by the shared DatabaseHelper's connection pool
+    public static synchronized AsyncDatabaseHelper getInstance() {
+        if (instance == null) {
+            DatabaseHelper db = DatabaseHelper.getInstance();
+            instance = new AsyncDatabaseHelper(db, db.getConnectionPool().getMaxSize(), DEFAULT_TIMEOUT_MS);
+        }
+        return instance;
+    }
+
+    // Runs a call with the default time limit
+    public <T> CompletableFuture<T> submit(DatabaseCall<T> call) {
+        return submit(call, defaultTimeoutMillis);
+    }
+
+    // Runs a call; a timeout of 0 or less means no time limit
+    public <T> CompletableFuture<T> submit(DatabaseCall<T> call, long timeoutMillis) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                result.completeExceptionally(e); // Only happens when the executor is shut down
+                return;
+            }
+            try {
+                if (result.isDone()) return; // Cancelled or timed out while waiting for a permit
+                result.complete(call.call(db));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                permits.release();
+            }
+        });
+        if (timeoutMillis > 0) result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    // Calls currently running (holding a permit)
+    public int getRunningCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    // Calls waiting for a permit
+    public int getQueuedCount() {
+        return permits.getQueueLength();
+    }
+
+    // Stops accepting calls; running calls are left to finish
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Progress callback that also reports the future's cancellation to the backup, so it stops at its next checkpoint
+    private static ArticleBackup.Progress cancellable(ArticleBackup.Progress progress, CompletableFuture<?> future) {
+        return new ArticleBackup.Progress() {
+            @Override
+            public void onProgress(long rowsDone, long totalRows) {
+                if (progress != null) progress.onProgress(rowsDone, totalRows);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return future.isDone() || (progress != null && progress.isCancelled());
+            }
+        };
+    }
+
+    // Articles
+
+    public CompletableFuture<Void> addArticle(String title, String authors, String abstractText, String keywords, String body,
+            String references, boolean isEncrypted) {
+        return submit(db -> {
+            db.addArticle(title, authors, abstractText, keywords, body, references, isEncrypted);
+            return null;
+        });
+    }
+
+    public CompletableFuture<BulkImportResult> importArticles(Iterator<Article> articles, int batchSize, int commitInterval) {
+        return submit(db -> db.importArticles(articles, batchSize, commitInterval), 0);
+    }
+
+    public CompletableFuture<List<String>> listArticles() {
+        return submit(DatabaseHelper::listArticles);
+    }
+
+    public CompletableFuture<ArticlePage> listArticles(int afterId, int limit) {
+        return submit(db -> db.listArticles(afterId, limit));
+    }
+
+    public CompletableFuture<List<String>> getAdminAccounts() {
+        return submit(DatabaseHelper::getAdminAccounts);
+    }
+
+    public CompletableFuture<String> viewArticle(int articleId) {
+        return submit(db -> db.viewArticle(articleId));
+    }
+
+    public CompletableFuture<Void> deleteArticle(int displayId) {
+        return submit(db -> {
+            db.deleteArticle(displayId);
+            return null;
+        });
+    }
+
+    // Backups and restores
+
+    // Cancelling the returned future releases the caller at once while the backup runs on to its next checkpoint; a
+    // caller that must wait until the backup has stopped returns true from progress.isCancelled() instead, and the
+    // future completes (with a CancellationException) only once the database call has finished
+    public CompletableFuture<Long> backupArticles(String backupFileName, boolean incremental, ArticleBackup.Progress progress) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        ArticleBackup.Progress checkpoints = cancellable(progress, future);
+        submit(db -> incremental ? db.backupArticlesIncremental(backupFileName, checkpoints)
+                : db.backupArticles(backupFileName, checkpoints), 0).whenComplete((rows, error) -> {
+                    if (error == null) future.complete(rows);
+                    else future.completeExceptionally(error);
+                });
+        return future;
+    }
+
+    public CompletableFuture<Void> restoreArticles(String backupFileName) {
+        return submit(db -> {
+            db.restoreArticles(backupFileName);
+            return null;
+        }, 0);
+    }
+
+    public CompletableFuture<Void> restoreArticles(String fullBackupFileName, List<String> deltaFileNames) {
+        return submit(db -> {
+            db.restoreArticles(fullBackupFileName, deltaFileNames);
+            return null;
+        }, 0);
+    }
+
+    // Groups
+
+    public CompletableFuture<String> createGroup(String groupName, boolean isSpecialGroup) {
+        return submit(db -> db.createGroup(groupName, isSpecialGroup));
+    }
+
+    public CompletableFuture<String> getGroupIdByName(String groupName) {
+        return submit(db -> db.getGroupIdByName(groupName));
+    }
+
+    public CompletableFuture<String> getGroupNameById(String groupId) {
+        return submit(db -> db.getGroupNameById(groupId));
+    }
+
+    public CompletableFuture<Void> addUserToGroup(String groupId, String username, String role) {
+        return submit(db -> {
+            db.addUserToGroup(groupId, username, role);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Integer> addUsersToGroup(String groupId, Collection<String> usernames, String role) {
+        return submit(db -> db.addUsersToGroup(groupId, usernames, role));
+    }
+
+    public CompletableFuture<Boolean> deleteUserFromGroup(String groupId, String username) {
+        return submit(db -> db.deleteUserFromGroup(groupId, username));
+    }
+
+    // Names of the groups of a session's user, from the groups cached on the session
+    public CompletableFuture<List<String>> getGroupsForSession(String token) {
+        return submit(db -> db.getGroupNames(SessionManager.getInstance().getGroupIds(token)));
+    }
+
+    public CompletableFuture<Integer> deleteUserFromAllGroups(String username) {
+        return submit(db -> db.deleteUserFromAllGroups(username));
+    }
+
+    public CompletableFuture<List<Map<String, String>>> getUsersInGroup(String groupId) {
+        return submit(db -> db.getUsersInGroup(groupId));
+    }
+
+    public CompletableFuture<Void> updateUserViewRights(String groupId, String username, boolean canView) {
+        return submit(db -> {
+            db.updateUserViewRights(groupId, username, canView);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Integer> updateUserViewRights(String groupId, Collection<String> usernames, boolean canView) {
+        return submit(db -> db.updateUserViewRights(groupId, usernames, canView));
+    }
+
+    public CompletableFuture<Void> updateUserAdminRights(String groupId, String username, boolean canAdmin) {
+        return submit(db -> {
+            db.updateUserAdminRights(groupId, username, canAdmin);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Integer> updateUserAdminRights(String groupId, Collection<String> usernames, boolean canAdmin) {
+        return submit(db -> db.updateUserAdminRights(groupId, usernames, canAdmin));
+    }
+
+    public CompletableFuture<Void> addArticleToGroup(String groupId, int articleId, boolean isEncrypted) {
+        return submit(db -> {
+            db.addArticleToGroup(groupId, articleId, isEncrypted);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Integer> addArticlesToGroup(String groupId, Collection<Integer> articleIds) {
+        return submit(db -> db.addArticlesToGroup(groupId, articleIds));
+    }
+
+    public CompletableFuture<Void> deleteGroup(String groupId) {
+        return submit(db -> {
+            db.deleteGroup(groupId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Map<String, String>>> getArticlesInGroup(String groupId, String username) {
+        return submit(db -> db.getArticlesInGroup(groupId, username));
+    }
+
+    public CompletableFuture<String> getArticleBodyInGroup(String groupId, String username, int articleId) {
+        return submit(db -> db.getArticleBodyInGroup(groupId, username, articleId));
+    }
+
+    // Search
+
+    public CompletableFuture<List<String>> searchArticles(String query, String level, String group) {
+        return submit(db -> db.searchArticles(query, level, group));
+    }
+
+    public CompletableFuture<PostingList> searchArticleIds(String query, String level, String group) {
+        return submit(db -> db.searchArticleIds(query, level, group));
+    }
+
+    public CompletableFuture<List<String>> searchArticles(String query, String level, String group, String username) {
+        return submit(db -> db.searchArticles(query, level, group, username));
+    }
+
+    public CompletableFuture<PostingList> searchArticleIds(String query, String level, String group, String username) {
+        return submit(db -> db.searchArticleIds(query, level, group, username));
+    }
+
+    public CompletableFuture<List<ArticleSearchIndex.ScoredArticle>> searchArticlesRanked(String query, String level, String group,
+            String username) {
+        return submit(db -> db.searchArticlesRanked(query, level, group, username));
+    }
+
+    public CompletableFuture<PostingList> getArticleIdsByKeyword(String keyword) {
+        return submit(db -> db.getArticleIdsByKeyword(keyword));
+    }
+
+    public CompletableFuture<PostingList> getArticleIdsByAuthor(String author) {
+        return submit(db -> db.getArticleIdsByAuthor(author));
+    }
+
+    public CompletableFuture<Void> clearDatabase() {
+        return submit(db -> {
+            db.clearDatabase();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package model;
+
+import java.util.*;
+
+public class BulkImportResult {
+
+    // Generated database IDs of the imported rows, in input order
+    private final List<Integer> generatedIds = new ArrayList<>();
+
+    // Error message per rejected row, keyed by the row's 0-based position in the input
+    private final Map<Integer, String> errors = new TreeMap<>();
+
+    private long elapsedNanos;
+
+    void addGeneratedId(int id) { generatedIds.add(id); }
+
+    void addError(int rowIndex, String message) { errors.put(rowIndex, message); }
+
+    void setElapsedNanos(long elapsedNanos) { this.elapsedNanos = elapsedNanos; }
+
+    public List<Integer> getGeneratedIds() { return generatedIds; }
+
+    public Map<Integer, String> getErrors() { return errors; }
+
+    public int getImportedCount() { return generatedIds.size(); }
+
+    public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+    // Imported rows per second over the whole run
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : generatedIds.size() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d articles in %.1fms (%.0f rows/sec), %d rejected",
+                getImportedCount(), getElapsedMillis(), getRowsPerSecond(), errors.size());
+    }
+}
@@ -0,0 +1,217 @@
+package model;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool implements AutoCloseable {
+
+    // Connection settings
+    private final String url, user, password;
+
+    // Maximum number of connections handed out at once
+    private final int maxSize;
+
+    // How long a caller waits for a free connection before giving up
+    private final long acquireTimeoutMillis;
+
+    // Idle connections older than this are validated before being handed out again
+    private final long validationIdleMillis;
+
+    // Permits bound the number of connections in use; idle connections wait in the deque
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+
+    // Pool metrics
+    private final AtomicInteger active = new AtomicInteger(), opened = new AtomicInteger();
+    private final AtomicLong acquireCount = new AtomicLong(), totalWaitNanos = new AtomicLong(),
+            maxWaitNanos = new AtomicLong(), timeouts = new AtomicLong(), discarded = new AtomicLong();
+
+    private volatile boolean closed = false;
+
+    // Isolation level of a freshly opened connection; borrowers that change it get it reset on release
+    private volatile int defaultIsolation = -1;
+
+    // A physical connection sitting in the pool together with the time it was returned
+    private record IdleConnection(Connection connection, long returnedAt) {}
+
+    // Creates a pool; connections are opened lazily up to maxSize
+    public ConnectionPool(String url, String user, String password, int maxSize, long acquireTimeoutMillis,
+            long validationIdleMillis) {
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1.");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validationIdleMillis = validationIdleMillis;
+        this.permits = new Semaphore(maxSize, true); // Fair, so waiting callers are served in order
+    }
+
+    // Borrows a connection; closing the returned connection hands it back to the pool
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed.");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis + "ms waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            Connection physical = takeIdleOrOpen();
+            active.incrementAndGet();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release(); // Do not leak the permit if no connection could be produced
+            throw e;
+        }
+    }
+
+    // Reuses a valid idle connection if there is one, otherwise opens a new one
+    private Connection takeIdleOrOpen() throws SQLException {
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (isUsable(candidate)) return candidate.connection();
+            discard(candidate.connection());
+        }
+        opened.incrementAndGet();
+        Connection physical = DriverManager.getConnection(url, user, password);
+        if (defaultIsolation < 0) defaultIsolation = physical.getTransactionIsolation();
+        return physical;
+    }
+
+    // Connections that sat idle for a while are checked before reuse
+    private boolean isUsable(IdleConnection candidate) {
+        try {
+            if (candidate.connection().isClosed()) return false;
+            if (System.currentTimeMillis() - candidate.returnedAt() < validationIdleMillis) return true;
+            return candidate.connection().isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Puts a borrowed connection back, resetting any state the caller left behind
+    private void release(Connection physical) {
+        active.decrementAndGet();
+        try {
+            if (closed || physical.isClosed()) {
+                discard(physical);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback(); // Never hand out a connection with an open transaction
+                physical.setAutoCommit(true);
+            }
+            if (defaultIsolation >= 0 && physical.getTransactionIsolation() != defaultIsolation) {
+                physical.setTransactionIsolation(defaultIsolation); // Never hand out a connection at another level
+            }
+            idle.offerFirst(new IdleConnection(physical, System.currentTimeMillis())); // LIFO keeps hot connections hot
+        } catch (SQLException e) {
+            discard(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Connection physical) {
+        discarded.incrementAndGet();
+        opened.decrementAndGet();
+        try {
+            physical.close();
+        } catch (SQLException ignored) {
+            // The connection is being thrown away anyway
+        }
+    }
+
+    private void recordWait(long nanos) {
+        acquireCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Wraps the physical connection so that close() returns it to the pool exactly once
+    private Connection wrap(Connection physical) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned = false;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!returned) {
+                            returned = true;
+                            release(physical);
+                        }
+                        return null;
+                    case "isClosed":
+                        return returned || physical.isClosed();
+                    case "unwrap":
+                        if (((Class<?>) args[0]).isInstance(physical)) return physical;
+                        break;
+                    default:
+                        if (returned) throw new SQLException("Connection has already been returned to the pool.");
+                }
+                try {
+                    return method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    // Closes all idle connections; borrowed ones are closed when they come back
+    @Override
+    public void close() {
+        closed = true;
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) discard(candidate.connection());
+    }
+
+    // Metrics
+
+    public int getMaxSize() { return maxSize; }
+
+    public int getActiveCount() { return active.get(); }
+
+    public int getIdleCount() { return idle.size(); }
+
+    public int getOpenCount() { return opened.get(); }
+
+    public long getTimeoutCount() { return timeouts.get(); }
+
+    public long getDiscardedCount() { return discarded.get(); }
+
+    // Average time callers spent waiting for a connection, in milliseconds
+    public double getAverageWaitMillis() {
+        long count = acquireCount.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxWaitMillis() { return maxWaitNanos.get() / 1_000_000.0; }
+
+    // One-line summary of the pool metrics
+    public String getMetrics() {
+        return String.format("Active: %d, Idle: %d, Open: %d/%d, Avg Wait: %.3fms, Max Wait: %.3fms, Timeouts: %d",
+                getActiveCount(), getIdleCount(), getOpenCount(), maxSize, getAverageWaitMillis(), getMaxWaitMillis(),
+                getTimeoutCount());
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+import java.util.Locale;
+
+// Content levels an article can be tagged with through its keywords. An article's levels are stored as a bitmask
+// (Articles.contentLevel) so that filters and statistics never have to re-parse the keywords.
+public enum ContentLevel {
+    BEGINNER("Beginner"),
+    INTERMEDIATE("Intermediate"),
+    ADVANCED("Advanced"),
+    EXPERT("Expert");
+
+    private final String displayName;
+
+    ContentLevel(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() { return displayName; }
+
+    // This level's bit in a contentLevel mask
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isIn(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    // Level with the given name (case-insensitive), or null if it is not a content level
+    public static ContentLevel fromName(String name) {
+        if (name == null) return null;
+        for (ContentLevel level : values()) {
+            if (level.name().equals(name.toUpperCase(Locale.ROOT))) return level;
+        }
+        return null;
+    }
+
+    // Mask of every level named among the keywords, matched by term like the search index's level filter
+    public static int maskOf(String keywords) {
+        int mask = 0;
+        for (String term : Tokenizer.distinctTerms(keywords)) {
+            ContentLevel level = fromName(term);
+            if (level != null) mask |= level.bit();
+        }
+        return mask;
+    }
+}
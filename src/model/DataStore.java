@@ -1,47 +1,624 @@
 package model;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class DataStore {
 
+    // Where users and invitations are persisted, and how many logged changes trigger a snapshot
+    private static final String USER_STORE_DIR = System.getProperty("user.store.dir",
+            Paths.get(System.getProperty("user.home"), "article-help", "users").toString());
+    private static final long USER_STORE_SNAPSHOT_EVERY = Long.getLong("user.store.snapshotEvery", 10_000);
+
+    // How long a generated invitation code stays valid, and the resolution of the expiry wheels
+    public static final Duration INVITATION_TTL = Duration.ofMinutes(Long.getLong("invitation.ttlMinutes", 72 * 60));
+    public static final int INVITATION_CODE_LENGTH = Integer.getInteger("invitation.codeLength", 6);
+    private static final long EXPIRY_TICK_MS = Long.getLong("expiry.tickMs", 1_000);
+    private static final int EXPIRY_WHEEL_SLOTS = 512;
+
+    // Single daemon thread that turns the expiry wheels of every DataStore
+    private static final ScheduledExecutorService EXPIRY_TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "user-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Number of lock stripes ordering changes to the same username or invitation code
+    private static final int LOCK_STRIPES = 64;
+
     // Singleton instance of DataStore
     private static DataStore instance = null;
 
     // User-related attributes
-    private List<User> userList = new ArrayList<>(); // List of registered users
-    private Map<String, User.Invitation> invitations = new HashMap<>(); // Map of invitation codes to user invitations
+    // Users are indexed by username for O(1) lookups; a sorted copy of the index backs the ordered listing, and a
+    // secondary index maps each role to its holders. The username index decides who wins a concurrent registration.
+    private final ConcurrentHashMap<String, User> usersByName = new ConcurrentHashMap<>(); // Username -> user
+    private final ConcurrentSkipListMap<String, User> usersInOrder = new ConcurrentSkipListMap<>(); // Sorted by username
+    private final ConcurrentHashMap<String, Set<String>> usernamesByRole = new ConcurrentHashMap<>(); // Role -> usernames
+    private final List<User> userList = new UserListView(); // List view over the index, for existing callers
+    private final AtomicLong userOrderVersion = new AtomicLong(); // Bumped on every change to usersInOrder
+    private final ConcurrentHashMap<String, User.Invitation> invitationsByCode = new ConcurrentHashMap<>();
+    private final Map<String, User.Invitation> invitations = new InvitationMapView(); // Map view that persists changes
+
+    // Every change is applied and logged under the stripe lock of its key, so the log orders changes to one user or
+    // invitation the same way memory does; waiting for the log to reach disk happens after the lock is released
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final UserStore store;
+
+    // Invitation codes and one-time passwords are evicted by timing wheels instead of lingering until someone looks;
+    // the wheels are scheduled under the same stripe locks as the changes that set the deadlines
+    private final TimingWheel<String> invitationExpiry = new TimingWheel<>(EXPIRY_TICK_MS, EXPIRY_WHEEL_SLOTS, System.currentTimeMillis());
+    private final TimingWheel<String> otpExpiry = new TimingWheel<>(EXPIRY_TICK_MS, EXPIRY_WHEEL_SLOTS, System.currentTimeMillis());
+    private final Map<Integer, InvitationCodeGenerator> codeGenerators = new ConcurrentHashMap<>(); // By code length
+    private volatile String unknownUserHash; // Checked for unknown usernames, so they take as long as wrong passwords
+    private final AtomicLong expiredInvitations = new AtomicLong(), expiredOneTimePasswords = new AtomicLong();
+    private final ScheduledFuture<?> expiryTicks;
 
     // Help system-related attributes
     private static List<String> genericMessages = new ArrayList<>(); // List of generic help messages
     private static Map<String, List<String>> specificMessages = new HashMap<>(); // Map of specific queries to their messages
 
-    // Private constructor to enforce singleton pattern
-    private DataStore() {}
+    // Private constructor to enforce singleton pattern; replays the persisted users and invitations
+    private DataStore(UserStore store) throws IOException {
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+        this.store = store;
+        store.replay(new UserStore.Replay() {
+            @Override
+            public void putUser(User user) {
+                User previous = usersByName.put(user.getUsername(), user);
+                if (previous != null) unindexRoles(previous);
+                usersInOrder.put(user.getUsername(), user);
+                userOrderVersion.incrementAndGet();
+                indexRoles(user);
+            }
+
+            @Override
+            public void deleteUser(String username) {
+                User previous = usersByName.remove(username);
+                if (previous != null) {
+                    usersInOrder.remove(username);
+                    userOrderVersion.incrementAndGet();
+                    unindexRoles(previous);
+                }
+            }
+
+            @Override
+            public void putInvitation(String code, User.Invitation invitation) {
+                invitationsByCode.put(code, invitation);
+            }
+
+            @Override
+            public void removeInvitation(String code) {
+                invitationsByCode.remove(code);
+            }
+        });
+
+        // Deadlines that passed while the application was down expire on the first tick
+        invitationsByCode.forEach(this::trackInvitation);
+        usersByName.values().forEach(this::trackOneTimePassword);
+        expiryTicks = EXPIRY_TIMER.scheduleAtFixedRate(() -> {
+            try {
+                expireDue(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                System.err.println("Expiring invitations and one-time passwords failed: " + e.getMessage());
+            }
+        }, EXPIRY_TICK_MS, EXPIRY_TICK_MS, TimeUnit.MILLISECONDS);
+    }
 
     // Singleton getInstance method to retrieve the single instance of DataStore
-    public static DataStore getInstance() {
-        if (instance == null) instance = new DataStore(); // Initialize instance if not already created
+    public static synchronized DataStore getInstance() {
+        if (instance == null) instance = open(Paths.get(USER_STORE_DIR), USER_STORE_SNAPSHOT_EVERY); // Initialize instance if not already created
         return instance; // Return the singleton instance
     }
 
+    // Opens a separate DataStore over a store directory, replaying whatever it holds
+    public static DataStore open(Path directory, long snapshotEvery) {
+        try {
+            return new DataStore(new UserStore(directory, snapshotEvery));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load users from " + directory, e);
+        }
+    }
+
+    // Persistence
+
+    // Writes a snapshot of all users and invitations now, replacing the log written so far
+    public void compactUserStore() {
+        try {
+            store.compact(this::writeSnapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Flushes pending changes and releases the store's files; the DataStore must not be used afterwards
+    public void closeUserStore() {
+        expiryTicks.cancel(false);
+        try {
+            store.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public UserStore getUserStore() {
+        return store;
+    }
+
+    // Waits for a logged change to reach disk, then schedules a snapshot if the log has grown long enough
+    private void awaitDurable(long seq) {
+        if (seq == 0) return;
+        try {
+            store.sync(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save user data.", e);
+        }
+        if (store.isSnapshotDue()) store.compactInBackground(this::writeSnapshot);
+    }
+
+    // Writes every user and invitation, each under its lock so no half-applied change is captured
+    private void writeSnapshot(UserStore.SnapshotWriter snapshot) throws IOException {
+        for (User user : usersByName.values()) {
+            synchronized (lockFor(user.getUsername())) {
+                if (usersByName.get(user.getUsername()) == user) snapshot.user(user);
+            }
+        }
+        for (String code : invitationsByCode.keySet()) {
+            synchronized (lockFor(code)) {
+                User.Invitation invitation = invitationsByCode.get(code);
+                if (invitation != null) snapshot.invitation(code, invitation);
+            }
+        }
+    }
+
+    private Object lockFor(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
     // User-related methods
 
-    // Retrieves the list of registered users
+    // Retrieves the registered users, ordered by username; adding to or removing from the list updates the indexes
     public List<User> getUserList() {
         return userList;
     }
 
-    // Retrieves the map of invitation codes and their associated invitations
+    // Registers a user unless the username is already taken; returns whether the user was added
+    public boolean registerUser(User user) {
+        long seq;
+        synchronized (lockFor(user.getUsername())) {
+            if (usersByName.putIfAbsent(user.getUsername(), user) != null) return false;
+            usersInOrder.put(user.getUsername(), user);
+            userOrderVersion.incrementAndGet();
+            indexRoles(user);
+            trackOneTimePassword(user);
+            seq = store.logPutUser(user);
+        }
+        awaitDurable(seq);
+        return true;
+    }
+
+    // Removes a user and drops them from the role index; returns whether the user was registered
+    public boolean removeUser(User user) {
+        long seq = unregister(user);
+        if (seq != 0) SessionManager.getInstance().invalidateUser(user.getUsername());
+        awaitDurable(seq);
+        return seq != 0;
+    }
+
+    // Removes every user, waiting for disk once for the whole batch
+    public void clearUsers() {
+        long seq = 0;
+        for (User user : usersByName.values()) {
+            long removed = unregister(user);
+            if (removed != 0) SessionManager.getInstance().invalidateUser(user.getUsername());
+            seq = Math.max(seq, removed);
+        }
+        awaitDurable(seq);
+    }
+
+    // Number of registered users
+    public int getUserCount() {
+        return usersByName.size();
+    }
+
+    // Replaces a user's roles and keeps the role index in step
+    public void setUserRoles(User user, List<String> roles) {
+        updateUser(user, u -> u.setRoles(new ArrayList<>(roles)));
+    }
+
+    // Adds a role to a user and keeps the role index in step
+    public void addUserRole(User user, String role) {
+        updateUser(user, u -> u.addRole(role));
+    }
+
+    // Applies a change to a user (password, one-time password, details, roles) and persists it if they are registered
+    public void updateUser(User user, Consumer<User> change) {
+        long seq = 0;
+        boolean rolesChanged;
+        synchronized (lockFor(user.getUsername())) {
+            boolean registered = usersByName.get(user.getUsername()) == user;
+            List<String> rolesBefore = List.copyOf(user.getRoles());
+            if (registered) unindexRoles(user);
+            change.accept(user);
+            rolesChanged = !rolesBefore.equals(user.getRoles());
+            if (registered) {
+                indexRoles(user);
+                trackOneTimePassword(user);
+                seq = store.logPutUser(user);
+            }
+        }
+        if (rolesChanged) SessionManager.getInstance().invalidateUser(user.getUsername()); // Sessions cache the roles
+        awaitDurable(seq);
+    }
+
+    // Checks a password on PasswordHasher's pool; completes with the user, or null if the username or password is wrong.
+    // A hash made with an older cost (or a plain-text password from before hashing) is upgraded on success.
+    public CompletableFuture<User> login(String username, String password) {
+        User user = findUserByUsername(username);
+        PasswordHasher hasher = PasswordHasher.getInstance();
+        return hasher.supply(() -> {
+            String stored = user != null ? user.getPassword() : unknownUserHash(hasher);
+            if (!hasher.matches(password, stored) || user == null) return null;
+            if (hasher.needsRehash(stored)) {
+                String rehashed = hasher.hash(password);
+                updateUser(user, u -> {
+                    if (stored.equals(u.getPassword())) u.setPasswordHash(rehashed); // Unless it was changed meanwhile
+                });
+            }
+            return user;
+        });
+    }
+
+    private String unknownUserHash(PasswordHasher hasher) {
+        String hash = unknownUserHash;
+        if (hash == null || hasher.needsRehash(hash)) unknownUserHash = hash = hasher.hash(UUID.randomUUID().toString());
+        return hash;
+    }
+
+    // Retrieves the map of invitation codes and their associated invitations; changes made through it are persisted
     public Map<String, User.Invitation> getInvitations() {
         return invitations;
     }
 
+    // Stores an invitation code for the given roles that expires after INVITATION_TTL
+    public User.Invitation addInvitation(String code, List<String> roles) {
+        User.Invitation invitation = new User.Invitation(roles, LocalDateTime.now().plus(INVITATION_TTL));
+        invitations.put(code, invitation);
+        return invitation;
+    }
+
+    // Issues an invitation code of the default length for the given roles
+    public String issueInvitation(List<String> roles) {
+        return issueInvitations(1, INVITATION_CODE_LENGTH, roles).get(0);
+    }
+
+    // Issues a batch of unique invitation codes for the given roles and returns them
+    public List<String> issueInvitations(int count, int codeLength, List<String> roles) {
+        List<String> codes = new ArrayList<>(count);
+        try {
+            issueInvitations(count, codeLength, roles, (code, invitation) -> codes.add(code));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Adding to a list cannot fail
+        }
+        return codes;
+    }
+
+    // Issues a batch of unique invitation codes and streams them to a CSV writer as they are created; returns the count
+    public int issueInvitations(int count, int codeLength, List<String> roles, Writer csv) throws IOException {
+        csv.write("code,roles,expires_at\n");
+        int issued = issueInvitations(count, codeLength, roles, (code, invitation) ->
+                csv.write(code + "," + String.join(";", invitation.getRoles()) + "," + invitation.getExpiresAt() + "\n"));
+        csv.flush();
+        return issued;
+    }
+
+    // Receives each code of a batch as soon as it is stored
+    @FunctionalInterface
+    private interface IssuedCode {
+        void accept(String code, User.Invitation invitation) throws IOException;
+    }
+
+    // Codes come from a permuted counter per code length, so they are unique within this run without any lookups; a
+    // code that happens to match one issued before a restart is skipped. The batch waits for disk once, at the end.
+    private int issueInvitations(int count, int codeLength, List<String> roles, IssuedCode sink) throws IOException {
+        if (count < 1) throw new IllegalArgumentException("At least one code must be requested.");
+        if (roles.isEmpty()) throw new IllegalArgumentException("An invitation needs at least one role.");
+        InvitationCodeGenerator generator = codeGenerators.computeIfAbsent(codeLength, InvitationCodeGenerator::new);
+        User.Invitation invitation = new User.Invitation(List.copyOf(roles), LocalDateTime.now().plus(INVITATION_TTL));
+        long seq = 0;
+        int issued = 0;
+        try {
+            while (issued < count) {
+                String code = generator.next();
+                synchronized (lockFor(code)) {
+                    if (invitationsByCode.putIfAbsent(code, invitation) != null) continue;
+                    trackInvitation(code, invitation);
+                    seq = store.logPutInvitation(code, invitation);
+                }
+                issued++;
+                sink.accept(code, invitation);
+            }
+        } finally {
+            awaitDurable(seq);
+        }
+        return issued;
+    }
+
+    // Expiry
+
+    // Removes the invitations and clears the one-time passwords whose deadline has passed by the given time.
+    // Called every tick by the expiry timer; an entry whose deadline was moved since it was scheduled is left alone.
+    public void expireDue(long nowMillis) {
+        LocalDateTime now = toLocalDateTime(nowMillis);
+        long seq = 0;
+        for (String code : invitationExpiry.advance(nowMillis)) {
+            synchronized (lockFor(code)) {
+                User.Invitation invitation = invitationsByCode.get(code);
+                if (invitation != null && invitation.getExpiresAt() != null && !now.isBefore(invitation.getExpiresAt())) {
+                    invitationsByCode.remove(code);
+                    expiredInvitations.incrementAndGet();
+                    seq = Math.max(seq, store.logRemoveInvitation(code));
+                }
+            }
+        }
+        for (String username : otpExpiry.advance(nowMillis)) {
+            synchronized (lockFor(username)) {
+                User user = usersByName.get(username);
+                if (user != null && user.getOneTimePassword() != null && user.getPasswordExpiry() != null
+                        && !now.isBefore(user.getPasswordExpiry())) {
+                    user.clearPasswordReset();
+                    expiredOneTimePasswords.incrementAndGet();
+                    seq = Math.max(seq, store.logPutUser(user));
+                }
+            }
+        }
+        awaitDurable(seq);
+    }
+
+    // Invitations that will expire, and those removed because they did
+    public int getLiveInvitationCount() { return invitationExpiry.getLiveCount(); }
+
+    public long getExpiredInvitationCount() { return expiredInvitations.get(); }
+
+    // One-time passwords waiting to be used, and those cleared because they expired
+    public int getLiveOneTimePasswordCount() { return otpExpiry.getLiveCount(); }
+
+    public long getExpiredOneTimePasswordCount() { return expiredOneTimePasswords.get(); }
+
+    // One-line summary for logging and the admin UI
+    public String getExpiryMetrics() {
+        return String.format("Invitations: %d total, %d expiring, %d expired; One-time passwords: %d live, %d expired",
+                invitationsByCode.size(), getLiveInvitationCount(), getExpiredInvitationCount(),
+                getLiveOneTimePasswordCount(), getExpiredOneTimePasswordCount());
+    }
+
+    // Puts an invitation's deadline on the wheel; callers hold the code's lock (or are replaying)
+    private void trackInvitation(String code, User.Invitation invitation) {
+        if (invitation.getExpiresAt() != null) invitationExpiry.schedule(code, toEpochMillis(invitation.getExpiresAt()));
+        else invitationExpiry.cancel(code);
+    }
+
+    // Puts a user's one-time password deadline on the wheel; callers hold the username's lock (or are replaying)
+    private void trackOneTimePassword(User user) {
+        if (user.getOneTimePassword() != null && user.getPasswordExpiry() != null) {
+            otpExpiry.schedule(user.getUsername(), toEpochMillis(user.getPasswordExpiry()));
+        } else {
+            otpExpiry.cancel(user.getUsername());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    // Retrieves the users holding a role, ordered by username
+    public List<User> getUsersByRole(String role) {
+        Set<String> usernames = usernamesByRole.getOrDefault(role, Collections.emptySet());
+        List<User> users = new ArrayList<>();
+        for (String username : new TreeSet<>(usernames)) {
+            User user = usersByName.get(username);
+            if (user != null) users.add(user);
+        }
+        return users;
+    }
+
+    // Number of users holding a role
+    public int countUsersWithRole(String role) {
+        return usernamesByRole.getOrDefault(role, Collections.emptySet()).size();
+    }
+
     // Finds and returns a user by their username, or null if not found
     public User findUserByUsername(String username) {
-        return userList.stream()
-                .filter(u -> u.getUsername().equals(username)) // Filter users by matching username
-                .findFirst() // Get the first matching user
-                .orElse(null); // Return null if no match is found
+        return username == null ? null : usersByName.get(username);
+    }
+
+    // Removes a registered user from every index and logs it; returns the log sequence number, or 0 if not registered
+    private long unregister(User user) {
+        synchronized (lockFor(user.getUsername())) {
+            if (!usersByName.remove(user.getUsername(), user)) return 0;
+            usersInOrder.remove(user.getUsername(), user);
+            userOrderVersion.incrementAndGet();
+            unindexRoles(user);
+            otpExpiry.cancel(user.getUsername());
+            return store.logDeleteUser(user.getUsername());
+        }
+    }
+
+    // Adds the user's current roles to the role index; callers hold the username's lock
+    private void indexRoles(User user) {
+        for (String role : user.getRoles()) {
+            usernamesByRole.computeIfAbsent(role, r -> ConcurrentHashMap.newKeySet()).add(user.getUsername());
+        }
+    }
+
+    // Removes the user's current roles from the role index; callers hold the username's lock
+    private void unindexRoles(User user) {
+        for (String role : user.getRoles()) {
+            Set<String> holders = usernamesByRole.get(role);
+            if (holders != null) holders.remove(user.getUsername());
+        }
+    }
+
+    // Map over the invitations whose changes are logged; iteration is weakly consistent and read-only
+    private class InvitationMapView extends AbstractMap<String, User.Invitation> {
+
+        @Override
+        public User.Invitation get(Object code) {
+            return invitationsByCode.get(code);
+        }
+
+        @Override
+        public boolean containsKey(Object code) {
+            return invitationsByCode.containsKey(code);
+        }
+
+        @Override
+        public int size() {
+            return invitationsByCode.size();
+        }
+
+        @Override
+        public User.Invitation put(String code, User.Invitation invitation) {
+            User.Invitation previous;
+            long seq;
+            synchronized (lockFor(code)) {
+                previous = invitationsByCode.put(code, invitation);
+                trackInvitation(code, invitation);
+                seq = store.logPutInvitation(code, invitation);
+            }
+            awaitDurable(seq);
+            return previous;
+        }
+
+        @Override
+        public User.Invitation remove(Object key) {
+            if (!(key instanceof String code)) return null;
+            User.Invitation previous;
+            long seq = 0;
+            synchronized (lockFor(code)) {
+                previous = invitationsByCode.remove(code);
+                invitationExpiry.cancel(code);
+                if (previous != null) seq = store.logRemoveInvitation(code);
+            }
+            awaitDurable(seq);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            long seq = 0;
+            for (String code : invitationsByCode.keySet()) {
+                synchronized (lockFor(code)) {
+                    invitationExpiry.cancel(code);
+                    if (invitationsByCode.remove(code) != null) seq = Math.max(seq, store.logRemoveInvitation(code));
+                }
+            }
+            awaitDurable(seq);
+        }
+
+        @Override
+        public Set<Entry<String, User.Invitation>> entrySet() {
+            return Collections.unmodifiableMap(invitationsByCode).entrySet();
+        }
+    }
+
+    // Mutable List over the sorted index: add registers, remove unregisters, and iteration is weakly consistent, so
+    // listing users never fails because of a concurrent registration. Indexed access reads a sorted array copied from
+    // the index and reused until the index changes, so a get(i) loop is O(N) overall rather than a walk per call.
+    private class UserListView extends AbstractList<User> {
+
+        // The ordered users as of one version of the index
+        private record Snapshot(long version, User[] users) {}
+
+        private volatile Snapshot snapshot = new Snapshot(-1, new User[0]);
+
+        @Override
+        public User get(int index) {
+            long version = userOrderVersion.get(); // Read first, so a change made during the copy forces another one
+            Snapshot current = snapshot;
+            if (current.version() != version) {
+                current = new Snapshot(version, usersInOrder.values().toArray(new User[0]));
+                snapshot = current;
+            }
+            Objects.checkIndex(index, current.users().length);
+            return current.users()[index];
+        }
+
+        @Override
+        public int size() {
+            return usersInOrder.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return usersByName.isEmpty();
+        }
+
+        @Override
+        public boolean add(User user) {
+            return registerUser(user);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof User user && removeUser(user);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof User user && usersByName.get(user.getUsername()) == user;
+        }
+
+        @Override
+        public void clear() {
+            clearUsers();
+        }
+
+        @Override
+        public Iterator<User> iterator() {
+            Iterator<User> users = usersInOrder.values().iterator();
+            return new Iterator<>() {
+                private User last;
+
+                @Override
+                public boolean hasNext() {
+                    return users.hasNext();
+                }
+
+                @Override
+                public User next() {
+                    return last = users.next();
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) throw new IllegalStateException();
+                    removeUser(last);
+                    last = null;
+                }
+            };
+        }
     }
 
     // Help system methods
@@ -1,26 +1,70 @@
 package model;
 
+import java.io.File;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.sql.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
 
 public class DatabaseHelper {
 
     // Singleton instance of DatabaseHelper
     private static DatabaseHelper instance;
 
-    // Connection object for interacting with the database
-    private Connection connection;
+    // Pool settings, overridable with -Ddb.pool.size=... and friends
+    private static final int POOL_SIZE = Integer.getInteger("db.pool.size", Math.max(4, Runtime.getRuntime().availableProcessors()));
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("db.pool.acquireTimeoutMs", 5_000);
+    private static final long POOL_VALIDATION_IDLE_MS = Long.getLong("db.pool.validationIdleMs", 30_000);
 
-    // Private constructor to set up the database connection and initialize the schema
+    // Rows per compressed backup chunk, i.e. how often a backup checkpoints and reports progress
+    private static final int BACKUP_CHUNK_ROWS = Integer.getInteger("backup.chunkRows", 1_000);
+
+    // Threads decoding and staging backup chunks during a restore; one pool connection is always left for readers
+    private static final int RESTORE_THREADS = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), POOL_SIZE - 1));
+
+    // Number of ranked results returned by searchArticlesRanked
+    private static final int SEARCH_RESULT_LIMIT = Integer.getInteger("search.resultLimit", 50);
+
+    // Upper bound on the memory used by cached article details
+    private static final long ARTICLE_CACHE_BYTES = Long.getLong("article.cache.bytes", 16L * 1024 * 1024);
+
+    // Change journal operations and backup history kinds
+    private static final String CHANGE_INSERT = "I", CHANGE_DELETE = "D";
+    private static final String BACKUP_FULL = "FULL", BACKUP_DELTA = "DELTA", BACKUP_RESTORE = "RESTORE";
+
+    // Bounded pool of connections; every operation borrows one for the duration of the call
+    private final ConnectionPool pool;
+
+    // In-memory inverted index answering searchArticles without scanning the Articles table
+    private volatile ArticleSearchIndex searchIndex = new ArticleSearchIndex();
+
+    // Rank/select index over live article IDs, mapping display IDs to database IDs in O(log N)
+    private volatile ArticleIdIndex articleIds = new ArticleIdIndex();
+
+    // Per-group and per-user article bitmaps, answering group listings and visibility checks without joins
+    private volatile ArticleVisibilityIndex visibility = new ArticleVisibilityIndex();
+
+    // Group names and IDs in both directions, so group actions need no extra query to resolve a name
+    private volatile GroupDirectory groupDirectory = new GroupDirectory();
+
+    // Rendered article details for viewArticle, so repeat views skip the database and decryption
+    private final ArticleCache articleCache = new ArticleCache(ARTICLE_CACHE_BYTES);
+
+    // Serializes restores, which share the ArticlesStaging table
+    private final Object restoreLock = new Object();
+
+    // Private constructor to set up the connection pool and initialize the schema
     private DatabaseHelper() throws SQLException {
-        connection = DriverManager.getConnection("jdbc:h2:~/test", "sa", ""); // Connect to H2 database
+        pool = new ConnectionPool("jdbc:h2:~/test", "sa", "", POOL_SIZE, POOL_ACQUIRE_TIMEOUT_MS, POOL_VALIDATION_IDLE_MS); // H2 database
         setupDatabase(); // Initialize the database schema
+        rebuildArticleIndexes(); // Load the existing articles into the in-memory indexes
     }
 
     // Returns the singleton instance of DatabaseHelper
-    public static DatabaseHelper getInstance() {
+    public static synchronized DatabaseHelper getInstance() {
         if (instance == null) {
             try {
                 instance = new DatabaseHelper();
@@ -31,19 +75,56 @@ public class DatabaseHelper {
         return instance;
     }
 
+    // Exposes the connection pool metrics (active, idle, wait time)
+    public ConnectionPool getConnectionPool() {
+        return pool;
+    }
+
+    // Exposes the article cache metrics (hits, misses, evictions)
+    public ArticleCache getArticleCache() {
+        return articleCache;
+    }
+
     // Sets up the database schema by creating necessary tables
     private void setupDatabase() throws SQLException {
-        // SQL statement to create the Articles table
+        // SQL statement to create the Articles table (compact header row read by listings and group views)
         String createArticlesTable = """
             CREATE TABLE IF NOT EXISTS Articles (
                 id INT AUTO_INCREMENT PRIMARY KEY,
                 title VARCHAR(255) NOT NULL,
                 authors VARCHAR(255),
-                abstractText TEXT,
                 keywords VARCHAR(255),
+                contentLevel INT DEFAULT 0 NOT NULL,
+                isEncrypted BOOLEAN DEFAULT FALSE
+            );
+        """;
+
+        // SQL statement to create the ArticleContent table (large text, only read when an article is opened)
+        String createArticleContentTable = """
+            CREATE TABLE IF NOT EXISTS ArticleContent (
+                articleId INT PRIMARY KEY,
+                abstractText TEXT,
                 body TEXT,
                 references TEXT,
-                isEncrypted BOOLEAN DEFAULT FALSE
+                FOREIGN KEY (articleId) REFERENCES Articles(id) ON DELETE CASCADE
+            );
+        """;
+
+        // SQL statements to create the ArticleKeywords and ArticleAuthors tables (one row per list entry, normalized)
+        String createArticleKeywordsTable = """
+            CREATE TABLE IF NOT EXISTS ArticleKeywords (
+                articleId INT,
+                keyword VARCHAR(255),
+                PRIMARY KEY (articleId, keyword),
+                FOREIGN KEY (articleId) REFERENCES Articles(id) ON DELETE CASCADE
+            );
+        """;
+        String createArticleAuthorsTable = """
+            CREATE TABLE IF NOT EXISTS ArticleAuthors (
+                articleId INT,
+                author VARCHAR(255),
+                PRIMARY KEY (articleId, author),
+                FOREIGN KEY (articleId) REFERENCES Articles(id) ON DELETE CASCADE
             );
         """;
 
@@ -80,13 +161,189 @@ public class DatabaseHelper {
             );
         """;
 
+        // SQL statement to create the ArticleChangeLog table (journal of inserts and deletes for incremental backups)
+        String createChangeLogTable = """
+            CREATE TABLE IF NOT EXISTS ArticleChangeLog (
+                seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+                articleId INT NOT NULL,
+                op CHAR(1) NOT NULL,
+                changedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            );
+        """;
+
+        // SQL statement to create the BackupHistory table (each backup and its position in the journal)
+        String createBackupHistoryTable = """
+            CREATE TABLE IF NOT EXISTS BackupHistory (
+                id INT AUTO_INCREMENT PRIMARY KEY,
+                fileName VARCHAR(1024) NOT NULL,
+                kind VARCHAR(16) NOT NULL,
+                fromSeq BIGINT NOT NULL,
+                toSeq BIGINT NOT NULL,
+                createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            );
+        """;
+
         // Execute the SQL statements to create the tables
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
             stmt.execute(createArticlesTable);
+            stmt.execute(createArticleContentTable);
+            migrateArticleContent(conn);
+            addContentLevelColumn(conn);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_articles_content_level ON Articles(contentLevel)");
+            boolean backfillTerms = !tableExists(conn, "ARTICLEKEYWORDS");
+            stmt.execute(createArticleKeywordsTable);
+            stmt.execute(createArticleAuthorsTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_article_keywords_keyword ON ArticleKeywords(keyword, articleId)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_article_authors_author ON ArticleAuthors(author, articleId)");
+            if (backfillTerms) {
+                conn.setAutoCommit(false); // All or nothing, so a failed backfill is retried on the next start
+                insertArticleTerms(conn, "Articles");
+                conn.commit();
+            }
             stmt.execute(createGroupsTable);
             stmt.execute(createGroupUsersTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_group_users_username ON GroupUsers(username, groupId)");
             stmt.execute(createGroupArticlesTable);
+            stmt.execute(createChangeLogTable);
+            stmt.execute(createBackupHistoryTable);
+        }
+    }
+
+    // Moves the content columns of a database created before the header/content split into ArticleContent. Safe to
+    // rerun: rows are only copied while the old columns still exist, and copying skips rows that were already moved.
+    private static void migrateArticleContent(Connection conn) throws SQLException {
+        if (!columnExists(conn, "ARTICLES", "BODY")) return; // Already split
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("""
+                INSERT INTO ArticleContent (articleId, abstractText, body, references)
+                SELECT id, abstractText, body, references FROM Articles a
+                WHERE NOT EXISTS (SELECT 1 FROM ArticleContent c WHERE c.articleId = a.id)
+            """);
+            stmt.execute("ALTER TABLE Articles DROP COLUMN (abstractText, body, references)");
+        }
+    }
+
+    // Adds the contentLevel bitmask to a database created before it existed and computes it from the keywords
+    private static void addContentLevelColumn(Connection conn) throws SQLException {
+        if (columnExists(conn, "ARTICLES", "CONTENTLEVEL")) return; // Already there
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE Articles ADD COLUMN contentLevel INT DEFAULT 0 NOT NULL");
+
+            // Backfill in Java so that existing rows get exactly the mask new inserts get
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (ResultSet rs = stmt.executeQuery("SELECT id, keywords FROM Articles");
+                 PreparedStatement update = conn.prepareStatement("UPDATE Articles SET contentLevel = ? WHERE id = ?")) {
+                while (rs.next()) {
+                    int mask = ContentLevel.maskOf(rs.getString("keywords"));
+                    if (mask == 0) continue; // Already the default
+                    update.setInt(1, mask);
+                    update.setInt(2, rs.getInt("id"));
+                    update.addBatch();
+                }
+                update.executeBatch();
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, column);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    // Writes the keyword and author rows of every article in sourceTable (Articles or ArticlesStaging), as part
+    // of the caller's transaction. The rows must not exist yet.
+    private static void insertArticleTerms(Connection conn, String sourceTable) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement keywords = conn.prepareStatement(INSERT_KEYWORD_SQL);
+             PreparedStatement authors = conn.prepareStatement(INSERT_AUTHOR_SQL)) {
+            stmt.setFetchSize(1_000); // Stream the table instead of materializing it
+            int pending = 0;
+            try (ResultSet rs = stmt.executeQuery("SELECT id, keywords, authors FROM " + sourceTable)) {
+                while (rs.next()) {
+                    bindTerms(keywords, authors, rs.getInt("id"), rs.getString("keywords"), rs.getString("authors"));
+                    if (++pending == BACKUP_CHUNK_ROWS) {
+                        keywords.executeBatch();
+                        authors.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            keywords.executeBatch();
+            authors.executeBatch();
+        }
+    }
+
+    // Rebuilds the search and ID indexes from the Articles table in one pass. The new indexes are built off to
+    // the side and swapped in, so searches keep using the old ones until the rebuild is complete.
+    private void rebuildArticleIndexes() throws SQLException {
+        String sql = "SELECT a.id, a.title, a.authors, c.abstractText, a.keywords FROM Articles a LEFT JOIN ArticleContent c ON c.articleId = a.id ORDER BY a.id";
+        ArticleSearchIndex newSearchIndex = new ArticleSearchIndex();
+        ArticleIdIndex newArticleIds = new ArticleIdIndex();
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(1_000); // Stream the table instead of materializing it
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    newArticleIds.add(rs.getInt("id"));
+                    newSearchIndex.add(new ArticleSearchIndex.IndexedArticle(rs.getInt("id"), rs.getString("title"),
+                            rs.getString("authors"), rs.getString("abstractText"), rs.getString("keywords")));
+                }
+            }
+        }
+        searchIndex = newSearchIndex;
+        articleIds = newArticleIds;
+        loadGroups();
+    }
+
+    // Builds the group directory and the visibility index from the group tables; three scans, no joins
+    private void loadGroups() throws SQLException {
+        ArticleVisibilityIndex index = new ArticleVisibilityIndex();
+        GroupDirectory directory = new GroupDirectory();
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT groupId, groupName, groupType FROM SpecialAccessGroups")) {
+                while (rs.next()) {
+                    directory.put(rs.getString("groupId"), rs.getString("groupName"));
+                    index.addGroup(rs.getString("groupId"), "Special".equals(rs.getString("groupType")));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT groupId, username, canView FROM GroupUsers")) {
+                while (rs.next()) index.addMember(rs.getString("groupId"), rs.getString("username"), rs.getBoolean("canView"));
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT groupId, articleId FROM GroupArticles ORDER BY articleId")) {
+                while (rs.next()) index.addArticle(rs.getString("groupId"), rs.getInt("articleId"));
+            }
         }
+        groupDirectory = directory;
+        visibility = index;
+    }
+
+    // Exposes the visibility index metrics (groups, members, restricted articles)
+    public ArticleVisibilityIndex getVisibilityIndex() {
+        return visibility;
+    }
+
+    // Exposes the group directory metrics (groups, lookups)
+    public GroupDirectory getGroupDirectory() {
+        return groupDirectory;
     }
 
     // Encrypts content using Base64 encoding
@@ -102,36 +359,277 @@ public class DatabaseHelper {
 
     // Adds an article to the Articles table
     public void addArticle(String title, String authors, String abstractText, String keywords, String body, String references, boolean isEncrypted) throws SQLException {
-        String sql = "INSERT INTO Articles (title, authors, abstractText, keywords, body, references, isEncrypted) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, title);
-            pstmt.setString(2, authors);
-            pstmt.setString(3, abstractText);
-            pstmt.setString(4, keywords);
-            pstmt.setString(5, body);
-            pstmt.setString(6, references);
-            pstmt.setBoolean(7, isEncrypted);
-            pstmt.executeUpdate(); // Execute the insert statement
+        try (Connection conn = pool.getConnection(); ArticleInserts inserts = new ArticleInserts(conn)) {
+            conn.setAutoCommit(false); // The header, its content, keywords, authors and journal entry are written together
+            Article article = new Article(title, authors, abstractText, keywords, body, references, isEncrypted);
+            bindArticle(inserts.headers, article);
+            inserts.headers.executeUpdate(); // Execute the insert statement
+            try (ResultSet keys = inserts.headers.getGeneratedKeys()) {
+                keys.next();
+                int articleId = keys.getInt(1);
+                inserts.addDependents(articleId, article);
+                inserts.executeDependents();
+                journalChanges(conn, List.of(articleId), CHANGE_INSERT);
+                conn.commit();
+                indexInsertedArticle(articleId, title, authors, abstractText, keywords);
+            }
+        }
+    }
+
+    private static final String INSERT_ARTICLE_SQL = "INSERT INTO Articles (title, authors, keywords, contentLevel, isEncrypted) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_CONTENT_SQL = "INSERT INTO ArticleContent (articleId, abstractText, body, references) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_KEYWORD_SQL = "INSERT INTO ArticleKeywords (articleId, keyword) VALUES (?, ?)";
+    private static final String INSERT_AUTHOR_SQL = "INSERT INTO ArticleAuthors (articleId, author) VALUES (?, ?)";
+
+    // The statements writing one or more articles: headers one by one or batched (for their generated IDs), then
+    // the rows hanging off each header (content, keywords, authors) as batches
+    private static final class ArticleInserts implements AutoCloseable {
+        private final PreparedStatement headers, contents, keywords, authors;
+
+        ArticleInserts(Connection conn) throws SQLException {
+            headers = conn.prepareStatement(INSERT_ARTICLE_SQL, Statement.RETURN_GENERATED_KEYS);
+            contents = conn.prepareStatement(INSERT_CONTENT_SQL);
+            keywords = conn.prepareStatement(INSERT_KEYWORD_SQL);
+            authors = conn.prepareStatement(INSERT_AUTHOR_SQL);
+        }
+
+        // Queues the content, keyword and author rows of an inserted header
+        void addDependents(int articleId, Article article) throws SQLException {
+            bindContent(contents, articleId, article);
+            contents.addBatch();
+            bindTerms(keywords, authors, articleId, article.getKeywords(), article.getAuthors());
         }
+
+        void executeDependents() throws SQLException {
+            contents.executeBatch();
+            keywords.executeBatch();
+            authors.executeBatch();
+        }
+
+        void clearBatches() throws SQLException {
+            headers.clearBatch();
+            contents.clearBatch();
+            keywords.clearBatch();
+            authors.clearBatch();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            headers.close();
+            contents.close();
+            keywords.close();
+            authors.close();
+        }
+    }
+
+    // Queues one row per normalized keyword and author of an article
+    private static void bindTerms(PreparedStatement keywords, PreparedStatement authors, int articleId, String keywordList,
+            String authorList) throws SQLException {
+        for (String keyword : Tokenizer.splitList(keywordList)) {
+            keywords.setInt(1, articleId);
+            keywords.setString(2, keyword);
+            keywords.addBatch();
+        }
+        for (String author : Tokenizer.splitList(authorList)) {
+            authors.setInt(1, articleId);
+            authors.setString(2, author);
+            authors.addBatch();
+        }
+    }
+
+    // Records inserted or deleted article IDs in the change journal, as part of the caller's transaction
+    private static void journalChanges(Connection conn, Collection<Integer> articleIds, String op) throws SQLException {
+        String sql = "INSERT INTO ArticleChangeLog (articleId, op) VALUES (?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int articleId : articleIds) {
+                pstmt.setInt(1, articleId);
+                pstmt.setString(2, op);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    // Makes a newly inserted article listable and searchable right away
+    private void indexInsertedArticle(int id, String title, String authors, String abstractText, String keywords) {
+        articleCache.invalidate(id); // An ID reused after a restore must not show the old article
+        articleIds.add(id);
+        searchIndex.add(new ArticleSearchIndex.IndexedArticle(id, title, authors, abstractText, keywords));
+    }
+
+    // Imports a stream of articles with JDBC batching; see importArticles(Iterator, int, int)
+    public BulkImportResult importArticles(Stream<Article> articles, int batchSize, int commitInterval) throws SQLException {
+        return importArticles(articles.iterator(), batchSize, commitInterval);
+    }
+
+    // Imports articles in batches of batchSize, committing every commitInterval rows (one transaction if it is
+    // larger than the input). Invalid or failing rows are reported in the result instead of aborting the import.
+    public BulkImportResult importArticles(Iterator<Article> articles, int batchSize, int commitInterval) throws SQLException {
+        if (batchSize < 1 || commitInterval < 1) throw new IllegalArgumentException("Batch size and commit interval must be positive.");
+        BulkImportResult result = new BulkImportResult();
+        long start = System.nanoTime();
+
+        try (Connection conn = pool.getConnection(); ArticleInserts inserts = new ArticleInserts(conn)) {
+            conn.setAutoCommit(false);
+            Map<Integer, Article> uncommitted = new LinkedHashMap<>(); // Indexed only once their transaction commits
+            List<Article> batch = new ArrayList<>(batchSize);
+            List<Integer> batchRows = new ArrayList<>(batchSize);
+            int rowIndex = 0, sinceCommit = 0;
+
+            while (articles.hasNext()) {
+                Article article = articles.next();
+                int row = rowIndex++;
+                if (article == null || article.getTitle() == null || article.getTitle().isBlank()) {
+                    result.addError(row, "Title is required.");
+                    continue;
+                }
+                batch.add(article);
+                batchRows.add(row);
+                if (batch.size() == batchSize) {
+                    sinceCommit += flushImportBatch(conn, inserts, batch, batchRows, uncommitted, result);
+                    if (sinceCommit >= commitInterval) {
+                        commitImport(conn, uncommitted);
+                        sinceCommit = 0;
+                    }
+                }
+            }
+            flushImportBatch(conn, inserts, batch, batchRows, uncommitted, result);
+            commitImport(conn, uncommitted);
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    // Executes one batch of headers and then the batches of their contents, keywords and authors; if the driver
+    // rejects any of them, replays the batch row by row to find the offending rows
+    private int flushImportBatch(Connection conn, ArticleInserts inserts, List<Article> batch, List<Integer> batchRows,
+            Map<Integer, Article> uncommitted, BulkImportResult result) throws SQLException {
+        if (batch.isEmpty()) return 0;
+        int inserted = 0;
+        Savepoint batchStart = conn.setSavepoint();
+        try {
+            for (Article article : batch) {
+                bindArticle(inserts.headers, article);
+                inserts.headers.addBatch();
+            }
+            inserts.headers.executeBatch();
+            int[] ids = new int[batch.size()];
+            try (ResultSet keys = inserts.headers.getGeneratedKeys()) {
+                for (int i = 0; i < ids.length; i++) {
+                    if (!keys.next()) throw new SQLException("Missing generated key for imported article.");
+                    ids[i] = keys.getInt(1);
+                    inserts.addDependents(ids[i], batch.get(i));
+                }
+            }
+            inserts.executeDependents();
+            for (int i = 0; i < ids.length; i++) { // Only count the rows once both halves are in
+                uncommitted.put(ids[i], batch.get(i));
+                result.addGeneratedId(ids[i]);
+                inserted++;
+            }
+        } catch (BatchUpdateException e) {
+            inserts.clearBatches();
+            conn.rollback(batchStart); // Undo whatever part of the batch went through
+            for (int i = 0; i < batch.size(); i++) {
+                Savepoint rowStart = conn.setSavepoint();
+                try {
+                    bindArticle(inserts.headers, batch.get(i));
+                    inserts.headers.executeUpdate();
+                    try (ResultSet keys = inserts.headers.getGeneratedKeys()) {
+                        keys.next();
+                        int articleId = keys.getInt(1);
+                        inserts.addDependents(articleId, batch.get(i));
+                        inserts.executeDependents();
+                        uncommitted.put(articleId, batch.get(i));
+                        result.addGeneratedId(articleId);
+                        inserted++;
+                    }
+                } catch (SQLException rowError) {
+                    inserts.clearBatches();
+                    conn.rollback(rowStart);
+                    result.addError(batchRows.get(i), rowError.getMessage());
+                }
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+        return inserted;
+    }
+
+    // Binds the header columns of INSERT_ARTICLE_SQL
+    private static void bindArticle(PreparedStatement pstmt, Article article) throws SQLException {
+        pstmt.setString(1, article.getTitle());
+        pstmt.setString(2, article.getAuthors());
+        pstmt.setString(3, article.getKeywords());
+        pstmt.setInt(4, ContentLevel.maskOf(article.getKeywords()));
+        pstmt.setBoolean(5, article.isEncrypted());
+    }
+
+    // Binds the content columns of INSERT_CONTENT_SQL
+    private static void bindContent(PreparedStatement pstmt, int articleId, Article article) throws SQLException {
+        pstmt.setInt(1, articleId);
+        pstmt.setString(2, article.getAbstractText());
+        pstmt.setString(3, article.getBody());
+        pstmt.setString(4, article.getReferences());
+    }
+
+    // Commits the import so far and only then publishes the committed rows to the in-memory indexes
+    private void commitImport(Connection conn, Map<Integer, Article> uncommitted) throws SQLException {
+        journalChanges(conn, uncommitted.keySet(), CHANGE_INSERT);
+        conn.commit();
+        uncommitted.forEach((id, article) -> indexInsertedArticle(id, article.getTitle(), article.getAuthors(),
+                article.getAbstractText(), article.getKeywords()));
+        uncommitted.clear();
     }
 
     // Retrieves a list of articles with their basic information (ID, title, authors)
     public List<String> listArticles() throws SQLException {
         String sql = "SELECT id, title, authors FROM Articles ORDER BY id";
         List<String> articles = new ArrayList<>();
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            int displayId = 1; // Display ID for user-facing output
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                articles.add("ID: " + displayId++ + ", Title: " + rs.getString("title") + ", Authors: " + rs.getString("authors"));
+                int displayId = articleIds.rank(rs.getInt("id")); // Display ID for user-facing output
+                articles.add("ID: " + displayId + ", Title: " + rs.getString("title") + ", Authors: " + rs.getString("authors"));
             }
         }
         return articles;
     }
+
+    // Retrieves one page of articles after the given database ID (0 for the first page), using keyset pagination
+    public ArticlePage listArticles(int afterId, int limit) throws SQLException {
+        if (limit < 1) throw new IllegalArgumentException("Page size must be at least 1.");
+        String sql = "SELECT id, title, authors FROM Articles WHERE id > ? ORDER BY id LIMIT ?"; // Seeks on the primary key
+        List<String> articles = new ArrayList<>();
+        int lastId = afterId;
+        boolean hasMore = false;
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit + 1); // One extra row tells us whether another page exists
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (articles.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    lastId = rs.getInt("id");
+                    int displayId = articleIds.rank(lastId); // Display ID for user-facing output
+                    articles.add("ID: " + displayId + ", Title: " + rs.getString("title") + ", Authors: " + rs.getString("authors"));
+                }
+            }
+        }
+        return new ArticlePage(articles, lastId, hasMore);
+    }
+
+    // Opens a cursor that streams every article in ID order, reading pageSize rows at a time
+    public ArticleCursor openArticleCursor(int pageSize) {
+        return new ArticleCursor(this, pageSize);
+    }
     
     public List<String> getAdminAccounts() throws SQLException {
         String sql = "SELECT username FROM AccessRights WHERE canAdmin = TRUE";
         List<String> admins = new ArrayList<>();
-        try (PreparedStatement pstmt = connection.prepareStatement(sql);
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 admins.add(rs.getString("username"));
@@ -142,10 +640,18 @@ public class DatabaseHelper {
 
     // Retrieves detailed information about an article by its ID
     public String viewArticle(int articleId) throws SQLException {
-        String sql = "SELECT * FROM Articles WHERE id = ?";
+        String cached = articleCache.get(articleId);
+        if (cached != null) return cached;
+
+        String sql = """
+            SELECT a.title, a.authors, a.keywords, a.isEncrypted, c.abstractText, c.body, c.references
+            FROM Articles a LEFT JOIN ArticleContent c ON c.articleId = a.id
+            WHERE a.id = ?
+        """;
         StringBuilder articleDetails = new StringBuilder();
+        long stamp = articleCache.stamp(); // Taken before reading, so a concurrent write prevents caching a stale row
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, articleId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -164,79 +670,488 @@ public class DatabaseHelper {
                 }
             }
         }
-        return articleDetails.toString();
+        String details = articleDetails.toString();
+        articleCache.put(articleId, details, stamp);
+        return details;
     }
 
     // Deletes an article by its display ID
     public void deleteArticle(int displayId) throws SQLException {
-        int articleId = getDatabaseIdForDisplayId(displayId); // Map display ID to database ID
+        try (Connection conn = pool.getConnection()) {
+            int articleId = getDatabaseIdForDisplayId(displayId); // Map display ID to database ID
+            conn.setAutoCommit(false); // Remove group links and the article together
 
-        // Delete the article from GroupArticles table
-        String deleteFromGroupArticlesSQL = "DELETE FROM GroupArticles WHERE articleId = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(deleteFromGroupArticlesSQL)) {
-            pstmt.setInt(1, articleId);
-            pstmt.executeUpdate(); // Execute the delete statement
-        }
+            // Delete the article from GroupArticles table
+            String deleteFromGroupArticlesSQL = "DELETE FROM GroupArticles WHERE articleId = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(deleteFromGroupArticlesSQL)) {
+                pstmt.setInt(1, articleId);
+                pstmt.executeUpdate(); // Execute the delete statement
+            }
 
-        // Delete the article from Articles table
-        String deleteFromArticlesSQL = "DELETE FROM Articles WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(deleteFromArticlesSQL)) {
-            pstmt.setInt(1, articleId);
-            pstmt.executeUpdate(); // Execute the delete statement
+            // Delete the article from Articles table
+            String deleteFromArticlesSQL = "DELETE FROM Articles WHERE id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(deleteFromArticlesSQL)) {
+                pstmt.setInt(1, articleId);
+                pstmt.executeUpdate(); // Execute the delete statement
+            }
+            journalChanges(conn, List.of(articleId), CHANGE_DELETE);
+            conn.commit();
+            articleIds.remove(articleId); // Only drop it from the indexes once the delete is durable
+            searchIndex.remove(articleId);
+            visibility.removeArticle(articleId);
+            articleCache.invalidate(articleId);
         }
     }
 
     private int getDatabaseIdForDisplayId(int displayId) throws SQLException {
-        // Retrieves the database ID corresponding to the user-facing display ID
-        String sql = "SELECT id FROM Articles ORDER BY id";
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            int currentDisplayId = 1;
+        // Retrieves the database ID corresponding to the user-facing display ID from the ID index
+        int articleId = articleIds.select(displayId);
+        if (articleId < 0) throw new SQLException("Invalid display ID: " + displayId); // Throw exception if no match is found
+        return articleId;
+    }
+
+    public void backupArticles(String backupFileName) throws SQLException {
+        // Creates a compressed backup of the Articles table to the specified file
+        backupArticles(backupFileName, null);
+    }
+
+    // Streams the Articles table into a chunked, compressed full backup file, checkpointing every BACKUP_CHUNK_ROWS
+    // rows. The file only appears under its final name once complete; cancelling through the progress callback
+    // throws a CancellationException and leaves no file behind. Returns the number of rows written.
+    public long backupArticles(String backupFileName, ArticleBackup.Progress progress) throws SQLException {
+        return writeBackup(backupFileName, progress, false);
+    }
+
+    // Writes only the articles inserted or deleted since the last full or incremental backup. Fails if there is no
+    // earlier backup to build on (or the database was restored since). Returns the number of records written.
+    public long backupArticlesIncremental(String backupFileName, ArticleBackup.Progress progress) throws SQLException {
+        return writeBackup(backupFileName, progress, true);
+    }
+
+    private long writeBackup(String backupFileName, ArticleBackup.Progress progress, boolean incremental) throws SQLException {
+        Path target = Paths.get(backupFileName);
+        Path partial = Paths.get(backupFileName + ".part");
+
+        try (Connection conn = pool.getConnection()) {
+            int isolation = conn.getTransactionIsolation();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ); // One consistent snapshot across all pages
+            try {
+                long fromSeq = 0;
+                if (incremental) {
+                    fromSeq = getLastBackupSeq(conn);
+                    if (fromSeq < 0) throw new SQLException("There is no earlier backup to build on; run a full backup first.");
+                }
+                long toSeq = getCurrentChangeSeq(conn);
+                long[] consumed = readJournalSeqs(conn); // The journal entries this snapshot sees
+
+                long written;
+                try (ArticleBackup.Writer writer = new ArticleBackup.Writer(Files.newOutputStream(partial), BACKUP_CHUNK_ROWS,
+                        incremental ? ArticleBackup.KIND_DELTA : ArticleBackup.KIND_FULL, fromSeq, toSeq)) {
+                    written = incremental ? writeDeltaRecords(conn, writer, progress) : writeFullRecords(conn, writer, progress);
+                    writer.finish();
+                }
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+
+                // Record the backup and drop the journal entries it covers in the snapshot transaction itself, so only the
+                // entries the snapshot read are removed. Changes committed after the snapshot was taken keep their entries,
+                // whatever their seq, and go into the next incremental backup.
+                String sql = "INSERT INTO BackupHistory (fileName, kind, fromSeq, toSeq) VALUES (?, ?, ?, ?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, target.toAbsolutePath().toString());
+                    pstmt.setString(2, incremental ? BACKUP_DELTA : BACKUP_FULL);
+                    pstmt.setLong(3, fromSeq);
+                    pstmt.setLong(4, toSeq);
+                    pstmt.executeUpdate();
+                }
+                deleteJournalEntries(conn, consumed);
+                conn.commit();
+                return written;
+            } finally {
+                // Also on failure or cancellation, so the connection goes back to the pool at its own level; the
+                // rollback is a no-op after the commit and otherwise ends the snapshot before the level changes
+                conn.rollback();
+                conn.setTransactionIsolation(isolation);
+            }
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new SQLException("Error writing backup: " + e.getMessage(), e);
+        } catch (SQLException | RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+    }
+
+    // Writes every article, one keyset page per chunk so memory stays flat
+    private long writeFullRecords(Connection conn, ArticleBackup.Writer writer, ArticleBackup.Progress progress)
+            throws SQLException, IOException {
+        String sql = """
+            SELECT a.id, a.title, a.authors, c.abstractText, a.keywords, c.body, c.references, a.isEncrypted
+            FROM Articles a LEFT JOIN ArticleContent c ON c.articleId = a.id
+            WHERE a.id > ? ORDER BY a.id LIMIT ?
+        """;
+        long totalRows = countArticles(conn);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int lastId = 0, rowsInPage;
+            do {
+                checkCancelled(progress);
+                pstmt.setInt(1, lastId);
+                pstmt.setInt(2, BACKUP_CHUNK_ROWS);
+                rowsInPage = 0;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getInt("id");
+                        writer.write(lastId, readArticle(rs));
+                        rowsInPage++;
+                    }
+                }
+                if (progress != null) progress.onProgress(writer.getTotalRows(), totalRows);
+            } while (rowsInPage == BACKUP_CHUNK_ROWS);
+        }
+        return writer.getTotalRows();
+    }
+
+    // Writes the net effect of the journal entries not yet covered by a backup: the current row of every changed
+    // article that still exists, and a deletion record for every changed article that does not
+    private long writeDeltaRecords(Connection conn, ArticleBackup.Writer writer, ArticleBackup.Progress progress)
+            throws SQLException, IOException {
+        String sql = """
+            SELECT j.articleId, a.id, a.title, a.authors, c.abstractText, a.keywords, c.body, c.references, a.isEncrypted
+            FROM (SELECT DISTINCT articleId FROM ArticleChangeLog) j
+            LEFT JOIN Articles a ON a.id = j.articleId
+            LEFT JOIN ArticleContent c ON c.articleId = a.id
+            ORDER BY j.articleId
+        """;
+        long totalRecords;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(DISTINCT articleId) FROM ArticleChangeLog")) {
+            totalRecords = rs.next() ? rs.getLong(1) : 0;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int articleId = rs.getInt("articleId");
+                    boolean deleted = rs.getObject("id") == null; // No matching row left in Articles
+                    boolean checkpoint = deleted ? writer.writeDeletion(articleId) : writer.write(articleId, readArticle(rs));
+                    if (checkpoint) {
+                        if (progress != null) progress.onProgress(writer.getTotalRows(), totalRecords);
+                        checkCancelled(progress);
+                    }
+                }
+            }
+        }
+        if (progress != null) progress.onProgress(writer.getTotalRows(), totalRecords);
+        return writer.getTotalRows();
+    }
+
+    // Journal position covered by the most recent backup, or -1 if an incremental backup has nothing to build on
+    private static long getLastBackupSeq(Connection conn) throws SQLException {
+        String sql = "SELECT kind, toSeq FROM BackupHistory ORDER BY id DESC LIMIT 1";
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            if (!rs.next() || BACKUP_RESTORE.equals(rs.getString("kind"))) return -1;
+            return rs.getLong("toSeq");
+        }
+    }
+
+    // High-water mark of the journal. Backups prune the journal, so MAX(seq) alone could fall back below a position an
+    // earlier backup already recorded; BackupHistory keeps the highest one durably and the mark never goes backwards.
+    private static long getCurrentChangeSeq(Connection conn) throws SQLException {
+        String sql = """
+            SELECT GREATEST(COALESCE((SELECT MAX(seq) FROM ArticleChangeLog), 0),
+                            COALESCE((SELECT MAX(toSeq) FROM BackupHistory), 0))
+        """;
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Seqs of the journal entries visible to the connection's transaction
+    private static long[] readJournalSeqs(Connection conn) throws SQLException {
+        long[] seqs = new long[64];
+        int count = 0;
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT seq FROM ArticleChangeLog")) {
             while (rs.next()) {
-                if (currentDisplayId++ == displayId) return rs.getInt("id"); // Match display ID with database ID
+                if (count == seqs.length) seqs = Arrays.copyOf(seqs, count * 2);
+                seqs[count++] = rs.getLong(1);
             }
         }
-        throw new SQLException("Invalid display ID: " + displayId); // Throw exception if no match is found
+        return Arrays.copyOf(seqs, count);
     }
 
-    public void backupArticles(String backupFileName) throws SQLException {
-        // Creates a backup of the Articles table to the specified file
-        String backupSQL = String.format("SCRIPT TO '%s'", backupFileName);
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(backupSQL); // Execute the backup command
+    private static void deleteJournalEntries(Connection conn, long[] seqs) throws SQLException {
+        if (seqs.length == 0) return;
+        Long[] boxed = Arrays.stream(seqs).boxed().toArray(Long[]::new);
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM ArticleChangeLog WHERE seq = ANY(?)")) {
+            pstmt.setArray(1, conn.createArrayOf("BIGINT", boxed));
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void checkCancelled(ArticleBackup.Progress progress) {
+        if (progress != null && progress.isCancelled()) throw new CancellationException("Backup cancelled.");
+    }
+
+    private static int countArticles(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM Articles")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static Article readArticle(ResultSet rs) throws SQLException {
+        return new Article(rs.getString("title"), rs.getString("authors"), rs.getString("abstractText"), rs.getString("keywords"),
+                rs.getString("body"), rs.getString("references"), rs.getBoolean("isEncrypted"));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Best effort cleanup of a partial file
         }
     }
 
     public void restoreArticles(String backupFileName) throws SQLException {
-        // Restores the Articles table from the specified backup file
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute("DROP TABLE IF EXISTS Articles"); // Drop existing table if it exists
-            stmt.execute(String.format("RUNSCRIPT FROM '%s'", backupFileName)); // Restore from backup
+        // Restores the Articles table from the specified backup file (binary backup or legacy SQL script)
+        boolean binary;
+        try {
+            binary = ArticleBackup.isBinaryBackup(new File(backupFileName));
+        } catch (IOException e) {
+            throw new SQLException("Error reading backup: " + e.getMessage(), e);
+        }
+        if (binary) {
+            restoreArticles(backupFileName, List.of());
+        } else {
+            restoreFromSqlScript(backupFileName);
+        }
+    }
+
+    // Restores a full backup followed by a chain of incremental backups (oldest first). The files are decoded in
+    // parallel into a staging table; the live Articles table keeps serving readers until the validated staging
+    // contents are swapped in by a single transaction. A broken chain or corrupt file changes nothing.
+    public void restoreArticles(String fullBackupFileName, List<String> deltaFileNames) throws SQLException {
+        synchronized (restoreLock) { // There is only one staging table
+            prepareStagingTable();
+            BitSet liveIds = new BitSet(); // Articles present after applying the chain so far
+            ExecutorService decoders = Executors.newFixedThreadPool(RESTORE_THREADS);
+            long chainSeq;
+            try {
+                chainSeq = loadIntoStaging(fullBackupFileName, ArticleBackup.KIND_FULL, 0, decoders, liveIds);
+                for (String deltaFileName : deltaFileNames) {
+                    chainSeq = loadIntoStaging(deltaFileName, ArticleBackup.KIND_DELTA, chainSeq, decoders, liveIds);
+                }
+            } finally {
+                decoders.shutdownNow();
+            }
+            swapInStagingTable(liveIds.cardinality(), chainSeq, fullBackupFileName);
+        }
+    }
+
+    // Loads a legacy SCRIPT dump into a private in-memory database and stages its Articles rows from there,
+    // so that old backups no longer require dropping the live table
+    private void restoreFromSqlScript(String backupFileName) throws SQLException {
+        synchronized (restoreLock) {
+            prepareStagingTable();
+            int stagedRows = 0;
+            try (Connection scratch = DriverManager.getConnection("jdbc:h2:mem:", "sa", "");
+                 Statement script = scratch.createStatement()) {
+                script.execute(String.format("RUNSCRIPT FROM '%s'", backupFileName)); // Restore from backup, off to the side
+                String sql = "SELECT id, title, authors, abstractText, keywords, body, references, isEncrypted FROM Articles"; // Script dumps predate the content split
+                try (ResultSet rs = script.executeQuery(sql)) {
+                    List<ArticleBackup.Entry> batch = new ArrayList<>(BACKUP_CHUNK_ROWS);
+                    while (rs.next()) {
+                        batch.add(new ArticleBackup.Entry(rs.getInt("id"), readArticle(rs)));
+                        if (batch.size() == BACKUP_CHUNK_ROWS) {
+                            stageEntries(batch);
+                            stagedRows += batch.size();
+                            batch.clear();
+                        }
+                    }
+                    stageEntries(batch);
+                    stagedRows += batch.size();
+                }
+            }
+            swapInStagingTable(stagedRows, 0, backupFileName);
+        }
+    }
+
+    // Recreates the staging table empty, with the current column layout. Nothing but a restore ever reads it.
+    private void prepareStagingTable() throws SQLException {
+        String createStagingTable = """
+            CREATE TABLE ArticlesStaging (
+                id INT PRIMARY KEY,
+                title VARCHAR(255) NOT NULL,
+                authors VARCHAR(255),
+                abstractText TEXT,
+                keywords VARCHAR(255),
+                contentLevel INT DEFAULT 0 NOT NULL,
+                body TEXT,
+                references TEXT,
+                isEncrypted BOOLEAN DEFAULT FALSE
+            );
+        """;
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS ArticlesStaging");
+            stmt.execute(createStagingTable);
+        }
+    }
+
+    // Reads one backup file and decodes and stages its chunks in parallel. Chunks within one file never share an
+    // article ID, so they can be applied in any order; files are applied one after the other.
+    private long loadIntoStaging(String fileName, byte expectedKind, long expectedFromSeq, ExecutorService decoders,
+            BitSet liveIds) throws SQLException {
+        try (ArticleBackup.Reader reader = new ArticleBackup.Reader(Files.newInputStream(Paths.get(fileName)))) {
+            if (reader.getKind() != expectedKind) {
+                throw new SQLException(expectedKind == ArticleBackup.KIND_FULL
+                        ? fileName + " is an incremental backup; restore it on top of a full backup."
+                        : fileName + " is not an incremental backup.");
+            }
+            if (expectedKind == ArticleBackup.KIND_DELTA && reader.getFromSeq() != expectedFromSeq) {
+                throw new SQLException("Backup chain is broken: " + fileName + " starts at change " + reader.getFromSeq()
+                        + " but the previous backup ends at change " + expectedFromSeq + ".");
+            }
+
+            Semaphore inFlight = new Semaphore(RESTORE_THREADS * 2); // Bounds the compressed chunks held in memory
+            List<Future<?>> staged = new ArrayList<>();
+            ArticleBackup.Chunk chunk;
+            while ((chunk = reader.nextChunk()) != null) { // Also validates the file's declared row count
+                inFlight.acquireUninterruptibly();
+                ArticleBackup.Chunk next = chunk;
+                staged.add(decoders.submit(() -> {
+                    try {
+                        List<ArticleBackup.Entry> entries = next.decode(); // Verifies the chunk checksum
+                        stageEntries(entries);
+                        synchronized (liveIds) {
+                            for (ArticleBackup.Entry entry : entries) liveIds.set(entry.getId(), !entry.isDeletion());
+                        }
+                        return null;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> future : staged) future.get();
+            return reader.getToSeq();
+        } catch (IOException e) {
+            throw new SQLException("Error reading backup: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Restore interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) throw sqlException;
+            throw new SQLException("Error reading backup: " + cause.getMessage(), cause);
+        }
+    }
+
+    // Upserts and deletes one decoded chunk in the staging table as a single batch
+    private void stageEntries(List<ArticleBackup.Entry> entries) throws SQLException {
+        String mergeSQL = "MERGE INTO ArticlesStaging (id, title, authors, abstractText, keywords, contentLevel, body, references, isEncrypted) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = pool.getConnection();
+             PreparedStatement upserts = conn.prepareStatement(mergeSQL);
+             PreparedStatement deletes = conn.prepareStatement("DELETE FROM ArticlesStaging WHERE id = ?")) {
+            conn.setAutoCommit(false);
+            for (ArticleBackup.Entry entry : entries) {
+                if (entry.isDeletion()) {
+                    deletes.setInt(1, entry.getId());
+                    deletes.addBatch();
+                    continue;
+                }
+                Article article = entry.getArticle();
+                upserts.setInt(1, entry.getId());
+                upserts.setString(2, article.getTitle());
+                upserts.setString(3, article.getAuthors());
+                upserts.setString(4, article.getAbstractText());
+                upserts.setString(5, article.getKeywords());
+                upserts.setInt(6, ContentLevel.maskOf(article.getKeywords()));
+                upserts.setString(7, article.getBody());
+                upserts.setString(8, article.getReferences());
+                upserts.setBoolean(9, article.isEncrypted());
+                upserts.addBatch();
+            }
+            upserts.executeBatch();
+            deletes.executeBatch();
+            conn.commit();
+        }
+    }
+
+    // Validates the staged rows and makes them the live contents of Articles in one transaction. Concurrent
+    // readers see the old rows until the commit and the new rows after it, never a partial or missing table.
+    private void swapInStagingTable(int expectedRows, long chainSeq, String backupFileName) throws SQLException {
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM ArticlesStaging")) {
+                int stagedRows = rs.next() ? rs.getInt(1) : 0;
+                if (stagedRows != expectedRows) {
+                    throw new SQLException("Restore validation failed: staged " + stagedRows + " articles, expected " + expectedRows + ".");
+                }
+            }
+
+            conn.setAutoCommit(false);
+            stmt.executeUpdate("DELETE FROM GroupArticles ga WHERE NOT EXISTS (SELECT 1 FROM ArticlesStaging s WHERE s.id = ga.articleId)");
+            stmt.executeUpdate("DELETE FROM Articles a WHERE NOT EXISTS (SELECT 1 FROM ArticlesStaging s WHERE s.id = a.id)"); // Content cascades
+            stmt.executeUpdate("""
+                MERGE INTO Articles (id, title, authors, keywords, contentLevel, isEncrypted) KEY (id)
+                SELECT id, title, authors, keywords, contentLevel, isEncrypted FROM ArticlesStaging
+            """);
+            stmt.executeUpdate("""
+                MERGE INTO ArticleContent (articleId, abstractText, body, references) KEY (articleId)
+                SELECT id, abstractText, body, references FROM ArticlesStaging
+            """);
+            stmt.executeUpdate("DELETE FROM ArticleKeywords WHERE articleId IN (SELECT id FROM ArticlesStaging)");
+            stmt.executeUpdate("DELETE FROM ArticleAuthors WHERE articleId IN (SELECT id FROM ArticlesStaging)");
+            insertArticleTerms(conn, "ArticlesStaging");
+
+            // Journal entries describe the replaced contents, so the next incremental backup needs a new full backup
+            stmt.executeUpdate("DELETE FROM ArticleChangeLog");
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO BackupHistory (fileName, kind, fromSeq, toSeq) VALUES (?, ?, 0, ?)")) {
+                pstmt.setString(1, Paths.get(backupFileName).toAbsolutePath().toString());
+                pstmt.setString(2, BACKUP_RESTORE);
+                pstmt.setLong(3, chainSeq);
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+
+            // New articles continue after the highest restored ID; the staging copy is no longer needed
+            conn.setAutoCommit(true);
+            int maxId;
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM Articles")) {
+                maxId = rs.next() ? rs.getInt(1) : 0;
+            }
+            stmt.execute("ALTER TABLE Articles ALTER COLUMN id RESTART WITH " + (maxId + 1));
+            stmt.execute("TRUNCATE TABLE ArticlesStaging");
         }
+        articleCache.clear(); // Any cached article may have been replaced
+        rebuildArticleIndexes(); // The whole table changed, so re-index it
     }
 
-    public void createGroup(String groupName, boolean isSpecialGroup) throws SQLException {
-        // Creates a new group in the SpecialAccessGroups table
+    public String createGroup(String groupName, boolean isSpecialGroup) throws SQLException {
+        // Creates a new group in the SpecialAccessGroups table and returns its ID
         String groupId = UUID.randomUUID().toString(); // Generate a unique group ID
         String groupType = isSpecialGroup ? "Special" : "General"; // Determine group type
         String sql = "INSERT INTO SpecialAccessGroups (groupId, groupName, groupType) VALUES (?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, groupId); // Set group ID
             pstmt.setString(2, groupName); // Set group name
             pstmt.setString(3, groupType); // Set group type
             pstmt.executeUpdate(); // Execute the insert statement
         }
+        groupDirectory.put(groupId, groupName);
+        visibility.addGroup(groupId, isSpecialGroup);
+        return groupId; // Callers need no second query to learn the ID
     }
 
     public String getGroupIdByName(String groupName) throws SQLException {
-        // Retrieves the group ID corresponding to the given group name
-        String sql = "SELECT groupId FROM SpecialAccessGroups WHERE groupName = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, groupName); // Set the group name parameter
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) return rs.getString("groupId"); // Return group ID if found
-            }
-        }
-        throw new SQLException("Group not found: " + groupName); // Throw exception if no match is found
+        // Retrieves the group ID corresponding to the given group name from the group directory
+        String groupId = groupDirectory.getId(groupName);
+        if (groupId == null) throw new SQLException("Group not found: " + groupName); // Throw exception if no match is found
+        return groupId;
+    }
+
+    public String getGroupNameById(String groupId) throws SQLException {
+        // Retrieves the name of the group with the given ID from the group directory
+        String groupName = groupDirectory.getName(groupId);
+        if (groupName == null) throw new SQLException("No group found with ID: " + groupId);
+        return groupName;
     }
 
     public void addUserToGroup(String groupId, String username, String role) throws SQLException {
@@ -245,7 +1160,7 @@ public class DatabaseHelper {
             MERGE INTO GroupUsers (groupId, username, role, canView, canAdmin)
             VALUES (?, ?, ?, ?, ?)
         """;
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, groupId); // Set group ID
             pstmt.setString(2, username); // Set username
             pstmt.setString(3, role); // Set user role
@@ -253,15 +1168,98 @@ public class DatabaseHelper {
             pstmt.setBoolean(5, role.equalsIgnoreCase("Instructor")); // Grant admin rights if role is Instructor
             pstmt.executeUpdate(); // Execute the merge statement
         }
+        visibility.addMember(groupId, username, true);
+        SessionManager.getInstance().refreshMemberships(username); // The user's sessions reload their groups
+    }
+
+    public int addUsersToGroup(String groupId, Collection<String> usernames, String role) throws SQLException {
+        // Adds many users to a group with the same role as one batched transaction; all are added or none
+        String sql = """
+            MERGE INTO GroupUsers (groupId, username, role, canView, canAdmin)
+            VALUES (?, ?, ?, ?, ?)
+        """;
+        Set<String> members = new LinkedHashSet<>(usernames); // Each user once
+        if (members.isEmpty()) return 0;
+        boolean canAdmin = role.equalsIgnoreCase("Instructor"); // Same rule as addUserToGroup
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (String username : members) {
+                pstmt.setString(1, groupId); // Set group ID
+                pstmt.setString(2, username); // Set username
+                pstmt.setString(3, role); // Set user role
+                pstmt.setBoolean(4, true); // Default to allowing view access
+                pstmt.setBoolean(5, canAdmin); // Grant admin rights if role is Instructor
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        }
+        for (String username : members) { // Only once the batch is durable
+            visibility.addMember(groupId, username, true);
+            SessionManager.getInstance().refreshMemberships(username);
+        }
+        return members.size();
     }
 
     public boolean deleteUserFromGroup(String groupId, String username) throws SQLException {
         // Deletes a user from a group in the GroupUsers table
+        return deleteUsersFromGroup(groupId, List.of(username)) > 0;
+    }
+
+    public int deleteUsersFromGroup(String groupId, Collection<String> usernames) throws SQLException {
+        // Deletes many users from a group as one batched transaction; returns how many were members
         String deleteSQL = "DELETE FROM GroupUsers WHERE groupId = ? AND username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(deleteSQL)) {
-            pstmt.setString(1, groupId); // Set group ID
-            pstmt.setString(2, username); // Set username
-            return pstmt.executeUpdate() > 0; // Return true if a row was deleted
+        List<String> members = new ArrayList<>(new LinkedHashSet<>(usernames));
+        if (members.isEmpty()) return 0;
+        int[] counts;
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(deleteSQL)) {
+            conn.setAutoCommit(false);
+            for (String username : members) {
+                pstmt.setString(1, groupId); // Set group ID
+                pstmt.setString(2, username); // Set username
+                pstmt.addBatch();
+            }
+            counts = pstmt.executeBatch();
+            conn.commit();
+        }
+        List<String> deleted = matchedMembers(members, counts);
+        for (String username : deleted) { // Only once the batch is durable
+            visibility.removeMember(groupId, username);
+            SessionManager.getInstance().refreshMemberships(username);
+        }
+        return deleted.size();
+    }
+
+    public Set<String> getGroupIdsForUser(String username) {
+        // Retrieves the IDs of the groups a user belongs to from the reverse membership map; O(groups of the user)
+        return visibility.getGroupIds(username);
+    }
+
+    public List<String> getGroupsForUser(String username) {
+        // Retrieves the names of the groups a user belongs to, in alphabetical order
+        return getGroupNames(visibility.getGroupIds(username));
+    }
+
+    public List<String> getGroupNames(Collection<String> groupIds) {
+        // Resolves group IDs to names through the group directory, in alphabetical order; unknown IDs are skipped
+        List<String> groupNames = new ArrayList<>();
+        for (String groupId : groupIds) {
+            String groupName = groupDirectory.getName(groupId);
+            if (groupName != null) groupNames.add(groupName);
+        }
+        Collections.sort(groupNames);
+        return groupNames;
+    }
+
+    public int deleteUserFromAllGroups(String username) throws SQLException {
+        // Removes a user from every group, when their account is deleted; served by the username index
+        String sql = "DELETE FROM GroupUsers WHERE username = ?";
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, username); // Set username
+            int removed = pstmt.executeUpdate(); // Number of groups the user was in
+            visibility.removeUser(username);
+            if (removed > 0) SessionManager.getInstance().refreshMemberships(username);
+            return removed;
         }
     }
 
@@ -269,7 +1267,7 @@ public class DatabaseHelper {
         // Retrieves a list of users in the specified group
         String sql = "SELECT username, role, canView, canAdmin FROM GroupUsers WHERE groupId = ?";
         List<Map<String, String>> users = new ArrayList<>();
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, groupId); // Set group ID
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -288,35 +1286,80 @@ public class DatabaseHelper {
     public void updateUserViewRights(String groupId, String username, boolean canView) throws SQLException {
         // Updates the view rights for a user in a group
         String sql = "UPDATE GroupUsers SET canView = ? WHERE groupId = ? AND username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setBoolean(1, canView); // Set the canView value
             pstmt.setString(2, groupId); // Set group ID
             pstmt.setString(3, username); // Set username
-            pstmt.executeUpdate(); // Execute the update statement
+            if (pstmt.executeUpdate() > 0) visibility.setCanView(groupId, username, canView);
         }
     }
 
+    public int updateUserViewRights(String groupId, Collection<String> usernames, boolean canView) throws SQLException {
+        // Updates the view rights of many users in a group as one batched transaction; returns how many were members
+        String sql = "UPDATE GroupUsers SET canView = ? WHERE groupId = ? AND username = ?";
+        List<String> members = new ArrayList<>(new LinkedHashSet<>(usernames));
+        if (members.isEmpty()) return 0;
+        int[] counts;
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (String username : members) {
+                pstmt.setBoolean(1, canView); // Set the canView value
+                pstmt.setString(2, groupId); // Set group ID
+                pstmt.setString(3, username); // Set username
+                pstmt.addBatch();
+            }
+            counts = pstmt.executeBatch();
+            conn.commit();
+        }
+        List<String> updated = matchedMembers(members, counts);
+        for (String username : updated) visibility.setCanView(groupId, username, canView); // Only once the batch is durable
+        return updated.size();
+    }
+
     public void updateUserAdminRights(String groupId, String username, boolean canAdmin) throws SQLException {
         // Updates the admin rights for a user in a group
-        int adminCount = countAdminsInGroup(groupId); // Count current admins in the group
-        if (!canAdmin && adminCount == 1) {
-            // Prevent removing admin rights if only one admin exists
-            throw new SQLException("There must be at least one admin in the group.");
-        }
+        updateUserAdminRights(groupId, List.of(username), canAdmin);
+    }
 
+    public int updateUserAdminRights(String groupId, Collection<String> usernames, boolean canAdmin) throws SQLException {
+        // Updates the admin rights of many users in a group as one batched transaction; returns how many were members.
+        // The group must keep at least one admin: that is checked once for the whole batch, before it commits.
         String sql = "UPDATE GroupUsers SET canAdmin = ? WHERE groupId = ? AND username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setBoolean(1, canAdmin); // Set the canAdmin value
-            pstmt.setString(2, groupId); // Set group ID
-            pstmt.setString(3, username); // Set username
-            pstmt.executeUpdate(); // Execute the update statement
+        List<String> members = new ArrayList<>(new LinkedHashSet<>(usernames));
+        if (members.isEmpty()) return 0;
+        int[] counts;
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            int adminsBefore = canAdmin ? 0 : countAdminsInGroup(conn, groupId); // Granting can never remove the last admin
+            for (String username : members) {
+                pstmt.setBoolean(1, canAdmin); // Set the canAdmin value
+                pstmt.setString(2, groupId); // Set group ID
+                pstmt.setString(3, username); // Set username
+                pstmt.addBatch();
+            }
+            counts = pstmt.executeBatch();
+            if (adminsBefore > 0 && countAdminsInGroup(conn, groupId) == 0) {
+                // Prevent removing admin rights from every remaining admin; the pool rolls the batch back
+                throw new SQLException("There must be at least one admin in the group.");
+            }
+            conn.commit();
+        }
+        return matchedMembers(members, counts).size();
+    }
+
+    // The usernames whose batched update matched a membership row
+    private static List<String> matchedMembers(List<String> usernames, int[] updateCounts) {
+        List<String> matched = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] > 0 || updateCounts[i] == Statement.SUCCESS_NO_INFO) matched.add(usernames.get(i));
         }
+        return matched;
     }
 
-    private int countAdminsInGroup(String groupId) throws SQLException {
+    private int countAdminsInGroup(Connection conn, String groupId) throws SQLException {
         // Counts the number of admin users in a specific group
         String sql = "SELECT COUNT(*) AS adminCount FROM GroupUsers WHERE groupId = ? AND canAdmin = TRUE";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, groupId); // Set the group ID parameter
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) return rs.getInt("adminCount"); // Return the admin count
@@ -327,158 +1370,269 @@ public class DatabaseHelper {
 
     public void addArticleToGroup(String groupId, int articleId, boolean isEncrypted) throws SQLException {
         // Adds an article to a group after verifying the article exists
+        try (Connection conn = pool.getConnection()) {
+            // Check if the article exists in the Articles table
+            String checkArticleSql = "SELECT id FROM Articles WHERE id = ?";
+            try (PreparedStatement checkStmt = conn.prepareStatement(checkArticleSql)) {
+                checkStmt.setInt(1, articleId); // Set the article ID parameter
+                try (ResultSet rs = checkStmt.executeQuery()) {
+                    if (!rs.next()) throw new SQLException("Article with ID " + articleId + " does not exist.");
+                }
+            }
 
-        // Check if the article exists in the Articles table
-        String checkArticleSql = "SELECT id FROM Articles WHERE id = ?";
-        try (PreparedStatement checkStmt = connection.prepareStatement(checkArticleSql)) {
-            checkStmt.setInt(1, articleId); // Set the article ID parameter
-            try (ResultSet rs = checkStmt.executeQuery()) {
-                if (!rs.next()) throw new SQLException("Article with ID " + articleId + " does not exist.");
+            // Insert the article into the GroupArticles table
+            String sql = "INSERT INTO GroupArticles (groupId, articleId) VALUES (?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, groupId); // Set the group ID parameter
+                pstmt.setInt(2, articleId); // Set the article ID parameter
+                pstmt.executeUpdate(); // Execute the insert statement
             }
         }
+        visibility.addArticle(groupId, articleId);
+    }
 
-        // Insert the article into the GroupArticles table
-        String sql = "INSERT INTO GroupArticles (groupId, articleId) VALUES (?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, groupId); // Set the group ID parameter
-            pstmt.setInt(2, articleId); // Set the article ID parameter
-            pstmt.executeUpdate(); // Execute the insert statement
+    public int addArticlesToGroup(String groupId, Collection<Integer> articleIds) throws SQLException {
+        // Adds many articles to a group as one batched transaction, after checking they all exist with one query
+        Set<Integer> ids = new TreeSet<>(articleIds); // Each article once, in ID order
+        if (ids.isEmpty()) return 0;
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            String checkArticlesSql = "SELECT id FROM Articles WHERE id = ANY(?)";
+            Set<Integer> missing = new TreeSet<>(ids);
+            try (PreparedStatement checkStmt = conn.prepareStatement(checkArticlesSql)) {
+                checkStmt.setArray(1, conn.createArrayOf("INTEGER", ids.toArray()));
+                try (ResultSet rs = checkStmt.executeQuery()) {
+                    while (rs.next()) missing.remove(rs.getInt("id"));
+                }
+            }
+            if (!missing.isEmpty()) throw new SQLException("Articles with IDs " + missing + " do not exist.");
+
+            // Articles already in the group are left as they are
+            String sql = "MERGE INTO GroupArticles (groupId, articleId) VALUES (?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int articleId : ids) {
+                    pstmt.setString(1, groupId); // Set the group ID parameter
+                    pstmt.setInt(2, articleId); // Set the article ID parameter
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
         }
+        for (int articleId : ids) visibility.addArticle(groupId, articleId);
+        return ids.size();
     }
 
     public void deleteGroup(String groupId) throws SQLException {
         // Deletes a group by its group ID
         String deleteGroupSQL = "DELETE FROM SpecialAccessGroups WHERE groupId = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(deleteGroupSQL)) {
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(deleteGroupSQL)) {
             pstmt.setString(1, groupId); // Set the group ID parameter
             if (pstmt.executeUpdate() == 0) throw new SQLException("No group found with ID: " + groupId); // Handle group not found
         }
+        groupDirectory.remove(groupId);
+        visibility.removeGroup(groupId);
+        SessionManager.getInstance().refreshAllMemberships(); // Members of the deleted group are not known here
     }
 
     public List<Map<String, String>> getArticlesInGroup(String groupId, String username) throws SQLException {
-        // Retrieves a list of articles in a group that a specific user can access
-        String sql = """
-            SELECT a.id, a.title, a.body, a.isEncrypted, gu.canView
-            FROM Articles a
-            JOIN GroupArticles ga ON a.id = ga.articleId
-            JOIN GroupUsers gu ON ga.groupId = gu.groupId
-            WHERE ga.groupId = ? AND gu.username = ?
-        """;
-
+        // Retrieves a list of articles in a group that a specific user can access; membership and the group's
+        // articles come from the visibility index, so only the article headers are read, by primary key
+        Boolean canView = visibility.getCanView(groupId, username);
         List<Map<String, String>> articles = new ArrayList<>();
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, groupId); // Set the group ID parameter
-            pstmt.setString(2, username); // Set the username parameter
+        if (canView == null) return articles; // Not a member of the group
+        int[] ids = visibility.getGroupArticles(groupId).toPostingList().toArray();
+        if (ids.length == 0) return articles;
+
+        String sql = "SELECT id, title, authors, isEncrypted FROM Articles WHERE id = ANY(?) ORDER BY id";
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setArray(1, conn.createArrayOf("INTEGER", Arrays.stream(ids).boxed().toArray())); // The group's article IDs
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     Map<String, String> article = new HashMap<>();
                     article.put("id", String.valueOf(rs.getInt("id"))); // Article ID
                     article.put("title", rs.getString("title")); // Article title
-
-                    boolean canView = rs.getBoolean("canView"); // Check if user has view permissions
-                    boolean isEncrypted = rs.getBoolean("isEncrypted"); // Check if the article is encrypted
-                    String body = rs.getString("body"); // Article body
-
-                    if (canView) { 
-                        body = isEncrypted ? decryptContent(body) : body; // Decrypt if encrypted
-                    } else { 
-                        body = "No Permission"; // Restrict access if no view permissions
-                    }
-
-                    article.put("body", body); // Add body to the map
-                    articles.add(article); // Add the article to the list
+                    article.put("authors", rs.getString("authors")); // Article authors
+                    article.put("isEncrypted", String.valueOf(rs.getBoolean("isEncrypted"))); // Whether the body is encrypted
+                    article.put("canView", String.valueOf(canView)); // Whether the user may open the body
+                    articles.add(article); // Add the article to the list; the body is loaded by getArticleBodyInGroup
                 }
             }
         }
         return articles; // Return the list of articles
     }
 
-    public List<String> searchArticles(String query, String level, String group) throws SQLException {
-        // Searches for articles based on query text, content level, and group
-        StringBuilder sql = new StringBuilder("SELECT id, title, authors, abstractText FROM Articles WHERE 1=1");
-        List<Object> parameters = new ArrayList<>(); // List to store query parameters
+    public String getArticleBodyInGroup(String groupId, String username, int articleId) throws SQLException {
+        // Loads the body of one article in a group when it is opened, enforcing the user's view rights
+        Boolean canView = visibility.getCanView(groupId, username);
+        if (canView == null || !visibility.getGroupArticles(groupId).contains(articleId)) {
+            throw new SQLException("Article " + articleId + " is not available to " + username + " in this group.");
+        }
+        if (!canView) return "No Permission"; // Restrict access if no view permissions
 
-        // Add conditions for query text if provided
-        if (!query.isEmpty()) {
-            sql.append(" AND (title LIKE ? OR authors LIKE ? OR abstractText LIKE ?)");
-            String likeQuery = "%" + query + "%";
-            parameters.add(likeQuery); parameters.add(likeQuery); parameters.add(likeQuery);
+        String sql = "SELECT a.isEncrypted, c.body FROM Articles a LEFT JOIN ArticleContent c ON c.articleId = a.id WHERE a.id = ?";
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, articleId); // Set the article ID parameter
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) throw new SQLException("Article " + articleId + " is not available to " + username + " in this group.");
+                String body = rs.getString("body"); // Article body
+                return rs.getBoolean("isEncrypted") ? decryptContent(body) : body; // Decrypt if encrypted
+            }
         }
+    }
+
+    public boolean canViewArticle(String username, int articleId) {
+        // True unless the article belongs only to special access groups in which the user has no view rights
+        return visibility.canView(username, articleId);
+    }
+
+    public List<String> searchArticles(String query, String level, String group) throws SQLException {
+        // Searches for articles based on query text, content level, and group using the inverted index
+        return describeSearchResults(searchArticleIds(query, level, group));
+    }
+
+    public PostingList searchArticleIds(String query, String level, String group) throws SQLException {
+        // IDs of the matching articles in ascending order, for callers that also need statistics over the results
+        String keyword = "All".equalsIgnoreCase(level) ? null : level; // Content level is matched against the keywords
+
+        // Restrict to the group's articles if a group is specified, by name or by ID
+        PostingList groupArticles = "All".equalsIgnoreCase(group) ? null : getArticleIdsInGroup(resolveGroupId(group));
+        return searchIndex.searchIds(query, keyword, groupArticles);
+    }
+
+    public List<String> searchArticles(String query, String level, String group, String username) throws SQLException {
+        // Same as searchArticles, leaving out the restricted articles the user may not see
+        return describeSearchResults(searchArticleIds(query, level, group, username));
+    }
+
+    public PostingList searchArticleIds(String query, String level, String group, String username) throws SQLException {
+        // Matching IDs minus the user's hidden articles, by one bitmap difference
+        PostingList matches = searchArticleIds(query, level, group);
+        ArticleBitmap hidden = visibility.getHiddenArticles(username);
+        if (hidden.isEmpty() || matches.isEmpty()) return matches;
+        return ArticleBitmap.andNot(ArticleBitmap.of(matches), hidden).toPostingList();
+    }
+
+    public List<ArticleSearchIndex.ScoredArticle> searchArticlesRanked(String query, String level, String group, String username)
+            throws SQLException {
+        // The user's matching articles, most relevant first, limited to the configured number of results
+        return rankSearchResults(query, searchArticleIds(query, level, group, username));
+    }
+
+    public List<ArticleSearchIndex.ScoredArticle> rankSearchResults(String query, PostingList articleIds) {
+        // Ranks already filtered matches, keeping the configured number of results
+        return rankSearchResults(query, articleIds, SEARCH_RESULT_LIMIT);
+    }
 
-        // Add condition for content level if specified
-        if (!"All".equalsIgnoreCase(level)) {
-            sql.append(" AND keywords LIKE ?");
-            parameters.add("%" + level + "%");
+    public List<ArticleSearchIndex.ScoredArticle> rankSearchResults(String query, PostingList articleIds, int limit) {
+        // Scores the matches with BM25 over title, keywords, authors and abstract and keeps the best ones
+        return searchIndex.rank(query, articleIds, limit);
+    }
+
+    public List<String> describeRankedResults(List<ArticleSearchIndex.ScoredArticle> ranked) {
+        // Formats ranked results for display, numbered by rank
+        List<String> results = new ArrayList<>();
+        int rank = 1;
+        for (ArticleSearchIndex.ScoredArticle scored : ranked) {
+            ArticleSearchIndex.IndexedArticle article = scored.getArticle();
+            results.add(String.format("Rank: %d, Score: %.2f, Title: %s, Authors: %s, Abstract: %s",
+                    rank++, scored.getScore(), article.getTitle(), article.getAuthors(), article.getAbstractText()));
         }
+        return results;
+    }
 
-        // Add condition for group if specified
-        if (!"All".equalsIgnoreCase(group)) {
-            sql.append(" AND id IN (SELECT articleId FROM GroupArticles WHERE groupId = ?)");
-            parameters.add(group);
+    public List<String> describeSearchResults(PostingList articleIds) {
+        // Formats search results for display, numbered in ID order
+        List<String> results = new ArrayList<>();
+        int sequence = 1; // Sequence number for display
+        for (ArticleSearchIndex.IndexedArticle article : searchIndex.get(articleIds)) {
+            results.add(String.format("Seq: %d, Title: %s, Authors: %s, Abstract: %s",
+                    sequence++, article.getTitle(), article.getAuthors(), article.getAbstractText()));
         }
+        return results; // Return the list of search results, ordered by ID
+    }
+
+    private String resolveGroupId(String group) {
+        // The ID of the named group; anything else is taken to be an ID already
+        String groupId = groupDirectory.getId(group);
+        return groupId != null ? groupId : group;
+    }
 
-        sql.append(" ORDER BY id"); // Order results by ID
+    private PostingList getArticleIdsInGroup(String groupId) {
+        // Retrieves the IDs of the articles in a group in ascending order from the visibility index
+        return visibility.getGroupArticles(groupId).toPostingList();
+    }
+
+    public PostingList getArticleIdsByKeyword(String keyword) throws SQLException {
+        // IDs of the articles listing the keyword, by an equality lookup on the keyword index
+        return getArticleIdsByTerm("SELECT articleId FROM ArticleKeywords WHERE keyword = ? ORDER BY articleId", keyword);
+    }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
-            for (int i = 0; i < parameters.size(); i++) pstmt.setObject(i + 1, parameters.get(i)); // Set query parameters
+    public PostingList getArticleIdsByAuthor(String author) throws SQLException {
+        // IDs of the articles listing the author, by an equality lookup on the author index
+        return getArticleIdsByTerm("SELECT articleId FROM ArticleAuthors WHERE author = ? ORDER BY articleId", author);
+    }
 
-            List<String> results = new ArrayList<>();
+    private PostingList getArticleIdsByTerm(String sql, String term) throws SQLException {
+        PostingList ids = new PostingList();
+        try (Connection conn = pool.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, Tokenizer.normalizeEntry(term)); // Stored entries are normalized the same way
             try (ResultSet rs = pstmt.executeQuery()) {
-                int sequence = 1; // Sequence number for display
-                while (rs.next()) {
-                    results.add(String.format("Seq: %d, Title: %s, Authors: %s, Abstract: %s",
-                            sequence++, rs.getString("title"), rs.getString("authors"), rs.getString("abstractText")));
-                }
+                while (rs.next()) ids.add(rs.getInt("articleId"));
             }
-            return results; // Return the list of search results
         }
+        return ids;
     }
 
     public String getLevelStatistics(List<String> articleIds) throws SQLException {
         // Generates statistics on content levels for a list of article IDs
-        if (articleIds.isEmpty()) return "No articles to analyze."; // Handle empty list
-
-        // Construct SQL query to fetch keywords for the specified article IDs
-        String sql = "SELECT keywords FROM Articles WHERE id IN (" +
-                articleIds.stream().map(id -> "?").collect(Collectors.joining(", ")) + ")";
-        int beginnerCount = 0, intermediateCount = 0, advancedCount = 0, expertCount = 0;
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            for (int i = 0; i < articleIds.size(); i++) {
-                pstmt.setInt(i + 1, Integer.parseInt(articleIds.get(i))); // Set article IDs as parameters
-            }
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    String keywords = rs.getString("keywords").toLowerCase();
-                    if (keywords.contains("beginner")) beginnerCount++;
-                    if (keywords.contains("intermediate")) intermediateCount++;
-                    if (keywords.contains("advanced")) advancedCount++;
-                    if (keywords.contains("expert")) expertCount++;
-                }
-            }
+        int[] ids = new int[articleIds.size()];
+        try {
+            for (int i = 0; i < ids.length; i++) ids[i] = Integer.parseInt(articleIds.get(i).trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException("Level statistics need article IDs: " + e.getMessage(), e);
         }
+        Arrays.sort(ids);
+        return getLevelStatistics(PostingList.ofSorted(Arrays.stream(ids).distinct().toArray()));
+    }
+
+    public String getLevelStatistics(PostingList articleIds) {
+        // Counts the content levels of the given articles from the bitmasks held in the search index; no query needed
+        if (articleIds.isEmpty()) return "No articles to analyze."; // Handle empty list
+        int[] counts = searchIndex.countLevels(articleIds);
 
         // Return formatted statistics
-        return String.format("Beginner: %d, Intermediate: %d, Advanced: %d, Expert: %d",
-                beginnerCount, intermediateCount, advancedCount, expertCount);
+        StringJoiner stats = new StringJoiner(", ");
+        for (ContentLevel level : ContentLevel.values()) stats.add(level.getDisplayName() + ": " + counts[level.ordinal()]);
+        return stats.toString();
     }
 
     public void clearDatabase() throws SQLException {
         // Clears all data from the database tables in the correct order to handle dependencies
         String[] tables = {
             "GroupArticles",    // Depends on Groups and Articles
+            "ArticleContent",   // Depends on Articles
+            "ArticleKeywords",  // Depends on Articles
+            "ArticleAuthors",   // Depends on Articles
             "GroupUsers",       // Depends on Groups and Users
             "SpecialAccessGroups", // Groups table
-            "Articles"          // Articles table
+            "Articles",         // Articles table
+            "ArticleChangeLog", // Nothing left to back up incrementally
+            "BackupHistory"     // Earlier backups no longer describe this database
         };
 
         // Iterate through each table and clear its data
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
             for (String table : tables) {
                 String sql = "DELETE FROM " + table; // Construct delete query for each table
                 stmt.executeUpdate(sql); // Execute the delete statement
             }
         }
+        searchIndex.clear(); // Nothing left to list or search
+        articleIds.clear();
+        groupDirectory.clear();
+        visibility.clear();
+        articleCache.clear();
     }
 
 }
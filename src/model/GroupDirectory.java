@@ -0,0 +1,65 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Two-way map between group names and group IDs.
+//
+// It is loaded with every group when DatabaseHelper starts. After that, createGroup and deleteGroup write through to
+// it once their statement succeeds, so it always matches the SpecialAccessGroups table and lookups never go to the
+// database. Both directions are updated under one lock, so a reader never sees a name without its ID or the reverse.
+public class GroupDirectory {
+
+    private final Map<String, String> idsByName = new HashMap<>();
+    private final Map<String, String> namesById = new HashMap<>();
+
+    private long hits = 0, misses = 0;
+
+    // Records a group, replacing any earlier entry for the same name or ID
+    public synchronized void put(String groupId, String groupName) {
+        String oldName = namesById.put(groupId, groupName);
+        if (oldName != null && !oldName.equals(groupName)) idsByName.remove(oldName);
+        String oldId = idsByName.put(groupName, groupId);
+        if (oldId != null && !oldId.equals(groupId)) namesById.remove(oldId);
+    }
+
+    // Forgets a group by ID; returns its name, or null if it was not known
+    public synchronized String remove(String groupId) {
+        String groupName = namesById.remove(groupId);
+        if (groupName != null) idsByName.remove(groupName);
+        return groupName;
+    }
+
+    // Forgets every group
+    public synchronized void clear() {
+        idsByName.clear();
+        namesById.clear();
+    }
+
+    // ID of the named group, or null if there is none
+    public synchronized String getId(String groupName) {
+        String groupId = idsByName.get(groupName);
+        if (groupId == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return groupId;
+    }
+
+    // Name of the group with the ID, or null if there is none
+    public synchronized String getName(String groupId) {
+        return namesById.get(groupId);
+    }
+
+    public synchronized int size() { return namesById.size(); }
+
+    public synchronized long getHitCount() { return hits; }
+
+    public synchronized long getMissCount() { return misses; }
+
+    // One-line summary for logging and the admin UI
+    public synchronized String getMetrics() {
+        return String.format("Groups: %d, Lookups: %d, Unknown names: %d", namesById.size(), hits + misses, misses);
+    }
+}
@@ -0,0 +1,92 @@
+package model;
+
+import java.security.SecureRandom;
+
+// Issues invitation codes that never repeat, without remembering the codes already handed out.
+//
+// Codes are written in a 32-character alphabet without look-alike characters, so a code of length L encodes a number
+// below 32^L. A counter 0, 1, 2, ... is passed through a keyed Feistel network, which is a permutation of the smallest
+// even-width bit range covering that domain; results outside the domain are fed back in (cycle-walking) until they
+// land inside it. The mapping stays a permutation of the domain, so every counter value yields a distinct code, and
+// because the range is at most twice the domain a code takes fewer than two walks on average. The random key makes
+// consecutive codes look unrelated.
+public class InvitationCodeGenerator {
+
+    public static final String ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ";
+    public static final int MIN_LENGTH = 4, MAX_LENGTH = 12;
+
+    private static final int ROUNDS = 6;
+
+    private final int length;
+    private final long domain; // 32^length codes
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+    private long counter = 0;
+
+    // Generator with a fresh random key
+    public InvitationCodeGenerator(int length) {
+        this(length, new SecureRandom().nextLong());
+    }
+
+    // Generator with a fixed key, so the sequence can be reproduced
+    public InvitationCodeGenerator(int length, long key) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Code length must be between " + MIN_LENGTH + " and " + MAX_LENGTH + ".");
+        }
+        this.length = length;
+        this.domain = 1L << (5 * length);
+        this.halfBits = (5 * length + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        long state = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    // Next code in the sequence
+    public synchronized String next() {
+        if (counter >= domain) throw new IllegalStateException("All " + domain + " codes of length " + length + " are used.");
+        long value = counter++;
+        do {
+            value = permute(value);
+        } while (value >= domain);
+        return encode(value);
+    }
+
+    public int getLength() { return length; }
+
+    // Codes this generator can issue in total
+    public long getCapacity() { return domain; }
+
+    // Codes issued so far
+    public synchronized long getIssuedCount() { return counter; }
+
+    // One pass through the Feistel network over 2 * halfBits bits
+    private long permute(long value) {
+        long left = value >>> halfBits, right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private String encode(long value) {
+        char[] code = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        return new String(code);
+    }
+
+    // SplitMix64 finalizer, used as the round function
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,185 @@
+package model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Token-bucket rate limiter for login attempts, keyed by username and by client.
+//
+// Each key gets a bucket on its first attempt; a bucket holds up to `burst` tokens, refills one token every refill
+// interval and every attempt takes one. Buckets live in lock stripes chosen by the key's hash, each an access-ordered
+// LinkedHashMap, so an attempt only locks the two stripes of its keys, one after the other, and does O(1) work. A bucket
+// idle long enough to have refilled completely behaves like a new one, so each access also drops the stripe's least
+// recently used buckets once they have been idle past the eviction timeout; memory stays proportional to recent keys.
+public class LoginThrottle {
+
+    private static LoginThrottle instance;
+
+    private static final int STRIPES = 64;
+    private static final int EVICTIONS_PER_ACCESS = 2;
+
+    // Size and refill rate of the buckets
+    public static final class Limit {
+        final int burst;
+        final long refillNanos;
+
+        public Limit(int burst, long refillMillis) {
+            if (burst < 1 || refillMillis < 1) throw new IllegalArgumentException("Burst and refill interval must be positive.");
+            this.burst = burst;
+            this.refillNanos = TimeUnit.MILLISECONDS.toNanos(refillMillis);
+        }
+    }
+
+    // Tokens are tracked in nanoseconds of refill time, so refilling needs no division
+    private static final class Bucket {
+        long tokenNanos; // Available tokens times refillNanos, capped at burst * refillNanos
+        long updatedAt;
+
+        Bucket(long capacityNanos, long now) {
+            this.tokenNanos = capacityNanos;
+            this.updatedAt = now;
+        }
+    }
+
+    // One stripe of buckets for one kind of key
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private static final long serialVersionUID = 1L;
+
+        Stripe() {
+            super(16, 0.75f, true);
+        }
+    }
+
+    private final Limit userLimit, clientLimit;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final Stripe[] userStripes = new Stripe[STRIPES], clientStripes = new Stripe[STRIPES];
+
+    private final LongAdder allowed = new LongAdder(), rejectedByUser = new LongAdder(), rejectedByClient = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public LoginThrottle(Limit userLimit, Limit clientLimit, long idleMillis, LongSupplier nanoClock) {
+        this.userLimit = userLimit;
+        this.clientLimit = clientLimit;
+        // A bucket may only be forgotten once it would have refilled completely, or forgetting it would hand out tokens
+        this.idleNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(idleMillis),
+                Math.max(userLimit.burst * userLimit.refillNanos, clientLimit.burst * clientLimit.refillNanos));
+        this.clock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            userStripes[i] = new Stripe();
+            clientStripes[i] = new Stripe();
+        }
+    }
+
+    // Returns the singleton instance: by default 5 attempts per username then one every 30 seconds, 20 attempts per
+    // client then one per second, and buckets forgotten after 10 idle minutes
+    public static synchronized LoginThrottle getInstance() {
+        if (instance == null) {
+            instance = new LoginThrottle(
+                    new Limit(Integer.getInteger("login.user.burst", 5), Long.getLong("login.user.refillMs", 30_000)),
+                    new Limit(Integer.getInteger("login.client.burst", 20), Long.getLong("login.client.refillMs", 1_000)),
+                    Long.getLong("login.idleMs", 600_000), System::nanoTime);
+        }
+        return instance;
+    }
+
+    // Takes a token for the username and one for the client; false if either bucket is empty. A blank username only
+    // counts against the client. The username's token is given back when the client is the one that is limited.
+    public boolean tryAcquire(String username, String client) {
+        long now = clock.getAsLong();
+        boolean checkUser = username != null && !username.isBlank();
+        if (checkUser && !take(userStripes, userLimit, username, now)) {
+            rejectedByUser.increment();
+            return false;
+        }
+        if (client != null && !take(clientStripes, clientLimit, client, now)) {
+            if (checkUser) refund(userStripes, userLimit, username);
+            rejectedByClient.increment();
+            return false;
+        }
+        allowed.increment();
+        return true;
+    }
+
+    // Forgets a username's attempts, after a successful login
+    public void reset(String username) {
+        if (username == null) return;
+        Stripe stripe = stripeFor(userStripes, username);
+        synchronized (stripe) {
+            stripe.remove(username);
+        }
+    }
+
+    public long getAllowedCount() { return allowed.sum(); }
+
+    public long getRejectedByUserCount() { return rejectedByUser.sum(); }
+
+    public long getRejectedByClientCount() { return rejectedByClient.sum(); }
+
+    public long getEvictedCount() { return evicted.sum(); }
+
+    // Buckets currently held, for both kinds of key
+    public int getTrackedCount() {
+        int count = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            synchronized (userStripes[i]) {
+                count += userStripes[i].size();
+            }
+            synchronized (clientStripes[i]) {
+                count += clientStripes[i].size();
+            }
+        }
+        return count;
+    }
+
+    // One-line summary for logging and the admin UI
+    public String getMetrics() {
+        return String.format("Allowed: %d, Rejected (username): %d, Rejected (client): %d, Buckets: %d, Evicted: %d",
+                getAllowedCount(), getRejectedByUserCount(), getRejectedByClientCount(), getTrackedCount(), getEvictedCount());
+    }
+
+    private boolean take(Stripe[] stripes, Limit limit, String key, long now) {
+        long capacity = limit.burst * limit.refillNanos;
+        Stripe stripe = stripeFor(stripes, key);
+        synchronized (stripe) {
+            evictIdle(stripe, now);
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.put(key, bucket);
+            } else {
+                bucket.tokenNanos = Math.min(capacity, bucket.tokenNanos + Math.max(0, now - bucket.updatedAt));
+                bucket.updatedAt = now;
+            }
+            if (bucket.tokenNanos < limit.refillNanos) return false;
+            bucket.tokenNanos -= limit.refillNanos;
+            return true;
+        }
+    }
+
+    private void refund(Stripe[] stripes, Limit limit, String key) {
+        Stripe stripe = stripeFor(stripes, key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket != null) bucket.tokenNanos = Math.min(limit.burst * limit.refillNanos, bucket.tokenNanos + limit.refillNanos);
+        }
+    }
+
+    // Drops up to a few least recently used buckets that have been idle past the timeout; callers hold the stripe
+    private void evictIdle(Stripe stripe, long now) {
+        Iterator<Map.Entry<String, Bucket>> eldest = stripe.entrySet().iterator();
+        for (int i = 0; i < EVICTIONS_PER_ACCESS && eldest.hasNext(); i++) {
+            if (now - eldest.next().getValue().updatedAt < idleNanos) return;
+            eldest.remove();
+            evicted.increment();
+        }
+    }
+
+    private static Stripe stripeFor(Stripe[] stripes, String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,183 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+// Hashes and verifies passwords with PBKDF2-HMAC-SHA256 from the JDK.
+//
+// Stored hashes carry their own cost and salt ("pbkdf2-sha256$<iterations>$<salt>$<hash>"), so the cost can be raised
+// at any time: old hashes keep verifying, and needsRehash() tells the login path to re-hash the password it just
+// verified. A stored value without the prefix is a plain-text password from before hashing was introduced; it is
+// compared in constant time and always needs a rehash.
+//
+// The work is CPU-bound, so the asynchronous methods run it on a fixed pool with one thread per core and a bounded
+// queue. When the queue is full new requests fail fast with a RejectedExecutionException instead of piling up.
+public class PasswordHasher {
+
+    private static PasswordHasher instance;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256", PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16, KEY_BITS = 256;
+    public static final int MIN_ITERATIONS = 1_000;
+
+    private static final int DEFAULT_ITERATIONS = Integer.getInteger("password.iterations", 210_000);
+    private static final int DEFAULT_THREADS = Integer.getInteger("password.threads", Runtime.getRuntime().availableProcessors());
+    private static final int DEFAULT_QUEUE = Integer.getInteger("password.queueCapacity", 256);
+
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadPoolExecutor executor;
+    private volatile int iterations;
+
+    private final LongAdder hashes = new LongAdder(), verifications = new LongAdder(), rejections = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder(), verifyNanos = new LongAdder(), waitNanos = new LongAdder();
+    private final AtomicLong maxVerifyNanos = new AtomicLong();
+
+    public PasswordHasher(int iterations, int threads, int queueCapacity) {
+        this.iterations = checkIterations(iterations);
+        AtomicLong threadIds = new AtomicLong();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hasher-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Returns the singleton instance, sized to the machine's cores
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) instance = new PasswordHasher(DEFAULT_ITERATIONS, DEFAULT_THREADS, DEFAULT_QUEUE);
+        return instance;
+    }
+
+    // Cost of new hashes; existing hashes with a different cost are upgraded on the next successful login
+    public void setIterations(int iterations) {
+        this.iterations = checkIterations(iterations);
+    }
+
+    private static int checkIterations(int iterations) {
+        if (iterations < MIN_ITERATIONS) throw new IllegalArgumentException("At least " + MIN_ITERATIONS + " iterations are required.");
+        return iterations;
+    }
+
+    public int getIterations() { return iterations; }
+
+    // Hashes a password on the calling thread
+    public String hash(String password) {
+        long start = System.nanoTime();
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        int cost = iterations;
+        byte[] key = derive(password, salt, cost, KEY_BITS);
+        hashes.increment();
+        hashNanos.add(System.nanoTime() - start);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + cost + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(key);
+    }
+
+    // Checks a password against a stored hash (or a legacy plain-text password) on the calling thread
+    public boolean matches(String password, String stored) {
+        if (password == null || stored == null) return false;
+        long start = System.nanoTime();
+        boolean matches;
+        String[] parts = stored.split("\\$");
+        if (parts.length == 4 && parts[0].equals(PREFIX)) {
+            try {
+                int cost = Integer.parseInt(parts[1]);
+                byte[] salt = Base64.getDecoder().decode(parts[2]), expected = Base64.getDecoder().decode(parts[3]);
+                matches = MessageDigest.isEqual(derive(password, salt, cost, expected.length * 8), expected);
+            } catch (IllegalArgumentException e) {
+                matches = false; // Damaged hash
+            }
+        } else {
+            matches = MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        long elapsed = System.nanoTime() - start;
+        verifications.increment();
+        verifyNanos.add(elapsed);
+        maxVerifyNanos.accumulateAndGet(elapsed, Math::max);
+        return matches;
+    }
+
+    // True if the stored value is plain text or was hashed with a different cost than the current one
+    public boolean needsRehash(String stored) {
+        if (stored == null) return false;
+        String[] parts = stored.split("\\$");
+        return parts.length != 4 || !parts[0].equals(PREFIX) || !parts[1].equals(String.valueOf(iterations));
+    }
+
+    // True if the value is a hash produced by this class
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    // Hashes a password on the worker pool
+    public CompletableFuture<String> hashAsync(String password) {
+        return supply(() -> hash(password));
+    }
+
+    // Verifies a password on the worker pool
+    public CompletableFuture<Boolean> matchesAsync(String password, String stored) {
+        return supply(() -> matches(password, stored));
+    }
+
+    // Runs a task on the worker pool; fails at once if the queue is full
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        long queued = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitNanos.add(System.nanoTime() - queued);
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many sign-in requests, please try again."));
+        }
+    }
+
+    // Requests waiting for a worker
+    public int getQueueDepth() { return executor.getQueue().size(); }
+
+    // Workers currently hashing or verifying
+    public int getActiveCount() { return executor.getActiveCount(); }
+
+    public long getRejectedCount() { return rejections.sum(); }
+
+    public long getHashCount() { return hashes.sum(); }
+
+    public long getVerificationCount() { return verifications.sum(); }
+
+    public double getAverageVerifyMillis() {
+        long count = verifications.sum();
+        return count == 0 ? 0 : verifyNanos.sum() / 1e6 / count;
+    }
+
+    // One-line summary for logging and the admin UI
+    public String getMetrics() {
+        long hashCount = hashes.sum(), asyncCount = executor.getCompletedTaskCount();
+        return String.format("Iterations: %d, Hashes: %d (avg %.1f ms), Verifications: %d (avg %.1f ms, max %.1f ms), "
+                        + "Queue: %d, Active: %d, Avg wait: %.1f ms, Rejected: %d",
+                iterations, hashCount, hashCount == 0 ? 0.0 : hashNanos.sum() / 1e6 / hashCount, verifications.sum(),
+                getAverageVerifyMillis(), maxVerifyNanos.get() / 1e6, getQueueDepth(), getActiveCount(),
+                asyncCount == 0 ? 0.0 : waitNanos.sum() / 1e6 / asyncCount, rejections.sum());
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int keyBits) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, keyBits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available.", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+public class PostingList {
+
+    // Sorted, duplicate-free article IDs
+    private int[] ids;
+    private int size = 0;
+
+    public PostingList() {
+        this(4);
+    }
+
+    public PostingList(int capacity) {
+        ids = new int[Math.max(1, capacity)];
+    }
+
+    // Wraps an already sorted, duplicate-free array
+    private PostingList(int[] sortedIds, int size) {
+        this.ids = sortedIds;
+        this.size = size;
+    }
+
+    // Adds an ID; appending a new highest ID (the usual case) is O(1) amortized
+    public boolean add(int id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return false; // Already present
+            insertAt(-pos - 1, id);
+            return true;
+        }
+        ensureCapacity(size + 1);
+        ids[size++] = id;
+        return true;
+    }
+
+    // Removes an ID if present
+    public boolean remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) return false;
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    // Empties the list, keeping its capacity
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public int get(int index) { return ids[index]; }
+
+    // Copy of the IDs in ascending order
+    public int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void insertAt(int pos, int id) {
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) ids = Arrays.copyOf(ids, Math.max(capacity, ids.length * 2));
+    }
+
+    // Intersection of two posting lists; gallops through the longer one: from the current position it probes 1, 2, 4...
+    // ahead until it passes the wanted ID, then binary-searches only that last step, so a match k places on costs
+    // O(log k) instead of a search over the whole rest of the list
+    public static PostingList intersect(PostingList a, PostingList b) {
+        if (a.size > b.size) return intersect(b, a);
+        int[] out = new int[a.size];
+        int n = 0, from = 0;
+        for (int i = 0; i < a.size && from < b.size; i++) {
+            int id = a.ids[i], lo = from, step = 1;
+            while (lo + step < b.size && b.ids[lo + step] < id) {
+                lo += step;
+                step <<= 1;
+            }
+            int pos = Arrays.binarySearch(b.ids, lo, Math.min(lo + step + 1, b.size), id);
+            if (pos >= 0) {
+                out[n++] = id;
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+        }
+        return new PostingList(out, n);
+    }
+
+    // Union of two posting lists by a linear merge
+    public static PostingList union(PostingList a, PostingList b) {
+        int[] out = new int[a.size + b.size];
+        int i = 0, j = 0, n = 0;
+        while (i < a.size && j < b.size) {
+            int x = a.ids[i], y = b.ids[j];
+            if (x == y) { out[n++] = x; i++; j++; }
+            else if (x < y) { out[n++] = x; i++; }
+            else { out[n++] = y; j++; }
+        }
+        while (i < a.size) out[n++] = a.ids[i++];
+        while (j < b.size) out[n++] = b.ids[j++];
+        return new PostingList(out, n);
+    }
+
+    // Union of any number of posting lists in one k-way merge: a min-heap holds the next ID of every list, so merging
+    // k lists with N IDs in total costs O(N log k) instead of the O(k * N) of merging them two at a time
+    public static PostingList unionAll(Collection<PostingList> lists) {
+        PostingList[] inputs = lists.stream().filter(list -> list.size > 0).toArray(PostingList[]::new);
+        if (inputs.length == 0) return new PostingList(1);
+        if (inputs.length == 1) return inputs[0];
+        if (inputs.length == 2) return union(inputs[0], inputs[1]);
+
+        int total = 0;
+        for (PostingList list : inputs) total += list.size;
+        int[] out = new int[total], positions = new int[inputs.length], heap = new int[inputs.length];
+        int heapSize = 0, n = 0;
+        for (int list = 0; list < inputs.length; list++) heap[heapSize++] = list;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) siftDown(heap, heapSize, i, inputs, positions);
+        while (heapSize > 0) {
+            int list = heap[0];
+            int id = inputs[list].ids[positions[list]++];
+            if (n == 0 || out[n - 1] != id) out[n++] = id; // The same ID may come from several lists
+            if (positions[list] == inputs[list].size) heap[0] = heap[--heapSize]; // This list is used up
+            if (heapSize > 0) siftDown(heap, heapSize, 0, inputs, positions);
+        }
+        return new PostingList(out, n);
+    }
+
+    // Restores the heap order below a slot; heap entries are list indexes ordered by each list's next ID
+    private static void siftDown(int[] heap, int heapSize, int slot, PostingList[] inputs, int[] positions) {
+        int list = heap[slot], id = inputs[list].ids[positions[list]];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && nextId(heap[child + 1], inputs, positions) < nextId(heap[child], inputs, positions)) child++;
+            if (nextId(heap[child], inputs, positions) >= id) break;
+            heap[slot] = heap[child];
+            slot = child;
+        }
+        heap[slot] = list;
+    }
+
+    private static int nextId(int list, PostingList[] inputs, int[] positions) {
+        return inputs[list].ids[positions[list]];
+    }
+
+    // Builds a posting list from IDs that are already in ascending order
+    public static PostingList ofSorted(int[] sortedIds) {
+        return new PostingList(Arrays.copyOf(sortedIds, sortedIds.length), sortedIds.length);
+    }
+}
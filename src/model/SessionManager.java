@@ -0,0 +1,249 @@
+package model;
+
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Login sessions: an opaque token per signed-in window, mapped to the resolved user, a snapshot of their roles, the
+// role they chose and (loaded on first use) the groups they belong to.
+//
+// Checking a token is one map lookup plus a deadline comparison. Sessions end after a period without use (idle expiry)
+// and in any case some time after sign-in (absolute expiry). Both deadlines are kept on a timing wheel: a lookup only
+// records the time, and when the wheel reports a session whose idle deadline has moved on, it is put back at the new
+// deadline. Changing a user's roles or deleting them ends their sessions; group membership changes only drop the cached
+// groups, which are loaded again when next needed.
+public class SessionManager {
+
+    private static SessionManager instance;
+
+    private static final Duration DEFAULT_IDLE = Duration.ofMinutes(Long.getLong("session.idleMinutes", 30));
+    private static final Duration DEFAULT_ABSOLUTE = Duration.ofMinutes(Long.getLong("session.maxMinutes", 8 * 60));
+    private static final long TICK_MS = 1_000;
+    private static final int WHEEL_SLOTS = 512;
+
+    // Loads the IDs of the groups a user belongs to
+    @FunctionalInterface
+    public interface MembershipSource {
+        Set<String> groupIdsFor(String username) throws SQLException;
+    }
+
+    // One signed-in window
+    public static final class Session {
+        private final String token, activeRole;
+        private final User user;
+        private final Set<String> roles;
+        private final long createdAt, expiresAt;
+        private volatile long lastAccess;
+        private volatile Set<String> groupIds; // Null until loaded, and again after a membership change
+        private volatile long membershipVersion; // Bumped by every membership change, so a load racing one is not kept
+
+        private Session(String token, User user, String activeRole, long now, long absoluteMillis) {
+            this.token = token;
+            this.user = user;
+            this.activeRole = activeRole;
+            this.roles = Set.copyOf(user.getRoles());
+            this.createdAt = now;
+            this.expiresAt = now + absoluteMillis;
+            this.lastAccess = now;
+        }
+
+        public String getToken() { return token; }
+
+        public User getUser() { return user; }
+
+        public String getUsername() { return user.getUsername(); }
+
+        public String getActiveRole() { return activeRole; }
+
+        public Set<String> getRoles() { return roles; }
+
+        public boolean hasRole(String role) { return roles.contains(role); }
+
+        public long getCreatedAt() { return createdAt; }
+    }
+
+    private final long idleMillis, absoluteMillis;
+    private final MembershipSource memberships;
+    private final LongSupplier clock;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+    private final TimingWheel<String> expiry;
+
+    private final LongAdder opened = new LongAdder(), idleExpired = new LongAdder(), absoluteExpired = new LongAdder();
+    private final LongAdder invalidated = new LongAdder(), membershipLoads = new LongAdder();
+
+    public SessionManager(Duration idle, Duration absolute, MembershipSource memberships, LongSupplier clockMillis) {
+        this.idleMillis = idle.toMillis();
+        this.absoluteMillis = absolute.toMillis();
+        this.memberships = memberships;
+        this.clock = clockMillis;
+        this.expiry = new TimingWheel<>(TICK_MS, WHEEL_SLOTS, clockMillis.getAsLong());
+    }
+
+    // Returns the singleton instance, reading memberships from the database and expiring sessions every second
+    public static synchronized SessionManager getInstance() {
+        if (instance == null) {
+            SessionManager manager = new SessionManager(DEFAULT_IDLE, DEFAULT_ABSOLUTE,
+                    username -> DatabaseHelper.getInstance().getGroupIdsForUser(username), System::currentTimeMillis);
+            ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "session-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.scheduleAtFixedRate(() -> manager.expireDue(System.currentTimeMillis()), TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+            instance = manager;
+        }
+        return instance;
+    }
+
+    // Starts a session for a signed-in user acting in one of their roles
+    public Session open(User user, String activeRole) {
+        if (!user.getRoles().contains(activeRole)) throw new IllegalArgumentException(user.getUsername() + " is not a " + activeRole + ".");
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long now = clock.getAsLong();
+        Session session = new Session(token, user, activeRole, now, absoluteMillis);
+        tokensByUser.compute(user.getUsername(), (username, tokens) -> {
+            if (tokens == null) tokens = ConcurrentHashMap.newKeySet();
+            tokens.add(token); // Inside compute, so a concurrent remove() cannot drop the set under us
+            return tokens;
+        });
+        sessions.put(token, session);
+        expiry.schedule(token, nextDeadline(session));
+        opened.increment();
+        return session;
+    }
+
+    // The live session for a token, or null if it ended; counts as activity
+    public Session get(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        if (session == null) return null;
+        long now = clock.getAsLong();
+        if (isExpired(session, now)) {
+            end(session, now);
+            return null;
+        }
+        session.lastAccess = now;
+        return session;
+    }
+
+    // True if the token belongs to a live session acting in the given role
+    public boolean authorize(String token, String role) {
+        Session session = get(token);
+        return session != null && session.activeRole.equals(role);
+    }
+
+    // IDs of the groups the session's user belongs to, loaded once per session until memberships change
+    public Set<String> getGroupIds(String token) throws SQLException {
+        Session session = get(token);
+        if (session == null) throw new IllegalStateException("The session has ended. Please log in again.");
+        Set<String> groups = session.groupIds;
+        if (groups == null) {
+            long version = session.membershipVersion;
+            groups = Set.copyOf(memberships.groupIdsFor(session.getUsername()));
+            membershipLoads.increment();
+            if (version == session.membershipVersion) session.groupIds = groups;
+        }
+        return groups;
+    }
+
+    // Ends a session, on logout
+    public void close(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        if (session != null) remove(session);
+    }
+
+    // Ends every session of a user, after their roles change or they are deleted
+    public void invalidateUser(String username) {
+        Set<String> tokens = tokensByUser.get(username);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            Session session = sessions.get(token);
+            if (session != null && remove(session)) invalidated.increment();
+        }
+    }
+
+    // Drops the cached groups of a user's sessions, after they join or leave a group
+    public void refreshMemberships(String username) {
+        Set<String> tokens = tokensByUser.get(username);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            Session session = sessions.get(token);
+            if (session != null) forgetGroups(session);
+        }
+    }
+
+    // Drops the cached groups of every session, after a group is deleted
+    public void refreshAllMemberships() {
+        for (Session session : sessions.values()) forgetGroups(session);
+    }
+
+    // Ends the sessions whose deadline has passed; sessions used since they were scheduled go back on the wheel
+    public void expireDue(long nowMillis) {
+        for (String token : expiry.advance(nowMillis)) {
+            Session session = sessions.get(token);
+            if (session == null) continue;
+            if (isExpired(session, nowMillis)) {
+                end(session, nowMillis);
+            } else {
+                expiry.schedule(token, nextDeadline(session));
+            }
+        }
+    }
+
+    public int getActiveCount() { return sessions.size(); }
+
+    public long getOpenedCount() { return opened.sum(); }
+
+    public long getIdleExpiredCount() { return idleExpired.sum(); }
+
+    public long getAbsoluteExpiredCount() { return absoluteExpired.sum(); }
+
+    public long getInvalidatedCount() { return invalidated.sum(); }
+
+    public long getMembershipLoadCount() { return membershipLoads.sum(); }
+
+    // One-line summary for logging and the admin UI
+    public String getMetrics() {
+        return String.format("Active: %d, Opened: %d, Idle expired: %d, Absolute expired: %d, Invalidated: %d, Membership loads: %d",
+                getActiveCount(), getOpenedCount(), getIdleExpiredCount(), getAbsoluteExpiredCount(), getInvalidatedCount(),
+                getMembershipLoadCount());
+    }
+
+    private static void forgetGroups(Session session) {
+        session.membershipVersion++;
+        session.groupIds = null;
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return now >= session.expiresAt || now - session.lastAccess >= idleMillis;
+    }
+
+    private long nextDeadline(Session session) {
+        return Math.min(session.lastAccess + idleMillis, session.expiresAt);
+    }
+
+    private void end(Session session, long now) {
+        if (!remove(session)) return;
+        if (now >= session.expiresAt) absoluteExpired.increment();
+        else idleExpired.increment();
+    }
+
+    // Removes a session from both maps and the wheel; false if another thread already did
+    private boolean remove(Session session) {
+        if (!sessions.remove(session.token, session)) return false;
+        expiry.cancel(session.token);
+        tokensByUser.computeIfPresent(session.getUsername(), (username, tokens) -> {
+            tokens.remove(session.token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+        return true;
+    }
+}
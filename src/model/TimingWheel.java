@@ -0,0 +1,115 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hashed timing wheel that tracks a deadline per key and reports the keys whose deadline has passed.
+//
+// Time is cut into ticks; the wheel is a ring of slots, and a key due at tick t sits in slot t % size in a doubly
+// linked list, so scheduling, rescheduling and cancelling are O(1). Each entry also counts the revolutions left before
+// it is due. advance() visits only the slots of the ticks that went by: an entry with no revolutions left expires, any
+// other just has its count lowered, so each visit is O(1) and no deadline is compared. If more than a whole turn went
+// by, every slot is visited once and its count is lowered by the number of times its tick came round.
+public class TimingWheel<K> {
+
+    // One scheduled key, linked into the list of its slot
+    private static final class Node<K> {
+        final K key;
+        long rounds; // Revolutions still to go before the entry is due
+        Node<K> prev, next;
+
+        Node(K key, long rounds) {
+            this.key = key;
+            this.rounds = rounds;
+        }
+    }
+
+    private final long tickMillis;
+    private final Node<K>[] slots; // Sentinel heads of circular lists
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private long currentTick; // Ticks up to and including this one have been processed
+    private long expiredCount = 0;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 1) throw new IllegalArgumentException("Tick length and wheel size must be positive.");
+        this.tickMillis = tickMillis;
+        this.slots = (Node<K>[]) new Node<?>[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            Node<K> head = new Node<>(null, 0);
+            head.prev = head.next = head;
+            slots[i] = head;
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Schedules a key to expire at a time (epoch milliseconds), replacing any earlier deadline for it.
+    // A deadline that has already passed expires on the next tick.
+    public synchronized void schedule(K key, long deadlineMillis) {
+        remove(key);
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Node<K> node = new Node<>(key, (deadlineTick - currentTick - 1) / slots.length);
+        Node<K> head = slots[(int) Math.floorMod(deadlineTick, (long) slots.length)];
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+        nodes.put(key, node);
+    }
+
+    // Forgets a key; returns whether it was scheduled
+    public synchronized boolean cancel(K key) {
+        return remove(key);
+    }
+
+    // Moves the wheel to a time and returns the keys that expired on the way
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+        if (targetTick <= currentTick) return expired;
+
+        long steps = Math.min(targetTick - currentTick, slots.length);
+        for (long i = 1; i <= steps; i++) {
+            long tick = currentTick + i;
+            long passes = (targetTick - tick) / slots.length + 1; // How often this slot's tick came round
+            Node<K> head = slots[(int) Math.floorMod(tick, (long) slots.length)];
+            for (Node<K> node = head.next; node != head; ) {
+                Node<K> next = node.next;
+                if (node.rounds < passes) {
+                    unlink(node);
+                    nodes.remove(node.key);
+                    expired.add(node.key);
+                } else {
+                    node.rounds -= passes;
+                }
+                node = next;
+            }
+        }
+        currentTick = targetTick;
+        expiredCount += expired.size();
+        return expired;
+    }
+
+    // Keys currently scheduled
+    public synchronized int getLiveCount() { return nodes.size(); }
+
+    // Keys expired by advance() since the wheel was created
+    public synchronized long getExpiredCount() { return expiredCount; }
+
+    public long getTickMillis() { return tickMillis; }
+
+    private boolean remove(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) return false;
+        unlink(node);
+        return true;
+    }
+
+    private static <K> void unlink(Node<K> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = node.next = null;
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import java.util.*;
+
+public final class Tokenizer {
+
+    // Utility class, no instances
+    private Tokenizer() {}
+
+    // Splits text into lower-case terms on anything that is not a letter or digit
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i; // Beginning of a new term
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT)); // End of the current term
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Returns the distinct terms of the given text, in first-seen order
+    public static Set<String> distinctTerms(String text) {
+        return new LinkedHashSet<>(tokenize(text));
+    }
+
+    // Splits a comma-separated list (keywords, authors) into distinct normalized entries, in first-seen order
+    public static Set<String> splitList(String list) {
+        Set<String> entries = new LinkedHashSet<>();
+        if (list == null) return entries;
+        for (String entry : list.split(",")) {
+            String normalized = normalizeEntry(entry);
+            if (!normalized.isEmpty()) entries.add(normalized);
+        }
+        return entries;
+    }
+
+    // Normal form of a single list entry: trimmed, inner whitespace collapsed, lower case
+    public static String normalizeEntry(String entry) {
+        if (entry == null) return "";
+        return entry.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
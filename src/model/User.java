@@ -5,7 +5,7 @@ import java.util.*;
 
 public class User {
 
-    // User attributes
+    // User attributes; password holds a PasswordHasher hash, never the password itself
     private String username, password, firstName, middleName, lastName, preferredFirstName, oneTimePassword;
     private List<String> roles = new ArrayList<>(); // List of roles assigned to the user
     private boolean accountSetupComplete = false; // Indicates whether the account setup is complete
@@ -23,12 +23,34 @@ public class User {
         this.roles.addAll(roles); // Add roles to the user's role list
     }
 
+    // Private constructor for users whose password is already hashed
+    private User(String username, List<String> roles) {
+        this.username = username;
+        this.roles.addAll(roles);
+    }
+
+    // Creates a user from a stored password hash (persisted users, or a hash computed off the UI thread)
+    public static User withPasswordHash(String username, String passwordHash, List<String> roles) {
+        User user = new User(username, roles);
+        user.setPasswordHash(passwordHash);
+        return user;
+    }
+
     // Getters and setters for user attributes
 
     // Get the username of the user
     public String getUsername() { return username; }
 
-    // Get the password of the user
+    // Get the individual name parts (null until account setup)
+    public String getFirstName() { return firstName; }
+
+    public String getMiddleName() { return middleName; }
+
+    public String getLastName() { return lastName; }
+
+    public String getPreferredFirstName() { return preferredFirstName; }
+
+    // Get the stored password hash of the user
     public String getPassword() { return password; }
 
     // Get the roles assigned to the user
@@ -37,8 +59,16 @@ public class User {
     // Check if the account setup is complete
     public boolean isAccountSetupComplete() { return accountSetupComplete; }
 
-    // Set the user's password
-    public void setPassword(String password) { this.password = password; }
+    // Set the user's password; hashing is CPU-heavy, so UI code hashes on PasswordHasher's pool and uses setPasswordHash
+    public void setPassword(String password) { this.password = PasswordHasher.getInstance().hash(password); }
+
+    // Set the user's password from an existing hash
+    public void setPasswordHash(String passwordHash) { this.password = passwordHash; }
+
+    // Check a password against the stored hash on the calling thread
+    public boolean checkPassword(String password) {
+        return PasswordHasher.getInstance().matches(password, this.password);
+    }
 
     // Set the roles for the user
     public void setRoles(List<String> roles) { this.roles = roles; }
@@ -95,16 +125,33 @@ public class User {
     // Nested Invitation class to represent invitations for users
     public static class Invitation {
         private List<String> roles; // Roles associated with the invitation
+        private LocalDateTime expiresAt; // When the code stops working, or null if it never does
 
-        // Constructor to initialize roles for the invitation
+        // Constructor to initialize roles for an invitation that does not expire
         public Invitation(List<String> roles) {
+            this(roles, null);
+        }
+
+        // Constructor to initialize roles and an expiry time for the invitation
+        public Invitation(List<String> roles, LocalDateTime expiresAt) {
             this.roles = roles;
+            this.expiresAt = expiresAt;
         }
 
         // Get the roles associated with the invitation
         public List<String> getRoles() {
             return roles;
         }
+
+        // Get the expiry time of the invitation, or null if it never expires
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+
+        // Check if the invitation can no longer be used
+        public boolean isExpired() {
+            return expiresAt != null && !LocalDateTime.now().isBefore(expiresAt);
+        }
     }
 }
 
@@ -0,0 +1,513 @@
+package model;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+// Durable storage for DataStore's users and invitations: an append-only mutation log plus periodic snapshots.
+//
+// Every mutation is appended as a framed record (length, CRC32, payload) holding the full new state of one user or
+// invitation, so replaying a record twice is harmless. Appends only fill an in-memory buffer; sync() makes them durable
+// with group commit: the first waiting thread writes and fsyncs everything buffered so far, and every thread whose
+// record was in that batch returns without an fsync of its own.
+//
+// Logs are numbered by generation (users-<gen>.log). Compaction switches appends to a new generation, writes the
+// current state to a snapshot that names that generation, atomically renames it over the previous snapshot and deletes
+// the older logs. Startup replays the snapshot and then every log from its generation on; a torn record at the end of
+// the newest log (a crash mid-write) is cut off.
+public class UserStore implements Closeable {
+
+    public static final int MAGIC = 0x41485553; // "AHUS"
+    public static final int VERSION = 1;
+
+    private static final String SNAPSHOT_FILE = "users.snapshot", SNAPSHOT_TEMP_FILE = "users.snapshot.tmp";
+    private static final String LOG_PREFIX = "users-", LOG_SUFFIX = ".log";
+
+    private static final byte PUT_USER = 1, DELETE_USER = 2, PUT_INVITATION = 3, REMOVE_INVITATION = 4;
+    private static final byte PUT_EXPIRING_INVITATION = 5; // Replaces PUT_INVITATION, which predates invitation expiry
+
+    // Records larger than this are treated as corruption rather than allocated
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    // Receives the records found at startup
+    public interface Replay {
+        void putUser(User user);
+
+        void deleteUser(String username);
+
+        void putInvitation(String code, User.Invitation invitation);
+
+        void removeInvitation(String code);
+    }
+
+    // Writes the complete current state into a snapshot
+    public interface StateSource {
+        void writeTo(SnapshotWriter snapshot) throws IOException;
+    }
+
+    // Handed to a StateSource during compaction
+    public static class SnapshotWriter {
+        private final DataOutputStream out;
+        private long records = 0;
+
+        private SnapshotWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public void user(User user) throws IOException {
+            writeFrame(out, encodeUser(user));
+            records++;
+        }
+
+        public void invitation(String code, User.Invitation invitation) throws IOException {
+            writeFrame(out, encodeInvitation(code, invitation));
+            records++;
+        }
+    }
+
+    private final Path directory;
+    private final long snapshotEvery;
+
+    // Guards the buffer, the sequence numbers and the log channel; I/O happens outside it except during rotation
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSeq = 0, syncedSeq = 0;
+    private boolean flushing = false;
+    private IOException failure; // Once a write fails the log can no longer be trusted, so every later sync fails
+    private FileChannel log;
+    private long generation = 0;
+    private long recordsSinceSnapshot = 0;
+
+    private long syncCount = 0, syncedRecords = 0, snapshotCount = 0;
+
+    private final ReentrantLock compaction = new ReentrantLock(); // One compaction at a time
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "user-store-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Opens the store in a directory (created if needed); replay() must be called before anything is logged
+    public UserStore(Path directory, long snapshotEvery) throws IOException {
+        if (snapshotEvery < 1) throw new IllegalArgumentException("Snapshot interval must be at least one record.");
+        this.directory = directory;
+        this.snapshotEvery = snapshotEvery;
+        Files.createDirectories(directory);
+    }
+
+    // Replays the snapshot and the logs after it, then opens the newest log for appending; returns the records replayed
+    public long replay(Replay target) throws IOException {
+        long replayed = 0;
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), 1 << 16))) {
+                if (in.readInt() != MAGIC) throw new IOException("Not a user store snapshot: " + snapshot);
+                if (in.readInt() != VERSION) throw new IOException("Unsupported user store snapshot version.");
+                generation = in.readLong();
+                long expected = in.readLong();
+                for (long i = 0; i < expected; i++) {
+                    byte[] payload = readFrame(in);
+                    if (payload == null) throw new IOException("User store snapshot is damaged: " + snapshot);
+                    apply(payload, target);
+                }
+                replayed += expected;
+            }
+        }
+
+        List<Long> generations = logGenerations();
+        for (long gen : generations) {
+            if (gen < generation) continue; // Already folded into the snapshot, left behind by an interrupted compaction
+            Path file = logFile(gen);
+            long goodBytes = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                byte[] payload;
+                while ((payload = readFrame(in)) != null) {
+                    apply(payload, target);
+                    goodBytes += 8 + payload.length;
+                    replayed++;
+                    recordsSinceSnapshot++;
+                }
+            }
+            if (Files.size(file) > goodBytes) {
+                // Only the newest log can end in a torn record; later logs were started after this one was complete
+                if (gen != generations.get(generations.size() - 1)) throw new IOException("User store log is damaged: " + file);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(goodBytes); // Cut off a torn record
+                }
+            }
+            generation = Math.max(generation, gen);
+        }
+
+        log = openLog(generation);
+        return replayed;
+    }
+
+    // Appends records; none is durable until sync() returns for its sequence number
+
+    public long logPutUser(User user) {
+        return append(encodeUser(user));
+    }
+
+    public long logDeleteUser(String username) {
+        return append(encode(DELETE_USER, username));
+    }
+
+    public long logPutInvitation(String code, User.Invitation invitation) {
+        return append(encodeInvitation(code, invitation));
+    }
+
+    public long logRemoveInvitation(String code) {
+        return append(encode(REMOVE_INVITATION, code));
+    }
+
+    private long append(byte[] payload) {
+        lock.lock();
+        try {
+            if (log == null) throw new IllegalStateException("The user store has not been replayed or is closed.");
+            writeFrame(new DataOutputStream(pending), payload);
+            recordsSinceSnapshot++;
+            return ++appendedSeq;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Writing to a byte array cannot fail
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits until the record with this sequence number (and everything before it) is on disk
+    public void sync(long seq) throws IOException {
+        lock.lock();
+        try {
+            while (syncedSeq < seq) {
+                if (failure != null) throw failure;
+                if (flushing) {
+                    flushed.awaitUninterruptibly(); // Another thread is writing a batch; ours may be in it
+                    continue;
+                }
+                // Become the leader for everything buffered so far
+                flushing = true;
+                byte[] batch = pending.toByteArray();
+                pending = new ByteArrayOutputStream();
+                long upTo = appendedSeq, records = appendedSeq - syncedSeq;
+                FileChannel channel = log;
+                lock.unlock();
+                IOException error = null;
+                try {
+                    writeFully(channel, batch);
+                    channel.force(false);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+                flushing = false;
+                if (error == null) {
+                    syncedSeq = upTo;
+                    syncCount++;
+                    syncedRecords += records;
+                } else {
+                    failure = error;
+                }
+                flushed.signalAll();
+            }
+            if (failure != null && syncedSeq < seq) throw failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // True once enough records were logged since the last snapshot
+    public boolean isSnapshotDue() {
+        lock.lock();
+        try {
+            return recordsSinceSnapshot >= snapshotEvery;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Schedules a compaction on the background thread unless one is already running
+    public void compactInBackground(StateSource state) {
+        if (!compactionScheduled.compareAndSet(false, true)) return;
+        compactor.execute(() -> {
+            try {
+                compact(state);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("User store compaction failed: " + e.getMessage()); // The log still holds everything
+            } finally {
+                compactionScheduled.set(false);
+            }
+        });
+    }
+
+    // Starts a new log generation, snapshots the state into it and deletes the logs it replaces.
+    // The state must reflect every record appended before this call; later records go to the new log.
+    public void compact(StateSource state) throws IOException {
+        compaction.lock();
+        try {
+            compactNow(state);
+        } finally {
+            compaction.unlock();
+        }
+    }
+
+    private void compactNow(StateSource state) throws IOException {
+        long newGeneration = rotate();
+
+        Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        long records;
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(newGeneration);
+            out.writeLong(0); // Record count, filled in below
+            SnapshotWriter writer = new SnapshotWriter(out);
+            state.writeTo(writer);
+            records = writer.records;
+            out.flush();
+            file.getChannel().position(16).write(ByteBuffer.allocate(8).putLong(0, records));
+            file.getFD().sync();
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (long gen : logGenerations()) {
+            if (gen < newGeneration) Files.deleteIfExists(logFile(gen));
+        }
+        lock.lock();
+        try {
+            snapshotCount++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Flushes the current log and switches appends to a fresh generation; returns the new generation
+    private long rotate() throws IOException {
+        lock.lock();
+        try {
+            if (log == null) throw new IllegalStateException("The user store has not been replayed or is closed.");
+            while (flushing) flushed.awaitUninterruptibly();
+            if (failure != null) throw failure;
+            writeFully(log, pending.toByteArray());
+            log.force(false);
+            pending = new ByteArrayOutputStream();
+            syncedSeq = appendedSeq;
+            log.close();
+            log = openLog(++generation);
+            recordsSinceSnapshot = 0;
+            flushed.signalAll();
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Flushes anything buffered and closes the log
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        lock.lock();
+        try {
+            if (log == null) return;
+            while (flushing) flushed.awaitUninterruptibly();
+            writeFully(log, pending.toByteArray());
+            log.force(false);
+            pending = new ByteArrayOutputStream();
+            syncedSeq = appendedSeq;
+            log.close();
+            log = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getDirectory() { return directory; }
+
+    // One-line summary for logging and the admin UI
+    public String getMetrics() {
+        lock.lock();
+        try {
+            return String.format("Generation: %d, Records since snapshot: %d, Fsyncs: %d, Records per fsync: %.1f, Snapshots: %d",
+                    generation, recordsSinceSnapshot, syncCount, syncCount == 0 ? 0.0 : (double) syncedRecords / syncCount,
+                    snapshotCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Files and framing
+
+    private Path logFile(long gen) {
+        return directory.resolve(LOG_PREFIX + gen + LOG_SUFFIX);
+    }
+
+    private FileChannel openLog(long gen) throws IOException {
+        return FileChannel.open(logFile(gen), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // Generations of the log files present, oldest first
+    private List<Long> logGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, LOG_PREFIX + "*" + LOG_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    generations.add(Long.parseLong(name.substring(LOG_PREFIX.length(), name.length() - LOG_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static void writeFrame(DataOutputStream out, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        out.writeInt(payload.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payload);
+    }
+
+    // Next payload, or null at the end of the stream or at a torn or damaged record
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        int length, crc;
+        try {
+            length = in.readInt();
+            crc = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0 || length > MAX_RECORD_BYTES) return null;
+        byte[] payload = new byte[length];
+        try {
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        CRC32 check = new CRC32();
+        check.update(payload);
+        return (int) check.getValue() == crc ? payload : null;
+    }
+
+    // Records
+
+    private static byte[] encode(byte type, String key) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            out.writeUTF(key);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encodeUser(User user) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(PUT_USER);
+            out.writeUTF(user.getUsername());
+            writeNullable(out, user.getPassword());
+            writeNullable(out, user.getFirstName());
+            writeNullable(out, user.getMiddleName());
+            writeNullable(out, user.getLastName());
+            writeNullable(out, user.getPreferredFirstName());
+            List<String> roles = user.getRoles();
+            out.writeShort(roles.size());
+            for (String role : roles) out.writeUTF(role);
+            out.writeBoolean(user.isAccountSetupComplete());
+            writeNullable(out, user.getOneTimePassword());
+            writeNullable(out, user.getPasswordExpiry() == null ? null : user.getPasswordExpiry().toString());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encodeInvitation(String code, User.Invitation invitation) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(PUT_EXPIRING_INVITATION);
+            out.writeUTF(code);
+            List<String> roles = invitation.getRoles();
+            out.writeShort(roles.size());
+            for (String role : roles) out.writeUTF(role);
+            writeNullable(out, invitation.getExpiresAt() == null ? null : invitation.getExpiresAt().toString());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void apply(byte[] payload, Replay target) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        switch (type) {
+            case PUT_USER -> {
+                String username = in.readUTF(), password = readNullable(in);
+                String firstName = readNullable(in), middleName = readNullable(in), lastName = readNullable(in),
+                        preferredFirstName = readNullable(in);
+                List<String> roles = readRoles(in);
+                boolean setupComplete = in.readBoolean();
+                String otp = readNullable(in), expiry = readNullable(in);
+
+                User user = User.withPasswordHash(username, password, roles);
+                user.setDetails(null, firstName, middleName, lastName, preferredFirstName);
+                user.setAccountSetupComplete(setupComplete);
+                if (otp != null) user.setOneTimePassword(otp, expiry == null ? null : LocalDateTime.parse(expiry));
+                target.putUser(user);
+            }
+            case DELETE_USER -> target.deleteUser(in.readUTF());
+            case PUT_INVITATION -> {
+                String code = in.readUTF();
+                target.putInvitation(code, new User.Invitation(readRoles(in)));
+            }
+            case PUT_EXPIRING_INVITATION -> {
+                String code = in.readUTF();
+                List<String> roles = readRoles(in);
+                String expiry = readNullable(in);
+                target.putInvitation(code, new User.Invitation(roles, expiry == null ? null : LocalDateTime.parse(expiry)));
+            }
+            case REMOVE_INVITATION -> target.removeInvitation(in.readUTF());
+            default -> throw new IOException("Unknown user store record type " + type + ".");
+        }
+    }
+
+    private static List<String> readRoles(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        List<String> roles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) roles.add(in.readUTF());
+        return roles;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,84 @@
+package testJUnit;
+
+import model.ArticleCache;
+import model.DatabaseHelper;
+import org.junit.jupiter.api.*;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ArticleCaching {
+
+    private DatabaseHelper databaseHelper;
+
+    @BeforeAll
+    void setup() {
+        databaseHelper = DatabaseHelper.getInstance();
+        System.out.println("Initialized DatabaseHelper instance.");
+    }
+
+    @BeforeEach
+    void clearDatabase() throws SQLException {
+        databaseHelper.clearDatabase();
+        System.out.println("Database cleared.");
+    }
+
+    @Test
+    void testRepeatViewsAreServedFromCache() throws SQLException {
+        System.out.println("Running testRepeatViewsAreServedFromCache...");
+
+        databaseHelper.addArticle("Cached Article", "Author", "Abstract", "Beginner", DatabaseHelper.encryptContent("Secret body"), "Ref", true);
+        int articleId = databaseHelper.listArticles(0, 1).getLastId();
+        ArticleCache cache = databaseHelper.getArticleCache();
+        long hitsBefore = cache.getHitCount();
+
+        String first = databaseHelper.viewArticle(articleId);
+        String second = databaseHelper.viewArticle(articleId);
+
+        System.out.println("Cache metrics: " + cache.getMetrics());
+        assertTrue(first.contains("Body: Secret body"), "The cached details should hold the decrypted body.");
+        assertEquals(first, second);
+        assertEquals(hitsBefore + 1, cache.getHitCount(), "The second view should be a cache hit.");
+    }
+
+    @Test
+    void testWritesInvalidateCachedArticles() throws SQLException {
+        System.out.println("Running testWritesInvalidateCachedArticles...");
+
+        databaseHelper.addArticle("Soon Deleted", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        int articleId = databaseHelper.listArticles(0, 1).getLastId();
+        assertTrue(databaseHelper.viewArticle(articleId).contains("Soon Deleted"));
+
+        databaseHelper.deleteArticle(1);
+        assertEquals("Article not found.", databaseHelper.viewArticle(articleId), "A deleted article must not be served from the cache.");
+
+        databaseHelper.viewArticle(articleId); // Not found results are never cached
+        databaseHelper.clearDatabase();
+        assertEquals(0, databaseHelper.getArticleCache().getEntryCount(), "Clearing the database should empty the cache.");
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedWithinByteBudget() {
+        System.out.println("Running testEvictsLeastRecentlyUsedWithinByteBudget...");
+
+        ArticleCache cache = new ArticleCache(1_500); // Room for two 300-character entries plus overhead
+        String details = "x".repeat(300);
+        cache.put(1, details, cache.stamp());
+        cache.put(2, details, cache.stamp());
+        cache.get(1); // 2 becomes the least recently used entry
+        cache.put(3, details, cache.stamp());
+
+        assertNotNull(cache.get(1));
+        assertNull(cache.get(2), "The least recently used entry should be evicted.");
+        assertNotNull(cache.get(3));
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.getSizeBytes() <= cache.getMaxBytes());
+
+        long stamp = cache.stamp();
+        cache.invalidate(4); // A write happens while article 4 is being loaded
+        cache.put(4, details, stamp);
+        assertNull(cache.get(4), "A load that raced with a write must not be cached.");
+    }
+}
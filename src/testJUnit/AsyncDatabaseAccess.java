@@ -0,0 +1,135 @@
+package testJUnit;
+
+import model.ArticleBackup;
+import model.AsyncDatabaseHelper;
+import model.DatabaseHelper;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncDatabaseAccess {
+
+    private DatabaseHelper databaseHelper;
+    private AsyncDatabaseHelper asyncDatabase;
+
+    @BeforeAll
+    void setup() {
+        databaseHelper = DatabaseHelper.getInstance();
+        System.out.println("Initialized DatabaseHelper instance.");
+    }
+
+    @BeforeEach
+    void createFacade() throws SQLException {
+        databaseHelper.clearDatabase();
+        asyncDatabase = new AsyncDatabaseHelper(databaseHelper, 2, 2_000);
+        System.out.println("Created an async facade allowing two concurrent calls.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncDatabase.shutdown();
+    }
+
+    // A call that holds its permit until released
+    private static AsyncDatabaseHelper.DatabaseCall<Integer> blockingCall(CountDownLatch release, AtomicInteger running,
+            AtomicInteger peak) {
+        return db -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+            return 1;
+        };
+    }
+
+    @Test
+    void testResultsArriveAsynchronously() throws Exception {
+        System.out.println("Running testResultsArriveAsynchronously...");
+
+        asyncDatabase.addArticle("Async Article", "Author", "Abstract", "Beginner", "Body", "Ref", false).get(5, TimeUnit.SECONDS);
+        List<String> results = asyncDatabase.searchArticles("Async", "All", "All").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, results.size(), "The article added through the facade should be found through it.");
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> asyncDatabase.deleteArticle(99).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, failure.getCause(), "Database errors should be delivered through the future.");
+    }
+
+    @Test
+    void testConcurrencyIsBounded() throws Exception {
+        System.out.println("Running testConcurrencyIsBounded...");
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger(), peak = new AtomicInteger();
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) calls.add(asyncDatabase.submit(blockingCall(release, running, peak)));
+
+        Thread.sleep(200); // Let every call reach the semaphore
+        assertEquals(2, asyncDatabase.getRunningCount(), "Only two calls should run at once.");
+        assertEquals(4, asyncDatabase.getQueuedCount(), "The rest should wait for a permit.");
+
+        release.countDown();
+        for (CompletableFuture<Integer> call : calls) assertEquals(1, call.get(5, TimeUnit.SECONDS));
+        assertEquals(2, peak.get(), "The bound should never have been exceeded.");
+    }
+
+    @Test
+    void testBackupCancelledThroughProgressCompletesWhenStopped() throws Exception {
+        System.out.println("Running testBackupCancelledThroughProgressCompletesWhenStopped...");
+
+        Path file = Files.createTempFile("async-backup", ".bak");
+        Files.delete(file);
+        ArticleBackup.Progress cancelNow = new ArticleBackup.Progress() {
+            @Override
+            public void onProgress(long rowsDone, long totalRows) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+
+        CompletableFuture<Long> backup = asyncDatabase.backupArticles(file.toString(), false, cancelNow);
+        assertThrows(CancellationException.class, () -> backup.get(5, TimeUnit.SECONDS));
+
+        assertFalse(Files.exists(Path.of(file + ".part")), "The future should complete only after the backup cleaned up.");
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testTimeoutAndCancellationReleaseTheCaller() throws Exception {
+        System.out.println("Running testTimeoutAndCancellationReleaseTheCaller...");
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger(), peak = new AtomicInteger();
+        asyncDatabase.submit(blockingCall(release, running, peak), 0);
+        asyncDatabase.submit(blockingCall(release, running, peak), 0);
+
+        // Both permits are taken: this call times out in the queue, the next one is cancelled there
+        CompletableFuture<Integer> timedOut = asyncDatabase.submit(db -> 1, 100);
+        AtomicInteger skippedRuns = new AtomicInteger();
+        CompletableFuture<Integer> cancelled = asyncDatabase.submit(db -> skippedRuns.incrementAndGet(), 0);
+        cancelled.cancel(false);
+
+        ExecutionException timeout = assertThrows(ExecutionException.class, () -> timedOut.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, timeout.getCause());
+        assertTrue(cancelled.isCancelled());
+
+        release.countDown();
+        assertEquals(7, asyncDatabase.submit(db -> 7).get(5, TimeUnit.SECONDS), "The facade should keep working afterwards.");
+        assertEquals(0, skippedRuns.get(), "A call cancelled while queued should never run.");
+    }
+}
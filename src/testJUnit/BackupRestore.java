@@ -0,0 +1,234 @@
+package testJUnit;
+
+import model.Article;
+import model.ArticleBackup;
+import model.DatabaseHelper;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BackupRestore {
+
+    private DatabaseHelper databaseHelper;
+
+    @TempDir
+    Path backupDir;
+
+    @BeforeAll
+    void setup() {
+        databaseHelper = DatabaseHelper.getInstance();
+        System.out.println("Initialized DatabaseHelper instance.");
+    }
+
+    @BeforeEach
+    void clearDatabase() throws SQLException {
+        databaseHelper.clearDatabase();
+        databaseHelper.importArticles(IntStream.rangeClosed(1, 2_500).mapToObj(i ->
+                new Article("Backup Article " + i, "Author " + i, "Abstract " + i, "Beginner", "Body of article " + i, "Ref", false)),
+                500, 2_500);
+        System.out.println("Database reset with 2500 articles.");
+    }
+
+    @Test
+    void testBackupAndRestoreRoundTrip() throws Exception {
+        System.out.println("Running testBackupAndRestoreRoundTrip...");
+
+        // Arrange
+        String file = backupDir.resolve("articles.bak").toString();
+        long[] lastProgress = new long[2];
+
+        // Act
+        long rows = databaseHelper.backupArticles(file, (done, total) -> { lastProgress[0] = done; lastProgress[1] = total; });
+        databaseHelper.addArticle("Added After Backup", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        databaseHelper.deleteArticle(1);
+        databaseHelper.restoreArticles(file);
+
+        System.out.println("Backup wrote " + rows + " rows in " + Files.size(Path.of(file)) + " bytes.");
+
+        // Assert
+        assertEquals(2_500, rows, "Every article should be backed up.");
+        assertEquals(2_500, lastProgress[0], "The final progress report should cover every row.");
+        assertEquals(2_500, databaseHelper.listArticles().size(), "The restore should bring back exactly the backed up rows.");
+        assertTrue(databaseHelper.searchArticles("Added", "All", "All").isEmpty(), "Rows added after the backup should be gone.");
+        assertTrue(databaseHelper.listArticles().get(0).contains("Backup Article 1,"), "The deleted article should be back.");
+        assertEquals(1, databaseHelper.getArticleIdsByAuthor("Author 1").size(), "Author lookups should be restored too.");
+    }
+
+    @Test
+    void testCancelledBackupLeavesNoFile() {
+        System.out.println("Running testCancelledBackupLeavesNoFile...");
+
+        Path file = backupDir.resolve("cancelled.bak");
+        ArticleBackup.Progress cancelAfterFirstCheckpoint = new ArticleBackup.Progress() {
+            private boolean checkpointed = false;
+
+            @Override
+            public void onProgress(long rowsDone, long totalRows) {
+                checkpointed = true;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return checkpointed;
+            }
+        };
+
+        assertThrows(CancellationException.class, () -> databaseHelper.backupArticles(file.toString(), cancelAfterFirstCheckpoint));
+        assertFalse(Files.exists(file), "A cancelled backup must not leave a backup file.");
+        assertFalse(Files.exists(Path.of(file + ".part")), "A cancelled backup must clean up its partial file.");
+    }
+
+    @Test
+    void testCorruptBackupIsRejected() throws Exception {
+        System.out.println("Running testCorruptBackupIsRejected...");
+
+        Path file = backupDir.resolve("corrupt.bak");
+        databaseHelper.backupArticles(file.toString());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A; // Flip bits in the middle of a chunk
+        Files.write(file, bytes);
+
+        databaseHelper.addArticle("Survivor", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        assertThrows(SQLException.class, () -> databaseHelper.restoreArticles(file.toString()));
+        assertEquals(2_501, databaseHelper.listArticles().size(), "A failed restore must leave the live table untouched.");
+    }
+
+    @Test
+    void testIncrementalBackupChain() throws Exception {
+        System.out.println("Running testIncrementalBackupChain...");
+
+        // Arrange: a full backup followed by two rounds of changes, each captured incrementally
+        String full = backupDir.resolve("full.bak").toString();
+        String delta1 = backupDir.resolve("delta1.bak").toString();
+        String delta2 = backupDir.resolve("delta2.bak").toString();
+        databaseHelper.backupArticles(full);
+
+        databaseHelper.addArticle("Delta One", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        databaseHelper.deleteArticle(1);
+        long firstDelta = databaseHelper.backupArticlesIncremental(delta1, null);
+
+        databaseHelper.addArticle("Delta Two", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        long secondDelta = databaseHelper.backupArticlesIncremental(delta2, null);
+
+        System.out.println("Full backup: " + Files.size(Path.of(full)) + " bytes, deltas: "
+                + Files.size(Path.of(delta1)) + " and " + Files.size(Path.of(delta2)) + " bytes.");
+
+        // Act: lose everything, then restore the chain
+        databaseHelper.addArticle("Not Backed Up", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        databaseHelper.restoreArticles(full, List.of(delta1, delta2));
+
+        // Assert
+        assertEquals(2, firstDelta, "The first delta should hold one insert and one delete.");
+        assertEquals(1, secondDelta, "The second delta should hold only the newest insert.");
+        assertTrue(Files.size(Path.of(delta2)) < Files.size(Path.of(full)) / 10, "Deltas should be much smaller than full backups.");
+        assertEquals(2_501, databaseHelper.listArticles().size(), "2500 - 1 deleted + 2 added articles should be restored.");
+        assertEquals(1, databaseHelper.searchArticles("Delta One", "All", "All").size());
+        assertEquals(1, databaseHelper.searchArticles("Delta Two", "All", "All").size());
+        assertTrue(databaseHelper.searchArticles("Not Backed", "All", "All").isEmpty());
+        assertThrows(SQLException.class, () -> databaseHelper.backupArticlesIncremental(delta1, null),
+                "After a restore the next backup has to be a full one.");
+    }
+
+    @Test
+    void testChainPositionNeverGoesBackwards() throws Exception {
+        System.out.println("Running testChainPositionNeverGoesBackwards...");
+
+        // Arrange: the full backup prunes the whole journal, then a delta with nothing in it, then a real change
+        String full = backupDir.resolve("pruned.bak").toString();
+        String empty = backupDir.resolve("empty.bak").toString();
+        String delta = backupDir.resolve("after.bak").toString();
+        databaseHelper.backupArticles(full);
+        long emptyDelta = databaseHelper.backupArticlesIncremental(empty, null);
+        databaseHelper.addArticle("After Pruning", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        databaseHelper.backupArticlesIncremental(delta, null);
+
+        // Act
+        long fullTo, emptyFrom, emptyTo, deltaFrom, deltaTo;
+        try (ArticleBackup.Reader reader = new ArticleBackup.Reader(Files.newInputStream(Path.of(full)))) {
+            fullTo = reader.getToSeq();
+        }
+        try (ArticleBackup.Reader reader = new ArticleBackup.Reader(Files.newInputStream(Path.of(empty)))) {
+            emptyFrom = reader.getFromSeq();
+            emptyTo = reader.getToSeq();
+        }
+        try (ArticleBackup.Reader reader = new ArticleBackup.Reader(Files.newInputStream(Path.of(delta)))) {
+            deltaFrom = reader.getFromSeq();
+            deltaTo = reader.getToSeq();
+        }
+        databaseHelper.restoreArticles(full, List.of(empty, delta));
+
+        // Assert
+        assertEquals(0, emptyDelta, "Nothing changed since the full backup.");
+        assertEquals(fullTo, emptyFrom);
+        assertEquals(fullTo, emptyTo, "An empty journal must not move the position back to zero.");
+        assertEquals(emptyTo, deltaFrom);
+        assertTrue(deltaTo > deltaFrom, "The new change should move the position forward.");
+        assertEquals(1, databaseHelper.searchArticles("After Pruning", "All", "All").size());
+    }
+
+    @Test
+    void testBrokenChainIsRejected() throws Exception {
+        System.out.println("Running testBrokenChainIsRejected...");
+
+        String full = backupDir.resolve("base.bak").toString();
+        String delta1 = backupDir.resolve("d1.bak").toString();
+        String delta2 = backupDir.resolve("d2.bak").toString();
+        databaseHelper.backupArticles(full);
+        databaseHelper.addArticle("First Change", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        databaseHelper.backupArticlesIncremental(delta1, null);
+        databaseHelper.addArticle("Second Change", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        databaseHelper.backupArticlesIncremental(delta2, null);
+
+        assertThrows(SQLException.class, () -> databaseHelper.restoreArticles(full, List.of(delta2)),
+                "Skipping a delta should be detected.");
+        assertEquals(2_502, databaseHelper.listArticles().size(), "A rejected chain must leave the live table untouched.");
+    }
+
+    @Test
+    void testReadersKeepWorkingDuringRestore() throws Exception {
+        System.out.println("Running testReadersKeepWorkingDuringRestore...");
+
+        // Arrange: a reader polls the table for the whole restore
+        String file = backupDir.resolve("live.bak").toString();
+        databaseHelper.backupArticles(file);
+        databaseHelper.addArticle("Replaced By Restore", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+
+        AtomicBoolean restoring = new AtomicBoolean(true);
+        AtomicInteger smallestCount = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicInteger reads = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (restoring.get()) {
+                try {
+                    smallestCount.accumulateAndGet(databaseHelper.listArticles().size(), Math::min);
+                    reads.incrementAndGet();
+                } catch (SQLException e) {
+                    smallestCount.set(-1); // The table disappeared or was locked out
+                }
+            }
+        });
+
+        // Act
+        reader.start();
+        databaseHelper.restoreArticles(file);
+        restoring.set(false);
+        reader.join();
+
+        System.out.println("Reader completed " + reads.get() + " listings during the restore.");
+
+        // Assert
+        assertEquals(2_500, smallestCount.get(), "Readers should only ever see a complete table.");
+        assertEquals(2_500, databaseHelper.listArticles().size());
+        assertTrue(databaseHelper.searchArticles("Replaced", "All", "All").isEmpty());
+    }
+}
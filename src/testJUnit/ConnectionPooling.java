@@ -0,0 +1,102 @@
+package testJUnit;
+
+import model.ConnectionPool;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConnectionPooling {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setup() {
+        pool = new ConnectionPool("jdbc:h2:mem:poolTest;DB_CLOSE_DELAY=-1", "sa", "", 2, 500, 0);
+        System.out.println("Created a pool with two connections.");
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testConnectionsAreReused() throws SQLException {
+        System.out.println("Running testConnectionsAreReused...");
+
+        try (Connection conn = pool.getConnection()) {
+            assertTrue(conn.isValid(1), "A new connection should be valid.");
+            assertEquals(1, pool.getActiveCount(), "One connection should be active while borrowed.");
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertTrue(conn.isValid(1), "A reused connection should still be valid.");
+        }
+
+        System.out.println("Pool metrics: " + pool.getMetrics());
+        assertEquals(0, pool.getActiveCount(), "No connection should be active after all are returned.");
+        assertEquals(1, pool.getOpenCount(), "Sequential callers should share a single physical connection.");
+        assertEquals(1, pool.getIdleCount(), "The returned connection should be idle in the pool.");
+    }
+
+    @Test
+    void testReleaseResetsTransactionState() throws SQLException {
+        System.out.println("Running testReleaseResetsTransactionState...");
+
+        int isolation;
+        try (Connection conn = pool.getConnection()) {
+            isolation = conn.getTransactionIsolation();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE); // Returned without being put back
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertTrue(conn.getAutoCommit(), "A reused connection should be in auto-commit mode.");
+            assertEquals(isolation, conn.getTransactionIsolation(), "A reused connection should be at the default isolation.");
+        }
+        assertEquals(1, pool.getOpenCount(), "The same physical connection should have been reused.");
+    }
+
+    @Test
+    void testAcquireTimesOutWhenExhausted() throws SQLException {
+        System.out.println("Running testAcquireTimesOutWhenExhausted...");
+
+        List<Connection> borrowed = new ArrayList<>();
+        borrowed.add(pool.getConnection());
+        borrowed.add(pool.getConnection());
+
+        assertThrows(SQLException.class, pool::getConnection, "A third caller should time out on a pool of two.");
+        assertEquals(1, pool.getTimeoutCount(), "The timeout should be counted.");
+
+        for (Connection conn : borrowed) conn.close();
+        assertEquals(2, pool.getIdleCount(), "Both connections should be back in the pool.");
+    }
+
+    @Test
+    void testConcurrentBorrowersStayWithinBound() throws Exception {
+        System.out.println("Running testConcurrentBorrowersStayWithinBound...");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            results.add(executor.submit(() -> {
+                try (Connection conn = pool.getConnection()) {
+                    assertTrue(pool.getActiveCount() <= 2, "Active connections must never exceed the pool size.");
+                    return conn.createStatement().executeQuery("SELECT 1").next() ? 1 : 0;
+                }
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> result : results) total += result.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        System.out.println("Pool metrics: " + pool.getMetrics());
+        assertEquals(40, total, "Every caller should eventually get a connection.");
+        assertTrue(pool.getOpenCount() <= 2, "No more than two physical connections should be opened.");
+    }
+}
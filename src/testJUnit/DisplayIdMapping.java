@@ -0,0 +1,56 @@
+package testJUnit;
+
+import model.ArticleIdIndex;
+import org.junit.jupiter.api.*;
+
+import java.util.TreeSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisplayIdMapping {
+
+    @Test
+    void testRankAndSelectAfterDeletes() {
+        System.out.println("Running testRankAndSelectAfterDeletes...");
+
+        ArticleIdIndex index = new ArticleIdIndex();
+        for (int id : new int[] { 3, 7, 8, 15, 42 }) index.add(id);
+        index.remove(8);
+
+        assertEquals(4, index.size(), "Four IDs should remain after one delete.");
+        assertEquals(3, index.select(1), "Display ID 1 should map to the smallest live ID.");
+        assertEquals(15, index.select(3), "Display IDs should skip deleted articles.");
+        assertEquals(42, index.select(4));
+        assertEquals(-1, index.select(5), "Display IDs past the end should be rejected.");
+        assertEquals(3, index.rank(15), "Rank should be the inverse of select.");
+        assertEquals(-1, index.rank(8), "Deleted IDs should have no rank.");
+    }
+
+    @Test
+    void testMatchesSortedSetAcrossGrowth() {
+        System.out.println("Running testMatchesSortedSetAcrossGrowth...");
+
+        ArticleIdIndex index = new ArticleIdIndex();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int id = 1 + random.nextInt(50_000); // Forces the tree to grow several times
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                index.add(id);
+                expected.add(id);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        int displayId = 1;
+        for (int id : expected) {
+            assertEquals(id, index.select(displayId), "Select mismatch at display ID " + displayId);
+            assertEquals(displayId, index.rank(id), "Rank mismatch for ID " + id);
+            displayId++;
+        }
+    }
+}
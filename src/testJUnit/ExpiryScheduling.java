@@ -0,0 +1,102 @@
+package testJUnit;
+
+import model.DataStore;
+import model.TimingWheel;
+import model.User;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpiryScheduling {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("user-expiry");
+        System.out.println("User store directory: " + directory);
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testTimingWheelExpiresOnlyDueKeys() {
+        System.out.println("Starting test for the timing wheel.");
+
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule("soon", 250);
+        wheel.schedule("nextTurn", 1_050); // More than one revolution ahead, in the same slot as a nearer tick
+        wheel.schedule("cancelled", 300);
+        wheel.schedule("moved", 200);
+        wheel.schedule("moved", 2_000);
+        wheel.schedule("past", -500);
+        assertTrue(wheel.cancel("cancelled"));
+        assertEquals(4, wheel.getLiveCount());
+
+        assertEquals(List.of("past"), wheel.advance(199), "Only a deadline already passed should expire on the first tick.");
+        assertEquals(List.of("soon"), wheel.advance(300));
+        assertEquals(List.of(), wheel.advance(1_000), "Keys a turn ahead should wait for their turn.");
+        assertEquals(List.of("nextTurn"), wheel.advance(1_100));
+        assertEquals(List.of("moved"), wheel.advance(10_000), "A jump past a whole turn should still find every due key.");
+        assertEquals(0, wheel.getLiveCount());
+
+        wheel.schedule("far", 13_550); // Four revolutions ahead
+        assertEquals(List.of(), wheel.advance(12_000), "Its slot came round three times during the jump.");
+        assertEquals(List.of(), wheel.advance(13_500), "One more revolution, still one tick early.");
+        assertEquals(List.of("far"), wheel.advance(13_600));
+        assertEquals(5, wheel.getExpiredCount());
+        System.out.println("Validated: Timing wheel expires keys on time.");
+    }
+
+    @Test
+    void testInvitationsAndOneTimePasswordsExpire() {
+        System.out.println("Starting test for invitation and one-time password expiry.");
+
+        DataStore store = DataStore.open(directory, 10_000);
+        LocalDateTime now = LocalDateTime.now();
+        store.getInvitations().put("OLD1", new User.Invitation(List.of("Student"), now.plusSeconds(2)));
+        store.getInvitations().put("KEEP", new User.Invitation(List.of("Student"))); // Never expires
+        User.Invitation fresh = store.addInvitation("NEW1", List.of("Instructor"));
+        assertTrue(fresh.getExpiresAt().isAfter(now.plusHours(1)), "Generated codes should get the default lifetime.");
+
+        User user = new User("otpUser", "pw", List.of("Student"));
+        store.registerUser(user);
+        store.updateUser(user, u -> u.setOneTimePassword("1234", now.plusSeconds(2)));
+        assertEquals(2, store.getLiveInvitationCount());
+        assertEquals(1, store.getLiveOneTimePasswordCount());
+
+        store.expireDue(System.currentTimeMillis() + 10_000);
+        assertFalse(store.getInvitations().containsKey("OLD1"), "An expired invitation should be evicted.");
+        assertTrue(store.getInvitations().containsKey("KEEP"));
+        assertTrue(store.getInvitations().containsKey("NEW1"));
+        assertNull(user.getOneTimePassword(), "An expired one-time password should be cleared.");
+        assertEquals(1, store.getExpiredInvitationCount());
+        assertEquals(1, store.getExpiredOneTimePasswordCount());
+        assertEquals(1, store.getLiveInvitationCount());
+        assertEquals(0, store.getLiveOneTimePasswordCount());
+        System.out.println("Expiry metrics: " + store.getExpiryMetrics());
+        store.closeUserStore();
+
+        DataStore reopened = DataStore.open(directory, 10_000);
+        assertFalse(reopened.getInvitations().containsKey("OLD1"), "The eviction should be persisted.");
+        assertEquals(fresh.getExpiresAt(), reopened.getInvitations().get("NEW1").getExpiresAt());
+        assertNull(reopened.findUserByUsername("otpUser").getOneTimePassword());
+        assertEquals(1, reopened.getLiveInvitationCount(), "Deadlines should be put back on the wheel after a restart.");
+        reopened.closeUserStore();
+        System.out.println("Validated: Invitations and one-time passwords expire and stay expired.");
+    }
+}
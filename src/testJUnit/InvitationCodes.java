@@ -0,0 +1,98 @@
+package testJUnit;
+
+import model.DataStore;
+import model.InvitationCodeGenerator;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InvitationCodes {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("invitation-codes");
+        System.out.println("User store directory: " + directory);
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testGeneratorCoversWholeDomainWithoutRepeats() {
+        System.out.println("Starting test for exhausting the 4-character code space.");
+
+        InvitationCodeGenerator generator = new InvitationCodeGenerator(4, 42L);
+        int capacity = (int) generator.getCapacity();
+        BitSet seen = new BitSet(capacity);
+        for (int i = 0; i < capacity; i++) {
+            String code = generator.next();
+            int value = 0;
+            for (char c : code.toCharArray()) {
+                int digit = InvitationCodeGenerator.ALPHABET.indexOf(c);
+                assertTrue(digit >= 0, "Codes should only use the code alphabet.");
+                value = value * 32 + digit;
+            }
+            assertFalse(seen.get(value), "Code " + code + " was issued twice.");
+            seen.set(value);
+        }
+        assertEquals(capacity, seen.cardinality());
+        assertThrows(IllegalStateException.class, generator::next, "An exhausted generator should refuse to repeat.");
+        System.out.println("Validated: All " + capacity + " codes issued exactly once.");
+
+        InvitationCodeGenerator same = new InvitationCodeGenerator(4, 42L), other = new InvitationCodeGenerator(4, 43L);
+        String first = same.next();
+        assertEquals(first, new InvitationCodeGenerator(4, 42L).next(), "A fixed key should reproduce the sequence.");
+        assertNotEquals(first + same.next(), other.next() + other.next(), "Different keys should give different sequences.");
+        assertThrows(IllegalArgumentException.class, () -> new InvitationCodeGenerator(3));
+    }
+
+    @Test
+    void testBulkIssueStreamsCsvAndStoresCodes() throws IOException {
+        System.out.println("Starting test for bulk invitation issue.");
+
+        DataStore store = DataStore.open(directory, 100_000);
+        StringWriter csv = new StringWriter();
+        int issued = store.issueInvitations(5_000, 6, List.of("Student"), csv);
+        assertEquals(5_000, issued);
+
+        String[] lines = csv.toString().split("\n");
+        assertEquals("code,roles,expires_at", lines[0]);
+        assertEquals(5_001, lines.length, "One CSV row per code plus the header.");
+        Set<String> codes = new HashSet<>();
+        for (int i = 1; i < lines.length; i++) {
+            String code = lines[i].split(",")[0];
+            assertEquals(6, code.length());
+            assertTrue(codes.add(code), "Codes in a batch should be unique.");
+            assertTrue(store.getInvitations().containsKey(code), "Every streamed code should be stored.");
+        }
+        assertEquals(List.of("Student"), store.getInvitations().get(lines[1].split(",")[0]).getRoles());
+
+        List<String> more = store.issueInvitations(10, 6, List.of("Instructor"));
+        assertTrue(more.stream().noneMatch(codes::contains), "Later batches should not repeat earlier codes.");
+        assertEquals(5_010, store.getInvitations().size());
+        store.closeUserStore();
+
+        DataStore reopened = DataStore.open(directory, 100_000);
+        assertEquals(5_010, reopened.getInvitations().size(), "A batch should be persisted.");
+        reopened.closeUserStore();
+        System.out.println("Validated: Bulk codes are unique, streamed and stored.");
+    }
+}
@@ -0,0 +1,90 @@
+package testJUnit;
+
+import model.LoginThrottle;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoginThrottling {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBucketsLimitByUsernameAndClient() {
+        System.out.println("Starting test for per-username and per-client limits.");
+
+        AtomicLong now = new AtomicLong(1_000 * SECOND);
+        LoginThrottle throttle = new LoginThrottle(new LoginThrottle.Limit(3, 10_000), new LoginThrottle.Limit(5, 1_000),
+                60_000, now::get);
+
+        for (int i = 0; i < 3; i++) assertTrue(throttle.tryAcquire("alice", "window-1"));
+        assertFalse(throttle.tryAcquire("alice", "window-2"), "The username's burst should be used up.");
+        assertEquals(1, throttle.getRejectedByUserCount());
+        System.out.println("Validated: A username is limited across clients.");
+
+        assertTrue(throttle.tryAcquire("bob", "window-1"));
+        assertTrue(throttle.tryAcquire("carol", "window-1"));
+        assertFalse(throttle.tryAcquire("dave", "window-1"), "The client's burst should be used up.");
+        assertEquals(1, throttle.getRejectedByClientCount());
+        System.out.println("Validated: A client is limited across usernames.");
+
+        now.addAndGet(SECOND); // The client earns one token back
+        assertTrue(throttle.tryAcquire("dave", "window-1"), "Dave's token should have been refunded when the client was limited.");
+        now.addAndGet(10 * SECOND); // Alice earns one token back
+        assertTrue(throttle.tryAcquire("alice", "window-3"));
+        assertFalse(throttle.tryAcquire("alice", "window-3"));
+
+        throttle.reset("alice");
+        assertTrue(throttle.tryAcquire("alice", "window-3"), "A reset should give the username a full bucket.");
+        System.out.println("Validated: Buckets refill and reset. " + throttle.getMetrics());
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() {
+        System.out.println("Starting test for idle bucket eviction.");
+
+        AtomicLong now = new AtomicLong(0);
+        LoginThrottle throttle = new LoginThrottle(new LoginThrottle.Limit(2, 1_000), new LoginThrottle.Limit(2, 1_000),
+                5_000, now::get);
+        for (int i = 0; i < 1_000; i++) throttle.tryAcquire("user" + i, null);
+        assertEquals(1_000, throttle.getTrackedCount());
+
+        now.addAndGet(6 * SECOND);
+        for (int i = 0; i < 1_000; i++) throttle.tryAcquire("fresh" + i, null);
+        assertTrue(throttle.getTrackedCount() < 1_500, "Idle buckets should be evicted as new keys arrive.");
+        assertTrue(throttle.getEvictedCount() > 500);
+        System.out.println("Validated: Idle buckets are dropped (" + throttle.getEvictedCount() + " evicted).");
+    }
+
+    @Test
+    void testConcurrentAttemptsNeverExceedTheBurst() throws Exception {
+        System.out.println("Starting test for concurrent attempts on one username.");
+
+        LoginThrottle throttle = new LoginThrottle(new LoginThrottle.Limit(50, 3_600_000),
+                new LoginThrottle.Limit(1_000_000, 1), 3_600_000, System::nanoTime);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (throttle.tryAcquire("target", "client-" + thread)) granted.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(50, granted.get(), "Exactly the burst should get through.");
+        assertEquals(8_000 - 50, throttle.getRejectedByUserCount());
+        System.out.println("Validated: Concurrent attempts respect the burst.");
+    }
+}
@@ -1,8 +1,17 @@
 package testJUnit;
 
+import model.Article;
+import model.ArticleCursor;
+import model.ArticlePage;
+import model.BulkImportResult;
 import model.DatabaseHelper;
+import model.PostingList;
 import org.junit.jupiter.api.*;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -99,4 +108,243 @@ class NonUITestingAutomation {
 
         System.out.println("testEncryptionFlow passed.");
     }
+
+    @Test
+    void testKeysetPagination() throws SQLException {
+        System.out.println("Running testKeysetPagination...");
+
+        // Arrange
+        for (int i = 1; i <= 5; i++) {
+            databaseHelper.addArticle("Paged " + i, "Author", "Abstract", "Keywords", "Body", "References", false);
+        }
+
+        // Act
+        ArticlePage first = databaseHelper.listArticles(0, 2);
+        ArticlePage second = databaseHelper.listArticles(first.getLastId(), 2);
+        ArticlePage third = databaseHelper.listArticles(second.getLastId(), 2);
+
+        System.out.println("Pages: " + first.getArticles() + " / " + second.getArticles() + " / " + third.getArticles());
+
+        // Assert
+        assertEquals(2, first.getArticles().size(), "The first page should be full.");
+        assertTrue(first.hasMore(), "More pages should follow the first one.");
+        assertTrue(second.getArticles().get(0).startsWith("ID: 3,"), "Display IDs should continue across pages.");
+        assertEquals(1, third.getArticles().size(), "The last page should hold the remaining article.");
+        assertFalse(third.hasMore(), "No page should follow the last one.");
+
+        int streamed = 0;
+        try (ArticleCursor cursor = databaseHelper.openArticleCursor(2)) {
+            while (cursor.hasNext()) {
+                assertTrue(cursor.next().contains("Paged " + ++streamed), "The cursor should stream articles in order.");
+            }
+        }
+        assertEquals(5, streamed, "The cursor should visit every article exactly once.");
+
+        System.out.println("testKeysetPagination passed.");
+    }
+
+    @Test
+    void testBulkImportReportsRowErrors() throws SQLException {
+        System.out.println("Running testBulkImportReportsRowErrors...");
+
+        // Arrange: 25 rows, one without a title and one whose title is too long for the column
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            String title = i == 7 ? null : (i == 13 ? "x".repeat(300) : "Imported " + i);
+            articles.add(new Article(title, "Author", "Abstract", "Beginner", "Body", "References", false));
+        }
+
+        // Act
+        BulkImportResult result = databaseHelper.importArticles(articles.iterator(), 10, 10);
+
+        System.out.println(result);
+
+        // Assert
+        assertEquals(23, result.getImportedCount(), "All valid rows should be imported.");
+        assertEquals(Set.of(7, 13), result.getErrors().keySet(), "Both bad rows should be reported by position.");
+        assertEquals(23, databaseHelper.listArticles().size(), "Rejected rows must not reach the table.");
+        assertEquals(23, databaseHelper.searchArticles("Imported", "All", "All").size(), "Imported rows should be searchable.");
+        assertTrue(result.getRowsPerSecond() > 0, "Throughput should be reported.");
+
+        System.out.println("testBulkImportReportsRowErrors passed.");
+    }
+
+    @Test
+    void testGroupViewLoadsBodiesOnDemand() throws SQLException {
+        System.out.println("Running testGroupViewLoadsBodiesOnDemand...");
+
+        // Arrange: one encrypted article in a group, one member who may view it and one who may not
+        databaseHelper.addArticle("Grouped Article", "Author", "Abstract", "Beginner", DatabaseHelper.encryptContent("Group body"), "Ref", true);
+        int articleId = databaseHelper.listArticles(0, 1).getLastId();
+        databaseHelper.createGroup("Lazy Body Group", false);
+        String groupId = databaseHelper.getGroupIdByName("Lazy Body Group");
+        databaseHelper.addArticleToGroup(groupId, articleId, true);
+        databaseHelper.addUserToGroup(groupId, "reader", "Student");
+        databaseHelper.addUserToGroup(groupId, "outsider", "Student");
+        databaseHelper.updateUserViewRights(groupId, "outsider", false);
+
+        // Act
+        List<Map<String, String>> headers = databaseHelper.getArticlesInGroup(groupId, "reader");
+
+        // Assert
+        assertEquals(1, headers.size());
+        assertEquals("Grouped Article", headers.get(0).get("title"));
+        assertFalse(headers.get(0).containsKey("body"), "The group view should only carry article headers.");
+        assertEquals("Group body", databaseHelper.getArticleBodyInGroup(groupId, "reader", articleId), "The body should be decrypted on demand.");
+        assertEquals("No Permission", databaseHelper.getArticleBodyInGroup(groupId, "outsider", articleId));
+
+        System.out.println("testGroupViewLoadsBodiesOnDemand passed.");
+    }
+
+    @Test
+    void testSearchHidesSpecialGroupArticles() throws SQLException {
+        System.out.println("Running testSearchHidesSpecialGroupArticles...");
+
+        // Arrange: a public article and one linked to a special access group
+        databaseHelper.addArticle("Open Notes", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        databaseHelper.addArticle("Exam Notes", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        int restrictedId = databaseHelper.listArticles(0, 2).getLastId();
+        databaseHelper.createGroup("Exam Group", true);
+        String groupId = databaseHelper.getGroupIdByName("Exam Group");
+        databaseHelper.addArticleToGroup(groupId, restrictedId, false);
+        databaseHelper.addUserToGroup(groupId, "grader", "Instructor");
+
+        // Act & Assert
+        assertEquals(2, databaseHelper.searchArticleIds("Notes", "All", "All", "grader").size(), "Members with view rights see both.");
+        assertEquals(1, databaseHelper.searchArticleIds("Notes", "All", "All", "student").size(), "Others only see the open article.");
+        assertFalse(databaseHelper.canViewArticle("student", restrictedId));
+
+        databaseHelper.updateUserViewRights(groupId, "grader", false);
+        assertFalse(databaseHelper.canViewArticle("grader", restrictedId), "Revoked view rights should apply at once.");
+        assertEquals(2, databaseHelper.searchArticleIds("Notes", "All", "All").size(), "The unscoped search is unchanged.");
+
+        System.out.println("testSearchHidesSpecialGroupArticles passed.");
+    }
+
+    @Test
+    void testGroupNamesResolveWithoutRequery() throws SQLException {
+        System.out.println("Running testGroupNamesResolveWithoutRequery...");
+
+        // Arrange
+        databaseHelper.addArticle("Grouped Search", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        int articleId = databaseHelper.listArticles(0, 1).getLastId();
+
+        // Act
+        String groupId = databaseHelper.createGroup("Named Group", false);
+        databaseHelper.addArticleToGroup(groupId, articleId, false);
+
+        // Assert
+        assertEquals(groupId, databaseHelper.getGroupIdByName("Named Group"), "createGroup should return the generated ID.");
+        assertEquals("Named Group", databaseHelper.getGroupNameById(groupId));
+        assertEquals(1, databaseHelper.searchArticleIds("Grouped", "All", "Named Group").size(), "Searches may name the group.");
+        assertEquals(1, databaseHelper.searchArticleIds("Grouped", "All", groupId).size(), "Searches may pass the group ID.");
+        assertThrows(SQLException.class, () -> databaseHelper.createGroup("Named Group", true), "Group names are unique.");
+
+        databaseHelper.deleteGroup(groupId);
+        assertThrows(SQLException.class, () -> databaseHelper.getGroupIdByName("Named Group"), "Deleted groups should be forgotten.");
+        assertThrows(SQLException.class, () -> databaseHelper.getGroupNameById(groupId));
+
+        System.out.println("testGroupNamesResolveWithoutRequery passed.");
+    }
+
+    @Test
+    void testGroupsForUserAndAccountCleanup() throws SQLException {
+        System.out.println("Running testGroupsForUserAndAccountCleanup...");
+
+        // Arrange: one user in two groups, another in one
+        String algebra = databaseHelper.createGroup("Algebra", false);
+        String biology = databaseHelper.createGroup("Biology", true);
+        databaseHelper.addUserToGroup(biology, "member", "Student");
+        databaseHelper.addUserToGroup(algebra, "member", "Student");
+        databaseHelper.addUserToGroup(algebra, "teacher", "Instructor");
+
+        // Act & Assert
+        assertEquals(List.of("Algebra", "Biology"), databaseHelper.getGroupsForUser("member"), "Groups should be listed by name.");
+        assertEquals(Set.of(algebra, biology), databaseHelper.getGroupIdsForUser("member"));
+        assertTrue(databaseHelper.getGroupsForUser("nobody").isEmpty());
+
+        assertEquals(2, databaseHelper.deleteUserFromAllGroups("member"), "Both memberships should be removed.");
+        assertTrue(databaseHelper.getGroupsForUser("member").isEmpty());
+        assertEquals(1, databaseHelper.getUsersInGroup(algebra).size(), "Other members should stay.");
+        assertEquals(List.of("Algebra"), databaseHelper.getGroupsForUser("teacher"));
+
+        System.out.println("testGroupsForUserAndAccountCleanup passed.");
+    }
+
+    @Test
+    void testBulkGroupUpdatesAreAllOrNothing() throws SQLException {
+        System.out.println("Running testBulkGroupUpdatesAreAllOrNothing...");
+
+        // Arrange: a section of students, two instructors and three articles
+        List<String> students = new ArrayList<>();
+        for (int i = 0; i < 300; i++) students.add("student" + i);
+        for (int i = 1; i <= 3; i++) databaseHelper.addArticle("Section " + i, "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        int lastId = databaseHelper.listArticles(0, 3).getLastId();
+        String groupId = databaseHelper.createGroup("Section A", true);
+
+        // Act
+        assertEquals(300, databaseHelper.addUsersToGroup(groupId, students, "Student"));
+        assertEquals(2, databaseHelper.addUsersToGroup(groupId, List.of("prof1", "prof2", "prof1"), "Instructor"), "Duplicates count once.");
+        assertEquals(3, databaseHelper.addArticlesToGroup(groupId, List.of(lastId - 2, lastId - 1, lastId)));
+
+        // Assert
+        assertEquals(302, databaseHelper.getUsersInGroup(groupId).size());
+        assertTrue(databaseHelper.canViewArticle("student299", lastId), "Bulk members should see the group's articles.");
+        assertThrows(SQLException.class, () -> databaseHelper.addArticlesToGroup(groupId, List.of(lastId, lastId + 100)));
+        assertEquals(3, databaseHelper.getVisibilityIndex().getGroupArticles(groupId).getCardinality(), "A failed batch adds nothing.");
+
+        assertEquals(100, databaseHelper.updateUserViewRights(groupId, students.subList(0, 100), false));
+        assertFalse(databaseHelper.canViewArticle("student0", lastId));
+        assertTrue(databaseHelper.canViewArticle("student100", lastId));
+
+        assertEquals(1, databaseHelper.updateUserAdminRights(groupId, List.of("prof1"), false), "Another admin remains.");
+        assertThrows(SQLException.class, () -> databaseHelper.updateUserAdminRights(groupId, List.of("prof2", "nobody"), false),
+                "The last admin may not be removed.");
+        assertEquals("Yes", databaseHelper.getUsersInGroup(groupId).stream()
+                .filter(user -> user.get("username").equals("prof2")).findFirst().orElseThrow().get("canAdmin"), "The batch should roll back.");
+
+        assertEquals(200, databaseHelper.deleteUsersFromGroup(groupId, students.subList(100, 300)));
+        assertEquals(0, databaseHelper.deleteUsersFromGroup(groupId, List.of("student150", "nobody")), "Non-members are skipped.");
+        assertFalse(databaseHelper.canViewArticle("student299", lastId), "Removed members lose the group's articles.");
+        assertEquals(102, databaseHelper.getUsersInGroup(groupId).size());
+
+        System.out.println("testBulkGroupUpdatesAreAllOrNothing passed.");
+    }
+
+    @Test
+    void testLevelStatisticsForSearchResults() throws SQLException {
+        System.out.println("Running testLevelStatisticsForSearchResults...");
+
+        databaseHelper.addArticle("Stats Intro", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+        databaseHelper.addArticle("Stats Deep Dive", "Author", "Abstract", "Advanced,Expert", "Body", "Ref", false);
+        databaseHelper.addArticle("Unrelated", "Author", "Abstract", "Beginner", "Body", "Ref", false);
+
+        PostingList ids = databaseHelper.searchArticleIds("Stats", "All", "All");
+
+        assertEquals(2, ids.size());
+        assertEquals("Beginner: 1, Intermediate: 0, Advanced: 1, Expert: 1", databaseHelper.getLevelStatistics(ids));
+        assertEquals(databaseHelper.searchArticles("Stats", "All", "All"), databaseHelper.describeSearchResults(ids));
+
+        System.out.println("testLevelStatisticsForSearchResults passed.");
+    }
+
+    @Test
+    void testKeywordAndAuthorLookups() throws SQLException {
+        System.out.println("Running testKeywordAndAuthorLookups...");
+
+        databaseHelper.addArticle("Threads", "Ada Lovelace, Alan Turing", "Abstract", "Beginner, Concurrency", "Body", "Ref", false);
+        databaseHelper.importArticles(List.of(
+                new Article("Locks", "Alan  Turing", "Abstract", "concurrency", "Body", "Ref", false),
+                new Article("Streams", "Grace Hopper", "Abstract", "Beginners", "Body", "Ref", false)).iterator(), 10, 10);
+
+        assertEquals(2, databaseHelper.getArticleIdsByKeyword("Concurrency").size(), "Keywords should match case-insensitively.");
+        assertEquals(1, databaseHelper.getArticleIdsByKeyword("beginner").size(), "Keywords should not match substrings.");
+        assertEquals(2, databaseHelper.getArticleIdsByAuthor("alan turing").size(), "Authors should be normalized.");
+
+        databaseHelper.deleteArticle(1);
+        assertEquals(1, databaseHelper.getArticleIdsByAuthor("Alan Turing").size(), "Deleted articles should leave the lookup tables.");
+        assertTrue(databaseHelper.getArticleIdsByAuthor("Ada Lovelace").isEmpty());
+
+        System.out.println("testKeywordAndAuthorLookups passed.");
+    }
 }
@@ -0,0 +1,135 @@
+package testJUnit;
+
+import model.DataStore;
+import model.PasswordHasher;
+import model.User;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PasswordHashing {
+
+    private Path directory;
+    private int iterations;
+
+    @BeforeAll
+    void lowerHashCost() {
+        iterations = PasswordHasher.getInstance().getIterations();
+        PasswordHasher.getInstance().setIterations(PasswordHasher.MIN_ITERATIONS);
+        System.out.println("Hash cost lowered for tests.");
+    }
+
+    @AfterAll
+    void restoreHashCost() {
+        PasswordHasher.getInstance().setIterations(iterations);
+    }
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("password-hashing");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testHashesVerifyAndAreSalted() {
+        System.out.println("Starting test for hashing and verification.");
+
+        PasswordHasher hasher = new PasswordHasher(2_000, 1, 4);
+        String first = hasher.hash("s3cret"), second = hasher.hash("s3cret");
+        assertTrue(PasswordHasher.isHash(first));
+        assertNotEquals(first, second, "Each hash should use its own salt.");
+        assertTrue(hasher.matches("s3cret", first));
+        assertFalse(hasher.matches("wrong", first));
+        assertFalse(hasher.matches("s3cret", "pbkdf2-sha256$x$y$z"), "A damaged hash should not match.");
+        assertTrue(hasher.matches("legacy", "legacy"), "Plain-text passwords from before hashing should still match.");
+        assertTrue(hasher.needsRehash("legacy"));
+        assertFalse(hasher.needsRehash(first));
+
+        hasher.setIterations(3_000);
+        assertTrue(hasher.needsRehash(first), "A hash with an older cost should be upgraded.");
+        assertTrue(hasher.matches("s3cret", first), "A hash with an older cost should still verify.");
+        assertEquals(2, hasher.getHashCount());
+        System.out.println("Hasher metrics: " + hasher.getMetrics());
+    }
+
+    @Test
+    void testLoginRehashesWhenCostChanges() throws Exception {
+        System.out.println("Starting test for rehash on login.");
+
+        PasswordHasher hasher = PasswordHasher.getInstance();
+        DataStore store = DataStore.open(directory, 10_000);
+        User legacy = User.withPasswordHash("legacy", "oldPlainText", List.of("Student"));
+        store.registerUser(legacy);
+        store.registerUser(new User("current", "pw", List.of("Student")));
+
+        assertNull(store.login("legacy", "wrong").get(10, TimeUnit.SECONDS), "A wrong password should be refused.");
+        assertNull(store.login("nobody", "pw").get(10, TimeUnit.SECONDS), "An unknown user should be refused.");
+        assertEquals("oldPlainText", legacy.getPassword(), "A failed login should not change the stored value.");
+
+        assertSame(legacy, store.login("legacy", "oldPlainText").get(10, TimeUnit.SECONDS));
+        assertTrue(PasswordHasher.isHash(legacy.getPassword()), "A plain-text password should be hashed on login.");
+
+        String before = store.findUserByUsername("current").getPassword();
+        hasher.setIterations(PasswordHasher.MIN_ITERATIONS + 500);
+        try {
+            assertNotNull(store.login("current", "pw").get(10, TimeUnit.SECONDS));
+            String after = store.findUserByUsername("current").getPassword();
+            assertNotEquals(before, after, "The hash should be redone with the new cost.");
+            assertFalse(hasher.needsRehash(after));
+        } finally {
+            hasher.setIterations(PasswordHasher.MIN_ITERATIONS);
+        }
+        store.closeUserStore();
+
+        DataStore reopened = DataStore.open(directory, 10_000);
+        assertTrue(PasswordHasher.isHash(reopened.findUserByUsername("legacy").getPassword()), "The rehash should be persisted.");
+        assertTrue(reopened.findUserByUsername("legacy").checkPassword("oldPlainText"));
+        reopened.closeUserStore();
+        System.out.println("Validated: Logins upgrade old hashes.");
+    }
+
+    @Test
+    void testQueueIsBounded() throws Exception {
+        System.out.println("Starting test for the bounded verification queue.");
+
+        PasswordHasher hasher = new PasswordHasher(PasswordHasher.MIN_ITERATIONS, 1, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> busy = hasher.supply(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        while (hasher.getActiveCount() == 0) Thread.sleep(1);
+        CompletableFuture<Boolean> queued1 = hasher.matchesAsync("a", "a"), queued2 = hasher.matchesAsync("b", "b");
+        assertEquals(2, hasher.getQueueDepth());
+
+        CompletableFuture<Boolean> rejected = hasher.matchesAsync("c", "c");
+        ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1, hasher.getRejectedCount());
+
+        release.countDown();
+        busy.get(10, TimeUnit.SECONDS);
+        assertTrue(queued1.get(10, TimeUnit.SECONDS));
+        assertTrue(queued2.get(10, TimeUnit.SECONDS));
+        System.out.println("Validated: A full queue rejects work instead of growing. " + hasher.getMetrics());
+    }
+}
@@ -0,0 +1,209 @@
+package testJUnit;
+
+import model.ArticleSearchIndex;
+import model.ArticleSearchIndex.IndexedArticle;
+import model.ArticleSearchIndex.ScoredArticle;
+import model.ContentLevel;
+import model.PostingList;
+import model.Tokenizer;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchIndexing {
+
+    private ArticleSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new ArticleSearchIndex();
+        index.add(new IndexedArticle(1, "Java Basics", "Author A", "Introduction to Java", "Beginner,Java"));
+        index.add(new IndexedArticle(2, "Advanced Java", "Author B", "Deep dive into Java", "Advanced,Java"));
+        index.add(new IndexedArticle(3, "Python Performance", "Author C", "Optimizing Python", "Intermediate,Python"));
+        System.out.println("Indexed three sample articles.");
+    }
+
+    @Test
+    void testTokenizer() {
+        System.out.println("Running testTokenizer...");
+        assertEquals(List.of("deep", "dive", "into", "java", "17"), Tokenizer.tokenize("Deep-dive into JAVA 17!"));
+        assertTrue(Tokenizer.tokenize(null).isEmpty(), "Null text should produce no terms.");
+    }
+
+    @Test
+    void testQueryTermsAreAndedPrefixes() {
+        System.out.println("Running testQueryTermsAreAndedPrefixes...");
+
+        assertEquals(2, index.search("Java", null, null).size(), "Two articles mention Java.");
+        assertEquals(1, index.search("adv jav", null, null).size(), "Prefixes of every term should be matched.");
+        assertEquals(1, index.search("Author C", null, null).size(), "Authors should be searchable.");
+        assertTrue(index.search("Rust", null, null).isEmpty(), "Unknown terms should match nothing.");
+        assertEquals(3, index.search("", null, null).size(), "An empty query should match every article.");
+    }
+
+    @Test
+    void testKeywordAndRestrictionFilters() {
+        System.out.println("Running testKeywordAndRestrictionFilters...");
+
+        List<IndexedArticle> beginner = index.search("Java", "Beginner", null);
+        assertEquals(1, beginner.size(), "Only one Java article is for beginners.");
+        assertEquals("Java Basics", beginner.get(0).getTitle());
+
+        PostingList group = PostingList.ofSorted(new int[] { 2, 3 });
+        List<IndexedArticle> inGroup = index.search("Java", null, group);
+        assertEquals(1, inGroup.size(), "Only article 2 is both about Java and in the group.");
+        assertEquals(2, inGroup.get(0).getId());
+    }
+
+    @Test
+    void testIncrementalRemoval() {
+        System.out.println("Running testIncrementalRemoval...");
+
+        index.remove(1);
+        assertEquals(1, index.search("Java", null, null).size(), "The removed article should no longer match.");
+        assertTrue(index.search("Basics", null, null).isEmpty(), "Terms only used by the removed article should be gone.");
+
+        index.clear();
+        assertEquals(0, index.size(), "The index should be empty after clearing.");
+    }
+
+    @Test
+    void testSearchOnLargeCorpus() {
+        System.out.println("Running testSearchOnLargeCorpus...");
+
+        ArticleSearchIndex large = new ArticleSearchIndex();
+        for (int id = 1; id <= 100_000; id++) {
+            large.add(new IndexedArticle(id, "Article " + id + (id % 1000 == 0 ? " Concurrency" : ""),
+                    "Author " + (id % 50), "Abstract text number " + id, id % 2 == 0 ? "Beginner" : "Expert"));
+        }
+
+        large.search("concurrency", "Beginner", null); // Warm up
+        long start = System.nanoTime();
+        List<IndexedArticle> results = large.search("concurrency", "Beginner", null);
+        long micros = (System.nanoTime() - start) / 1_000;
+
+        System.out.println("Selective search over 100k articles took " + micros + "us.");
+        assertEquals(100, results.size(), "Every thousandth article mentions concurrency and has an even ID.");
+        assertTrue(micros < 50_000, "Selective searches should not scan the corpus: " + micros + "us");
+    }
+
+    @Test
+    void testContentLevelCounts() {
+        System.out.println("Running testContentLevelCounts...");
+
+        index.add(new IndexedArticle(4, "Java Roadmap", "Author D", "From basics to internals", "Beginner, Expert, Java"));
+        assertEquals(ContentLevel.BEGINNER.bit() | ContentLevel.EXPERT.bit(), ContentLevel.maskOf("Beginner, Expert, Java"));
+        assertEquals(0, ContentLevel.maskOf("Beginners"), "Levels are matched as whole terms.");
+
+        int[] counts = index.countLevels(index.searchIds("Java", null, null));
+        assertArrayEquals(new int[] { 2, 0, 1, 1 }, counts, "Articles 1, 2 and 4 are about Java; article 4 has two levels.");
+    }
+
+    @Test
+    void testRankingPrefersStrongerMatches() {
+        System.out.println("Running testRankingPrefersStrongerMatches...");
+
+        index.add(new IndexedArticle(4, "Garbage Collection", "Author D", "Java heap tuning, Java flags and Java pauses", "Expert"));
+        index.add(new IndexedArticle(5, "Streams", "Java Team", "Functional pipelines", "Intermediate"));
+
+        List<ScoredArticle> ranked = index.rank("java", index.searchIds("java", null, null), 10);
+        assertEquals(List.of(1, 2, 4, 5), ranked.stream().map(scored -> scored.getArticle().getId()).sorted().toList(),
+                "Every match should be ranked.");
+        assertTrue(ranked.get(0).getArticle().getId() <= 2, "Title matches should rank above abstract or author matches.");
+        for (int i = 1; i < ranked.size(); i++) {
+            assertTrue(ranked.get(i - 1).getScore() >= ranked.get(i).getScore(), "Results should be ordered by score.");
+        }
+
+        List<ScoredArticle> top = index.rank("python performance", index.searchIds("python", null, null), 1);
+        assertEquals(1, top.size());
+        assertEquals(3, top.get(0).getArticle().getId());
+        assertTrue(top.get(0).getScore() > 0);
+    }
+
+    @Test
+    void testIntersectionMatchesSetIntersection() {
+        System.out.println("Running testIntersectionMatchesSetIntersection...");
+
+        // Short lists against a long one, so the galloping probes run both short and long distances
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            TreeSet<Integer> small = new TreeSet<>(), large = new TreeSet<>();
+            int range = 1 + random.nextInt(50_000);
+            for (int i = random.nextInt(40); i > 0; i--) small.add(random.nextInt(range));
+            for (int i = random.nextInt(5_000); i > 0; i--) large.add(random.nextInt(range));
+            PostingList a = PostingList.ofSorted(small.stream().mapToInt(Integer::intValue).toArray());
+            PostingList b = PostingList.ofSorted(large.stream().mapToInt(Integer::intValue).toArray());
+
+            TreeSet<Integer> expected = new TreeSet<>(small);
+            expected.retainAll(large);
+            int[] expectedIds = expected.stream().mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(expectedIds, PostingList.intersect(a, b).toArray());
+            assertArrayEquals(expectedIds, PostingList.intersect(b, a).toArray());
+        }
+    }
+
+    @Test
+    void testUnionAllMatchesSetUnion() {
+        System.out.println("Running testUnionAllMatchesSetUnion...");
+
+        // Up to a few hundred overlapping lists, as a short prefix would match
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            List<PostingList> lists = new ArrayList<>();
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int l = random.nextInt(300); l > 0; l--) {
+                TreeSet<Integer> ids = new TreeSet<>();
+                for (int i = random.nextInt(50); i > 0; i--) ids.add(random.nextInt(10_000));
+                expected.addAll(ids);
+                lists.add(PostingList.ofSorted(ids.stream().mapToInt(Integer::intValue).toArray()));
+            }
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), PostingList.unionAll(lists).toArray());
+        }
+    }
+
+    @Test
+    void testKeywordsCountTowardsDocumentFrequency() {
+        System.out.println("Running testKeywordsCountTowardsDocumentFrequency...");
+
+        // Both terms appear only as keywords, once each in article 1; "common" is a keyword of every article
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.add(new IndexedArticle(1, "First", "Author A", "Notes", "Common,Rare"));
+        index.add(new IndexedArticle(2, "Second", "Author B", "Notes", "Common"));
+        index.add(new IndexedArticle(3, "Third", "Author C", "Notes", "Common"));
+
+        PostingList first = PostingList.ofSorted(new int[] { 1 });
+        double rare = index.rank("rare", first, 1).get(0).getScore();
+        double common = index.rank("common", first, 1).get(0).getScore();
+        assertTrue(rare > common, "A keyword on every article should weigh less than one on a single article.");
+    }
+
+    @Test
+    void testTopKOnBroadQuery() {
+        System.out.println("Running testTopKOnBroadQuery...");
+
+        ArticleSearchIndex large = new ArticleSearchIndex();
+        for (int id = 1; id <= 100_000; id++) {
+            String title = id % 10_000 == 0 ? "Java Java Concurrency" : "Article " + id;
+            large.add(new IndexedArticle(id, title, "Author " + (id % 50), "Notes on Java number " + id, "Beginner"));
+        }
+
+        PostingList matches = large.searchIds("java", null, null);
+        large.rank("java", matches, 10); // Warm up
+        long start = System.nanoTime();
+        List<ScoredArticle> top = large.rank("java", matches, 10);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Ranking " + matches.size() + " matches took " + millis + "ms.");
+        assertEquals(100_000, matches.size(), "Every article mentions Java.");
+        assertEquals(10, top.size(), "Only the top k should be returned.");
+        assertEquals(List.of(10_000, 20_000, 30_000, 40_000, 50_000, 60_000, 70_000, 80_000, 90_000, 100_000),
+                top.stream().map(scored -> scored.getArticle().getId()).toList(), "Title matches first; equal scores by ID.");
+        assertTrue(millis < 2_000, "Ranking a broad query should stay fast: " + millis + "ms");
+    }
+}
@@ -0,0 +1,117 @@
+package testJUnit;
+
+import model.DataStore;
+import model.PasswordHasher;
+import model.SessionManager;
+import model.User;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SessionTokens {
+
+    @Test
+    void testSessionsExpireWhenIdleAndAtTheirLimit() {
+        System.out.println("Starting test for idle and absolute session expiry.");
+
+        AtomicLong now = new AtomicLong(1_000_000);
+        SessionManager sessions = new SessionManager(Duration.ofMinutes(10), Duration.ofMinutes(30), u -> Set.of(), now::get);
+        User user = User.withPasswordHash("alice", "hash", List.of("Student", "Instructor"));
+
+        SessionManager.Session session = sessions.open(user, "Student");
+        assertTrue(sessions.authorize(session.getToken(), "Student"));
+        assertFalse(sessions.authorize(session.getToken(), "Instructor"), "Only the chosen role should be authorized.");
+        assertFalse(sessions.authorize("forged-token", "Student"));
+        assertThrows(IllegalArgumentException.class, () -> sessions.open(user, "Administrator"));
+
+        // Kept alive by use every 9 minutes; the wheel reschedules it instead of ending it
+        for (int i = 0; i < 3; i++) {
+            now.addAndGet(Duration.ofMinutes(9).toMillis());
+            sessions.expireDue(now.get());
+            assertTrue(sessions.authorize(session.getToken(), "Student"), "A session in use should stay open.");
+        }
+        now.addAndGet(Duration.ofMinutes(4).toMillis()); // 31 minutes after sign-in
+        sessions.expireDue(now.get());
+        assertNull(sessions.get(session.getToken()), "The absolute limit should end even an active session.");
+        assertEquals(1, sessions.getAbsoluteExpiredCount());
+        System.out.println("Validated: Absolute expiry.");
+
+        SessionManager.Session idle = sessions.open(user, "Instructor");
+        now.addAndGet(Duration.ofMinutes(11).toMillis());
+        sessions.expireDue(now.get());
+        assertEquals(0, sessions.getActiveCount(), "The wheel should end an idle session without a lookup.");
+        assertFalse(sessions.authorize(idle.getToken(), "Instructor"));
+        assertEquals(1, sessions.getIdleExpiredCount());
+        System.out.println("Validated: Idle expiry. " + sessions.getMetrics());
+    }
+
+    @Test
+    void testGroupsAreCachedUntilMembershipChanges() throws Exception {
+        System.out.println("Starting test for cached group memberships.");
+
+        Map<String, Set<String>> groups = new HashMap<>(Map.of("bob", Set.of("g1")));
+        AtomicInteger loads = new AtomicInteger();
+        SessionManager sessions = new SessionManager(Duration.ofMinutes(10), Duration.ofHours(1), username -> {
+            loads.incrementAndGet();
+            return groups.getOrDefault(username, Set.of());
+        }, System::currentTimeMillis);
+
+        String token = sessions.open(User.withPasswordHash("bob", "hash", List.of("Student")), "Student").getToken();
+        assertEquals(Set.of("g1"), sessions.getGroupIds(token));
+        assertEquals(Set.of("g1"), sessions.getGroupIds(token));
+        assertEquals(1, loads.get(), "Memberships should be loaded once per session.");
+
+        groups.put("bob", Set.of("g1", "g2"));
+        sessions.refreshMemberships("bob");
+        assertEquals(Set.of("g1", "g2"), sessions.getGroupIds(token), "A membership change should reload the groups.");
+        assertEquals(2, loads.get());
+
+        sessions.close(token);
+        assertThrows(IllegalStateException.class, () -> sessions.getGroupIds(token));
+        System.out.println("Validated: Memberships are cached and refreshed.");
+    }
+
+    @Test
+    void testRoleChangeAndDeletionEndSessions() throws IOException {
+        System.out.println("Starting test for invalidation on role changes.");
+
+        Path directory = Files.createTempDirectory("sessions");
+        int iterations = PasswordHasher.getInstance().getIterations();
+        PasswordHasher.getInstance().setIterations(PasswordHasher.MIN_ITERATIONS);
+        DataStore store = DataStore.open(directory, 10_000);
+        try {
+            SessionManager sessions = SessionManager.getInstance();
+            User carol = new User("sessionCarol", "pw", List.of("Student"));
+            store.registerUser(carol);
+            String first = sessions.open(carol, "Student").getToken(), second = sessions.open(carol, "Student").getToken();
+
+            store.updateUser(carol, u -> u.setDetails(null, "Carol", null, "Doe", null));
+            assertTrue(sessions.authorize(first, "Student"), "Changes other than roles should keep the session.");
+
+            store.setUserRoles(carol, List.of("Student", "Instructor"));
+            assertFalse(sessions.authorize(first, "Student"), "A role change should end the user's sessions.");
+            assertFalse(sessions.authorize(second, "Student"));
+
+            String third = sessions.open(carol, "Instructor").getToken();
+            store.removeUser(carol);
+            assertFalse(sessions.authorize(third, "Instructor"), "Deleting the user should end their sessions.");
+            System.out.println("Validated: Role changes and deletion end sessions.");
+        } finally {
+            store.closeUserStore();
+            PasswordHasher.getInstance().setIterations(iterations);
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+            }
+        }
+    }
+}
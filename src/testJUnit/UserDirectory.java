@@ -0,0 +1,104 @@
+package testJUnit;
+
+import model.DataStore;
+import model.PasswordHasher;
+import model.User;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserDirectory {
+
+    private DataStore dataStore;
+    private int iterations;
+
+    @BeforeAll
+    void setup() {
+        dataStore = DataStore.getInstance();
+        iterations = PasswordHasher.getInstance().getIterations();
+        PasswordHasher.getInstance().setIterations(PasswordHasher.MIN_ITERATIONS); // These tests create many users
+        System.out.println("DataStore instance initialized.");
+    }
+
+    @AfterAll
+    void restoreHashCost() {
+        PasswordHasher.getInstance().setIterations(iterations);
+    }
+
+    @BeforeEach
+    void clearUsers() {
+        dataStore.getUserList().clear();
+        System.out.println("Users cleared before test.");
+    }
+
+    @Test
+    void testListingIsOrderedAndRoleIndexFollowsChanges() {
+        System.out.println("Starting test for ordered listing and the role index.");
+
+        dataStore.getUserList().add(new User("carol", "pw", List.of("Student")));
+        dataStore.getUserList().add(new User("alice", "pw", List.of("Instructor")));
+        dataStore.getUserList().add(new User("bob", "pw", List.of("Student", "Instructor")));
+
+        List<String> names = new ArrayList<>();
+        dataStore.getUserList().forEach(user -> names.add(user.getUsername()));
+        assertEquals(List.of("alice", "bob", "carol"), names, "Users should be listed by username.");
+        assertEquals("bob", dataStore.getUserList().get(1).getUsername(), "Indexed access should follow the same order.");
+        System.out.println("Validated: Users are listed in username order.");
+
+        assertEquals(2, dataStore.countUsersWithRole("Student"), "Two users should hold the Student role.");
+        assertEquals(List.of("alice", "bob"),
+                dataStore.getUsersByRole("Instructor").stream().map(User::getUsername).toList());
+        System.out.println("Validated: Role index reflects registrations.");
+
+        User bob = dataStore.findUserByUsername("bob");
+        dataStore.setUserRoles(bob, List.of("Administrator"));
+        dataStore.addUserRole(dataStore.findUserByUsername("carol"), "Administrator");
+        assertEquals(1, dataStore.countUsersWithRole("Student"), "Bob should no longer be indexed as a Student.");
+        assertEquals(2, dataStore.countUsersWithRole("Administrator"), "Bob and Carol should be indexed as Administrators.");
+        System.out.println("Validated: Role index follows role changes.");
+
+        assertTrue(dataStore.getUserList().remove(bob), "Removing a registered user should succeed.");
+        assertNull(dataStore.findUserByUsername("bob"), "A removed user should no longer be found.");
+        assertEquals(1, dataStore.countUsersWithRole("Administrator"), "A removed user should leave the role index.");
+        assertEquals("carol", dataStore.getUserList().get(1).getUsername(), "Indexed access should see the removal.");
+        System.out.println("Validated: Removal updates every index.");
+    }
+
+    @Test
+    void testConcurrentRegistrationKeepsOneUserPerName() throws Exception {
+        System.out.println("Starting test for concurrent registration.");
+
+        int threads = 8, names = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger registered = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < names; i++) {
+                    if (dataStore.registerUser(new User("user" + i, "pw", List.of("Student")))) registered.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(names, registered.get(), "Each username should be registered exactly once.");
+        assertEquals(names, dataStore.getUserCount(), "The directory should hold one user per name.");
+        assertEquals(names, dataStore.getUserList().size(), "The ordered listing should match the index.");
+        assertEquals(names, dataStore.countUsersWithRole("Student"), "The role index should hold each user once.");
+        assertFalse(dataStore.getUserList().add(new User("user0", "other", List.of("Student"))),
+                "A taken username should be rejected.");
+        assertTrue(dataStore.findUserByUsername("user0").checkPassword("pw"), "The first registration should win.");
+        System.out.println("Validated: Concurrent registration is safe (" + names + " users).");
+    }
+}
@@ -67,7 +67,8 @@ class UserFlow {
         assertEquals(username, registeredUser.getUsername(), "Registered username should match.");
         System.out.println("Validated: Registered username matches.");
 
-        assertEquals(password, registeredUser.getPassword(), "Registered password should match.");
+        assertTrue(registeredUser.checkPassword(password), "Registered password should match.");
+        assertNotEquals(password, registeredUser.getPassword(), "The password should be stored hashed.");
         System.out.println("Validated: Registered password matches.");
 
         assertEquals(roles, registeredUser.getRoles(), "Registered user roles should match the invitation roles.");
@@ -0,0 +1,185 @@
+package testJUnit;
+
+import model.DataStore;
+import model.PasswordHasher;
+import model.User;
+import model.UserStore;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserPersistence {
+
+    private Path directory;
+    private int iterations;
+
+    @BeforeAll
+    void lowerHashCost() {
+        iterations = PasswordHasher.getInstance().getIterations();
+        PasswordHasher.getInstance().setIterations(PasswordHasher.MIN_ITERATIONS);
+    }
+
+    @AfterAll
+    void restoreHashCost() {
+        PasswordHasher.getInstance().setIterations(iterations);
+    }
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("user-store");
+        System.out.println("User store directory: " + directory);
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testChangesSurviveRestart() {
+        System.out.println("Starting test for users surviving a restart.");
+
+        DataStore first = DataStore.open(directory, 10_000);
+        User alice = new User("alice", "pw1", List.of("Student"));
+        first.registerUser(alice);
+        first.registerUser(new User("bob", "pw2", List.of("Instructor")));
+        first.setUserRoles(alice, List.of("Student", "Instructor"));
+        first.updateUser(alice, u -> u.setDetails("a@x.org", "Alice", null, "Liddell", ""));
+        first.removeUser(first.findUserByUsername("bob"));
+        first.getInvitations().put("AB12", new User.Invitation(List.of("Student")));
+        first.getInvitations().put("CD34", new User.Invitation(List.of("Instructor")));
+        first.getInvitations().remove("AB12");
+        first.closeUserStore();
+
+        DataStore second = DataStore.open(directory, 10_000);
+        User restored = second.findUserByUsername("alice");
+        assertNotNull(restored, "Alice should be restored.");
+        assertTrue(restored.checkPassword("pw1"), "The password hash should be restored.");
+        assertEquals(List.of("Student", "Instructor"), restored.getRoles());
+        assertEquals("Alice", restored.getFirstName());
+        assertEquals("Liddell", restored.getLastName());
+        assertNull(second.findUserByUsername("bob"), "Bob was deleted and should stay deleted.");
+        assertEquals(1, second.countUsersWithRole("Instructor"), "The role index should be rebuilt on replay.");
+        assertEquals(List.of("CD34"), new ArrayList<>(second.getInvitations().keySet()));
+        second.closeUserStore();
+        System.out.println("Validated: Users, roles and invitations survive a restart.");
+    }
+
+    @Test
+    void testSnapshotReplacesLogAndTornTailIsIgnored() throws IOException {
+        System.out.println("Starting test for snapshots and torn log records.");
+
+        DataStore first = DataStore.open(directory, 10_000);
+        for (int i = 0; i < 50; i++) first.registerUser(new User("user" + i, "pw", List.of("Student")));
+        first.compactUserStore();
+        first.removeUser(first.findUserByUsername("user0"));
+        first.registerUser(new User("late", "pw", List.of("Instructor")));
+        first.closeUserStore();
+
+        List<Path> logs;
+        try (Stream<Path> files = Files.list(directory)) {
+            logs = files.filter(f -> f.getFileName().toString().endsWith(".log")).toList();
+        }
+        assertEquals(1, logs.size(), "Compaction should delete the logs folded into the snapshot.");
+        Files.write(logs.get(0), new byte[] { 0, 0, 0, 40, 1, 2 }, StandardOpenOption.APPEND); // A record cut off mid-write
+        System.out.println("Validated: Only the newest log remains after compaction.");
+
+        DataStore second = DataStore.open(directory, 10_000);
+        assertEquals(50, second.getUserCount(), "Snapshot plus log tail should give 49 original users and one late one.");
+        assertNull(second.findUserByUsername("user0"));
+        assertNotNull(second.findUserByUsername("late"));
+        second.registerUser(new User("after", "pw", List.of("Student"))); // Appends after the cut-off point
+        second.closeUserStore();
+
+        DataStore third = DataStore.open(directory, 10_000);
+        assertNotNull(third.findUserByUsername("after"), "Records written after a torn tail should replay.");
+        third.closeUserStore();
+        System.out.println("Validated: Snapshot and log tail replay correctly.");
+    }
+
+    @Test
+    void testDamagedOlderLogIsRejected() throws IOException {
+        System.out.println("Starting test for a damaged log before the newest one.");
+
+        UserStore store = new UserStore(directory, Long.MAX_VALUE);
+        store.replay(emptyReplay(new HashMap<>()));
+        store.sync(store.logPutUser(User.withPasswordHash("alice", "pw", List.of("Student"))));
+        store.close();
+
+        // A second generation follows the first, so a bad frame in the first cannot be a crash mid-write
+        Path older;
+        try (Stream<Path> files = Files.list(directory)) {
+            older = files.filter(f -> f.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        String name = older.getFileName().toString();
+        long gen = Long.parseLong(name.substring("users-".length(), name.length() - ".log".length()));
+        Files.copy(older, directory.resolve("users-" + (gen + 1) + ".log"));
+        Files.write(older, new byte[] { 0, 0, 0, 40, 1, 2 }, StandardOpenOption.APPEND);
+        long damagedSize = Files.size(older);
+
+        UserStore reopened = new UserStore(directory, Long.MAX_VALUE);
+        assertThrows(IOException.class, () -> reopened.replay(emptyReplay(new HashMap<>())));
+        assertEquals(damagedSize, Files.size(older), "A damaged older log must not be truncated.");
+        System.out.println("Validated: Only the newest log has its tail cut off.");
+    }
+
+    @Test
+    void testReplayOfManyUsersIsFast() throws IOException {
+        System.out.println("Starting test for replaying 100k users.");
+
+        int users = 100_000;
+        List<User> all = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) all.add(User.withPasswordHash("user" + i, "password" + i, List.of("Student")));
+
+        UserStore store = new UserStore(directory, Long.MAX_VALUE);
+        store.replay(emptyReplay(new HashMap<>()));
+        store.compact(snapshot -> {
+            for (User user : all.subList(0, users / 2)) snapshot.user(user);
+        });
+        long seq = 0;
+        for (User user : all.subList(users / 2, users)) seq = store.logPutUser(user);
+        store.sync(seq); // One group commit for the whole tail
+        store.close();
+
+        Map<String, User> replayed = new HashMap<>();
+        long start = System.nanoTime();
+        UserStore reopened = new UserStore(directory, Long.MAX_VALUE);
+        long records = reopened.replay(emptyReplay(replayed));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        reopened.close();
+
+        assertEquals(users, records);
+        assertEquals(users, replayed.size());
+        assertEquals("password99999", replayed.get("user99999").getPassword());
+        System.out.println("Replayed " + records + " records in " + millis + " ms.");
+        assertTrue(millis < 3_000, "Replaying 100k users should take well under a few seconds.");
+    }
+
+    private static UserStore.Replay emptyReplay(Map<String, User> users) {
+        return new UserStore.Replay() {
+            @Override
+            public void putUser(User user) { users.put(user.getUsername(), user); }
+
+            @Override
+            public void deleteUser(String username) { users.remove(username); }
+
+            @Override
+            public void putInvitation(String code, User.Invitation invitation) {}
+
+            @Override
+            public void removeInvitation(String code) {}
+        };
+    }
+}
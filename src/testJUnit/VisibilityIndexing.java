@@ -0,0 +1,101 @@
+package testJUnit;
+
+import model.ArticleBitmap;
+import model.ArticleVisibilityIndex;
+import model.PostingList;
+import org.junit.jupiter.api.*;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VisibilityIndexing {
+
+    @Test
+    void testBitmapMatchesBitSet() {
+        System.out.println("Running testBitmapMatchesBitSet...");
+
+        // Dense and sparse regions, so containers switch between arrays and bitmaps both ways
+        Random random = new Random(42);
+        ArticleBitmap a = new ArticleBitmap(), b = new ArticleBitmap();
+        BitSet expectedA = new BitSet(), expectedB = new BitSet();
+        for (int i = 0; i < 30_000; i++) {
+            int dense = 1 + random.nextInt(8_000), sparse = 1 + random.nextInt(1 << 20);
+            assertEquals(!expectedA.get(dense), a.add(dense));
+            expectedA.set(dense);
+            b.add(sparse);
+            expectedB.set(sparse);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            int id = 1 + random.nextInt(8_000);
+            assertEquals(expectedA.get(id), a.remove(id));
+            expectedA.clear(id);
+        }
+        for (int i = 1; i <= 8_000; i += 2) b.add(i);
+        for (int i = 1; i <= 8_000; i += 2) expectedB.set(i);
+
+        assertBitmapEquals(expectedA, a);
+        assertBitmapEquals(expectedB, b);
+
+        BitSet and = (BitSet) expectedA.clone();
+        and.and(expectedB);
+        assertBitmapEquals(and, ArticleBitmap.and(a, b));
+        BitSet or = (BitSet) expectedA.clone();
+        or.or(expectedB);
+        assertBitmapEquals(or, ArticleBitmap.or(a, b));
+        BitSet andNot = (BitSet) expectedA.clone();
+        andNot.andNot(expectedB);
+        assertBitmapEquals(andNot, ArticleBitmap.andNot(a, b));
+
+        assertBitmapEquals(expectedA, ArticleBitmap.of(a.toPostingList()));
+        System.out.println("testBitmapMatchesBitSet passed.");
+    }
+
+    @Test
+    void testRestrictedArticlesFollowViewRights() {
+        System.out.println("Running testRestrictedArticlesFollowViewRights...");
+
+        ArticleVisibilityIndex index = new ArticleVisibilityIndex();
+        index.addGroup("general", false);
+        index.addGroup("special", true);
+        index.addArticle("general", 1);
+        index.addArticle("special", 2);
+        index.addMember("special", "alice", true);
+        index.addMember("special", "bob", false);
+
+        assertTrue(index.canView("carol", 1), "Articles outside special groups are visible to everyone.");
+        assertFalse(index.canView("carol", 2), "Special group articles are hidden from non-members.");
+        assertFalse(index.canView("bob", 2), "Members without view rights may not see them either.");
+        assertTrue(index.canView("alice", 2));
+
+        index.addArticle("special", 3);
+        assertTrue(index.canView("alice", 3), "New articles reach members with view rights at once.");
+        assertArrayEquals(new int[] { 2, 3 }, index.getHiddenArticles("bob").toPostingList().toArray());
+
+        index.setCanView("special", "bob", true);
+        index.setCanView("special", "alice", false);
+        assertTrue(index.canView("bob", 3));
+        assertFalse(index.canView("alice", 3), "Revoking view rights should recompute the user's articles.");
+
+        index.removeMember("special", "bob");
+        assertFalse(index.canView("bob", 2));
+        assertNull(index.getCanView("special", "bob"));
+
+        index.removeGroup("special");
+        assertTrue(index.canView("carol", 2), "Deleting the only special group lifts the restriction.");
+        assertTrue(index.getGroupArticles("special").isEmpty());
+        System.out.println("testRestrictedArticlesFollowViewRights passed.");
+    }
+
+    private static void assertBitmapEquals(BitSet expected, ArticleBitmap actual) {
+        assertEquals(expected.cardinality(), actual.getCardinality());
+        PostingList ids = actual.toPostingList();
+        int i = 0;
+        for (int id = expected.nextSetBit(0); id >= 0; id = expected.nextSetBit(id + 1)) {
+            assertEquals(id, ids.get(i++));
+            assertTrue(actual.contains(id));
+        }
+    }
+}